@@ -0,0 +1,141 @@
+package com.example.hotel_management.availability;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One bit per room-night over a rolling horizon, grouped per hotel.
+ * <p>
+ * Bit {@code n} of a room's row is set when a blocking stay covers the night starting on
+ * {@code firstNight + n}. A stay occupies the nights from its check-in date up to, but not including,
+ * its check-out date, and always at least its check-in night. A 730-night row is twelve {@code long}s,
+ * so a hotel's whole calendar is a few KB and a range check is a masked scan over a handful of words.
+ * <p>
+ * Rows are derived from {@link RoomIntervals} and replaced wholesale, so readers never see a half-written row.
+ * Writers are serialized by {@link RoomAvailabilityIndex}, which also builds a fresh calendar to roll the horizon.
+ */
+final class OccupancyCalendar {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private final int horizonNights;
+    private final int wordsPerRow;
+    // epoch day of the night held in bit 0; the horizon moves by building a new calendar
+    private final long firstNight;
+    private final Map<Long, Map<Long, long[]>> rowsByHotel = new ConcurrentHashMap<>();
+
+    OccupancyCalendar(int horizonNights, long firstNight) {
+        this.horizonNights = horizonNights;
+        this.wordsPerRow = (horizonNights + 63) >>> 6;
+        this.firstNight = firstNight;
+    }
+
+    void refresh(Long hotelId, Long roomId, RoomIntervals intervals) {
+        if (hotelId == null || roomId == null) {
+            return;
+        }
+        if (intervals == null || intervals.isEmpty()) {
+            Map<Long, long[]> rows = rowsByHotel.get(hotelId);
+            if (rows != null) {
+                rows.remove(roomId);
+            }
+            return;
+        }
+        long[] row = new long[wordsPerRow];
+        for (int i = 0; i < intervals.size(); i++) {
+            long firstNightOfStay = Math.floorDiv(intervals.startAt(i), SECONDS_PER_DAY);
+            long endNight = Math.max(Math.floorDiv(intervals.endAt(i), SECONDS_PER_DAY), firstNightOfStay + 1);
+            setRange(row, firstNightOfStay - firstNight, endNight - firstNight);
+        }
+        rowsByHotel.computeIfAbsent(hotelId, id -> new ConcurrentHashMap<>()).put(roomId, row);
+    }
+
+    /**
+     * Returns true when no stay can overlap [start, end) because every night that such a stay would have to
+     * occupy is clear. Those are the nights from the one before the check-in date through the check-out date.
+     * Returns false when any of them is set or lies outside the horizon; the caller then checks the intervals.
+     */
+    boolean isClear(Long hotelId, Long roomId, long start, long end) {
+        long from = Math.floorDiv(start, SECONDS_PER_DAY) - 1 - firstNight;
+        long to = Math.floorDiv(end, SECONDS_PER_DAY) + 1 - firstNight;
+        if (from < 0 || to > horizonNights) {
+            return false;
+        }
+        Map<Long, long[]> rows = hotelId != null ? rowsByHotel.get(hotelId) : null;
+        long[] row = rows != null ? rows.get(roomId) : null;
+        return row == null || isClear(row, (int) from, (int) to);
+    }
+
+    /**
+     * Returns true when every night {@link #isClear} would inspect for [start, end) lies inside the horizon.
+     */
+    boolean covers(long start, long end) {
+        return Math.floorDiv(start, SECONDS_PER_DAY) - 1 >= firstNight
+                && Math.floorDiv(end, SECONDS_PER_DAY) + 1 <= firstNight + horizonNights;
+    }
+
+    /**
+     * Rows of one hotel; rooms without a row have no blocking stay in the horizon.
+     */
+    Map<Long, long[]> rowsOf(Long hotelId) {
+        Map<Long, long[]> rows = rowsByHotel.get(hotelId);
+        return rows != null ? rows : Map.of();
+    }
+
+    int hotelCount() {
+        return rowsByHotel.size();
+    }
+
+    int roomCount() {
+        return rowsByHotel.values().stream().mapToInt(Map::size).sum();
+    }
+
+    long sizeInBytes() {
+        return (long) roomCount() * wordsPerRow * Long.BYTES;
+    }
+
+    // sets bits [from, to), clipped to the horizon
+    private void setRange(long[] row, long from, long to) {
+        int start = (int) Math.max(0, from);
+        int end = (int) Math.min(horizonNights, to);
+        if (start >= end) {
+            return;
+        }
+        int firstWord = start >>> 6;
+        int lastWord = (end - 1) >>> 6;
+        long firstMask = -1L << start;
+        long lastMask = -1L >>> -end;
+        if (firstWord == lastWord) {
+            row[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        row[firstWord] |= firstMask;
+        for (int w = firstWord + 1; w < lastWord; w++) {
+            row[w] = -1L;
+        }
+        row[lastWord] |= lastMask;
+    }
+
+    // true if bits [from, to) are all zero
+    static boolean isClear(long[] row, int from, int to) {
+        if (from >= to) {
+            return true;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            return (row[firstWord] & firstMask & lastMask) == 0;
+        }
+        if ((row[firstWord] & firstMask) != 0) {
+            return false;
+        }
+        for (int w = firstWord + 1; w < lastWord; w++) {
+            if (row[w] != 0) {
+                return false;
+            }
+        }
+        return (row[lastWord] & lastMask) == 0;
+    }
+}
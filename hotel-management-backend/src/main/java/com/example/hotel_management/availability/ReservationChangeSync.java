@@ -0,0 +1,175 @@
+package com.example.hotel_management.availability;
+
+import com.example.hotel_management.event.ReservationChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the {@link RoomAvailabilityIndex} of every node current when several nodes run.
+ * <p>
+ * The ids of the reservations a transaction changed are sent with PostgreSQL {@code NOTIFY} just before it
+ * commits, so other nodes hear of them only once the change is visible. Each node {@code LISTEN}s on its own
+ * connection and reloads the reservations other nodes announced. After (re)connecting the index is rebuilt,
+ * since notifications sent while nobody listened are lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationChangeSync {
+
+    static final String CHANNEL = "reservation_changed";
+    // keeps every payload well below PostgreSQL's limit of 8000 bytes
+    private static final int IDS_PER_NOTIFICATION = 300;
+
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    @Value("${availability.index.sync.enabled:${scheduler.partitioning.enabled:false}}")
+    private boolean enabled;
+
+    @Value("${availability.index.sync.poll-ms:1000}")
+    private int pollMillis;
+
+    // tells this node's own notifications apart; its index already applied them from the event
+    private final String sender = UUID.randomUUID().toString();
+    private volatile boolean running;
+    private Thread listener;
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(event.getReservationId()));
+            return;
+        }
+        // one notification per transaction, e.g. for a whole chunk of the status job
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> ids = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    send(ids);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReservationChangeSync.this);
+                }
+            });
+            pending = ids;
+        }
+        pending.add(event.getReservationId());
+    }
+
+    private void send(Iterable<Long> reservationIds) {
+        StringBuilder payload = new StringBuilder(sender);
+        int count = 0;
+        for (Long id : reservationIds) {
+            payload.append(count == 0 ? ' ' : ',').append(id);
+            if (++count == IDS_PER_NOTIFICATION) {
+                notify(payload.toString());
+                payload.setLength(sender.length());
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            notify(payload.toString());
+        }
+    }
+
+    private void notify(String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "reservation-change-sync");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                availabilityIndex.rebuild();
+                log.info("Listening for reservation changes of other nodes");
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    List<Long> changed = changedByOthers(notifications.getNotifications(pollMillis));
+                    if (!changed.isEmpty()) {
+                        availabilityIndex.reload(changed);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost the reservation change listener, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<Long> changedByOthers(PGNotification[] notifications) {
+        if (notifications == null) {
+            return List.of();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            int space = payload.indexOf(' ');
+            if (space < 0 || payload.substring(0, space).equals(sender)) {
+                continue;
+            }
+            for (String id : payload.substring(space + 1).split(",")) {
+                ids.add(Long.valueOf(id));
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.hotel_management.availability;
+
+import com.example.hotel_management.dto.AvailabilityIndexStatsDTO;
+import com.example.hotel_management.dto.ReservationIntervalDTO;
+import com.example.hotel_management.enums.ReservationStatus;
+import com.example.hotel_management.event.ReservationChangedEvent;
+import com.example.hotel_management.event.ReservationSnapshot;
+import com.example.hotel_management.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * In-memory index of blocking (PENDING, CONFIRMED, CHECKED_IN) stays per room.
+ * <p>
+ * Loaded once the application is ready and kept current from {@link ReservationChangedEvent}s after their
+ * transaction commits, so availability checks never touch the database. Until the first load finishes
+ * lookups fall through to the supplied database check and are counted as misses. Stays are half-open
+ * ranges: a check-out and the next check-in may share the same instant.
+ * <p>
+ * An {@link OccupancyCalendar} of room-nights is derived from the same intervals. It answers most lookups with
+ * a masked word scan and lets hotel-wide searches look only at rooms that have a stay in the requested nights.
+ * <p>
+ * Events only reach the node that made the change. With several nodes, {@link ReservationChangeSync} reloads
+ * the reservations other nodes changed, so every node sees every booking shortly after it commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomAvailabilityIndex {
+
+    private final ReservationRepository reservationRepository;
+
+    private volatile Map<Long, RoomIntervals> intervalsByRoom = new ConcurrentHashMap<>();
+    private volatile Map<Long, Long> roomByReservation = new ConcurrentHashMap<>();
+    private volatile Map<Long, Long> hotelByRoom = new ConcurrentHashMap<>();
+    private volatile OccupancyCalendar calendar;
+    private volatile boolean ready;
+
+    @Value("${availability.calendar.horizon-nights:730}")
+    private int calendarHorizonNights;
+
+    // writers (event application, rebuild, verification) are serialized; readers never lock
+    private final Object writeLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder calendarHits = new LongAdder();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile LocalDateTime lastRebuildAt;
+    private volatile long lastRebuildMillis;
+    private volatile LocalDateTime lastVerifiedAt;
+    private volatile int lastDriftRooms;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Answers whether the room is free for [checkIn, checkOut), ignoring {@code excludeReservationId}.
+     * Falls back to {@code databaseCheck} while the index is not loaded.
+     */
+    public boolean isAvailable(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut,
+                               Long excludeReservationId, BooleanSupplier databaseCheck) {
+        if (!ready) {
+            misses.increment();
+            return databaseCheck.getAsBoolean();
+        }
+        hits.increment();
+        return isFree(roomId, checkIn, checkOut, excludeReservationId);
+    }
+
+    /**
+     * Returns the rooms of a hotel that are taken for any part of [checkIn, checkOut), or null when the index
+     * cannot answer (not loaded yet, or the stay reaches outside the calendar horizon).
+     */
+    public Set<Long> findUnavailableRooms(Long hotelId, LocalDateTime checkIn, LocalDateTime checkOut) {
+        OccupancyCalendar current = calendar;
+        if (!ready || current == null) {
+            misses.increment();
+            return null;
+        }
+        if (!current.covers(toEpoch(checkIn), toEpoch(checkOut))) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        Set<Long> unavailable = new HashSet<>();
+        // rooms without a row have no stay inside the horizon, so they cannot overlap a stay within it
+        for (Long roomId : current.rowsOf(hotelId).keySet()) {
+            if (!isFree(roomId, checkIn, checkOut, null)) {
+                unavailable.add(roomId);
+            }
+        }
+        return unavailable;
+    }
+
+    private boolean isFree(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut, Long excludeReservationId) {
+        long start = toEpoch(checkIn);
+        long end = toEpoch(checkOut);
+        OccupancyCalendar current = calendar;
+        if (current != null && current.isClear(hotelByRoom.get(roomId), roomId, start, end)) {
+            calendarHits.increment();
+            return true;
+        }
+        RoomIntervals intervals = intervalsByRoom.get(roomId);
+        return intervals == null
+                || !intervals.overlaps(start, end, excludeReservationId != null ? excludeReservationId : Long.MIN_VALUE);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        apply(event.getCurrent());
+    }
+
+    void apply(ReservationSnapshot reservation) {
+        synchronized (writeLock) {
+            Long previousRoom = roomByReservation.remove(reservation.getId());
+            if (previousRoom != null) {
+                intervalsByRoom.computeIfPresent(previousRoom, (roomId, intervals) -> {
+                    RoomIntervals updated = intervals.without(reservation.getId());
+                    return updated.isEmpty() ? null : updated;
+                });
+                refreshCalendar(previousRoom);
+            }
+            if (reservation.blocksRoom() && reservation.getRoomId() != null) {
+                intervalsByRoom.compute(reservation.getRoomId(), (roomId, intervals) ->
+                        (intervals != null ? intervals : RoomIntervals.EMPTY).with(reservation.getId(),
+                                toEpoch(reservation.getCheckInTime()), toEpoch(reservation.getCheckOutTime())));
+                roomByReservation.put(reservation.getId(), reservation.getRoomId());
+                if (reservation.getHotelId() != null) {
+                    hotelByRoom.put(reservation.getRoomId(), reservation.getHotelId());
+                }
+                refreshCalendar(reservation.getRoomId());
+            }
+        }
+    }
+
+    /**
+     * Reloads the given reservations from the database and applies them, for changes committed by another node.
+     * Reservations that no longer exist are dropped. The rows are read under the write lock, so a local event
+     * applied meanwhile is never overwritten with older data.
+     */
+    public void reload(Collection<Long> reservationIds) {
+        if (!ready || reservationIds.isEmpty()) {
+            return; // the first load reads everything anyway
+        }
+        synchronized (writeLock) {
+            Map<Long, ReservationIntervalDTO> rows = new HashMap<>();
+            reservationRepository.findIntervalsByIdIn(reservationIds).forEach(row -> rows.put(row.getId(), row));
+            for (Long id : reservationIds) {
+                ReservationIntervalDTO row = rows.get(id);
+                apply(row != null
+                        ? new ReservationSnapshot(row.getId(), row.getRoomId(), row.getHotelId(),
+                                row.getCheckInTime(), row.getCheckOutTime(), row.getStatus(), null, null)
+                        : new ReservationSnapshot(id, null, null, null, null, null, null, null));
+            }
+        }
+    }
+
+    /**
+     * Moves the calendar horizon forward; run just after midnight so yesterday's night drops off.
+     */
+    @Scheduled(cron = "${availability.calendar.roll-cron:0 0 0 * * *}")
+    public void rollCalendar() {
+        if (!ready) {
+            return;
+        }
+        synchronized (writeLock) {
+            calendar = buildCalendar(intervalsByRoom, hotelByRoom);
+        }
+    }
+
+    private void refreshCalendar(Long roomId) {
+        OccupancyCalendar current = calendar;
+        if (current != null) {
+            current.refresh(hotelByRoom.get(roomId), roomId, intervalsByRoom.get(roomId));
+        }
+    }
+
+    private OccupancyCalendar buildCalendar(Map<Long, RoomIntervals> intervals, Map<Long, Long> hotels) {
+        // start one night back: a stay overlapping today may have begun yesterday
+        OccupancyCalendar built = new OccupancyCalendar(calendarHorizonNights, LocalDate.now().toEpochDay() - 1);
+        intervals.forEach((roomId, roomIntervals) -> built.refresh(hotels.get(roomId), roomId, roomIntervals));
+        return built;
+    }
+
+    /**
+     * Reloads every blocking stay from the database and swaps the index in one step.
+     */
+    public void rebuild() {
+        synchronized (writeLock) {
+            long started = System.currentTimeMillis();
+            List<ReservationIntervalDTO> rows = loadBlockingIntervals();
+            install(rows);
+            ready = true;
+
+            lastRebuildMillis = System.currentTimeMillis() - started;
+            lastRebuildAt = LocalDateTime.now();
+            rebuilds.incrementAndGet();
+            log.info("Availability index loaded {} reservations for {} rooms in {} ms",
+                    roomByReservation.size(), intervalsByRoom.size(), lastRebuildMillis);
+        }
+    }
+
+    /**
+     * Compares the index with the database and repairs it if any room differs.
+     *
+     * @return the number of rooms whose indexed stays did not match the database
+     */
+    @Scheduled(fixedDelayString = "${availability.index.verify-interval-ms:900000}",
+               initialDelayString = "${availability.index.verify-interval-ms:900000}")
+    public int verify() {
+        if (!ready) {
+            return 0;
+        }
+        synchronized (writeLock) {
+            List<ReservationIntervalDTO> rows = loadBlockingIntervals();
+            Map<Long, RoomIntervals> expected = build(rows, new HashMap<>(), new HashMap<>());
+
+            Set<Long> roomIds = new HashSet<>(expected.keySet());
+            roomIds.addAll(intervalsByRoom.keySet());
+            int drift = 0;
+            for (Long roomId : roomIds) {
+                RoomIntervals actual = intervalsByRoom.getOrDefault(roomId, RoomIntervals.EMPTY);
+                if (!actual.sameEntries(expected.getOrDefault(roomId, RoomIntervals.EMPTY))) {
+                    drift++;
+                }
+            }
+
+            lastVerifiedAt = LocalDateTime.now();
+            lastDriftRooms = drift;
+            if (drift > 0) {
+                log.warn("Availability index drifted from the database for {} rooms, replacing it", drift);
+                install(rows);
+                rebuilds.incrementAndGet();
+                lastRebuildAt = lastVerifiedAt;
+            }
+            return drift;
+        }
+    }
+
+    public AvailabilityIndexStatsDTO getStats() {
+        Map<Long, RoomIntervals> current = intervalsByRoom;
+        return AvailabilityIndexStatsDTO.builder()
+                .ready(ready)
+                .indexedRooms(current.size())
+                .indexedReservations(roomByReservation.size())
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .calendarHits(calendarHits.sum())
+                .calendarHorizonNights(calendarHorizonNights)
+                .calendarHotels(calendar != null ? calendar.hotelCount() : 0)
+                .calendarRooms(calendar != null ? calendar.roomCount() : 0)
+                .calendarBytes(calendar != null ? calendar.sizeInBytes() : 0)
+                .rebuilds(rebuilds.get())
+                .lastRebuildAt(lastRebuildAt)
+                .lastRebuildMillis(lastRebuildMillis)
+                .lastVerifiedAt(lastVerifiedAt)
+                .lastDriftRooms(lastDriftRooms)
+                .build();
+    }
+
+    private List<ReservationIntervalDTO> loadBlockingIntervals() {
+        return reservationRepository.findIntervalsByStatusIn(ReservationStatus.blockingStatuses());
+    }
+
+    private void install(List<ReservationIntervalDTO> rows) {
+        Map<Long, Long> reservations = new ConcurrentHashMap<>();
+        Map<Long, Long> hotels = new ConcurrentHashMap<>();
+        Map<Long, RoomIntervals> byRoom = build(rows, reservations, hotels);
+        OccupancyCalendar builtCalendar = buildCalendar(byRoom, hotels);
+        intervalsByRoom = byRoom;
+        roomByReservation = reservations;
+        hotelByRoom = hotels;
+        calendar = builtCalendar;
+    }
+
+    private static Map<Long, RoomIntervals> build(List<ReservationIntervalDTO> rows,
+                                                  Map<Long, Long> roomByReservation, Map<Long, Long> hotelByRoom) {
+        Map<Long, RoomIntervals> byRoom = new HashMap<>();
+        for (ReservationIntervalDTO row : rows) {
+            byRoom.compute(row.getRoomId(), (roomId, intervals) ->
+                    (intervals != null ? intervals : RoomIntervals.EMPTY).with(row.getId(),
+                            toEpoch(row.getCheckInTime()), toEpoch(row.getCheckOutTime())));
+            roomByReservation.put(row.getId(), row.getRoomId());
+            if (row.getHotelId() != null) {
+                hotelByRoom.put(row.getRoomId(), row.getHotelId());
+            }
+        }
+        return new ConcurrentHashMap<>(byRoom);
+    }
+
+    static long toEpoch(LocalDateTime time) {
+        // only used for ordering, so the offset is irrelevant as long as it is fixed
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
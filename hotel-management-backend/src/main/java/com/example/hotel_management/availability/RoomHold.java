@@ -0,0 +1,70 @@
+package com.example.hotel_management.availability;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A short claim on a room for [checkInTime, checkOutTime) while a guest completes checkout.
+ * Orders by expiry so the store can release it from a {@link java.util.concurrent.DelayQueue}.
+ * A hold that is being converted into a reservation does not expire until the conversion ends.
+ */
+@Getter
+public final class RoomHold implements Delayed {
+
+    private final String id;
+    private final Long roomId;
+    private final LocalDateTime checkInTime;
+    private final LocalDateTime checkOutTime;
+    private final LocalDateTime expiresAt;
+    private final long expiresAtNanos;
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean converting = new AtomicBoolean();
+
+    RoomHold(String id, Long roomId, LocalDateTime checkInTime, LocalDateTime checkOutTime, long ttlNanos) {
+        this.id = id;
+        this.roomId = roomId;
+        this.checkInTime = checkInTime;
+        this.checkOutTime = checkOutTime;
+        this.expiresAt = LocalDateTime.now().plusNanos(ttlNanos);
+        this.expiresAtNanos = System.nanoTime() + ttlNanos;
+    }
+
+    boolean isExpired() {
+        return !converting.get() && System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    boolean isConverting() {
+        return converting.get();
+    }
+
+    // false if the hold has expired or another request is already converting it
+    boolean startConverting() {
+        return !isExpired() && converting.compareAndSet(false, true);
+    }
+
+    void stopConverting() {
+        converting.set(false);
+    }
+
+    boolean overlaps(LocalDateTime checkIn, LocalDateTime checkOut) {
+        return checkInTime.isBefore(checkOut) && checkOutTime.isAfter(checkIn);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(expiresAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof RoomHold hold) {
+            return Long.compare(expiresAtNanos - hold.expiresAtNanos, 0);
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
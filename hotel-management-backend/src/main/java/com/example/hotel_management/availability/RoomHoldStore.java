@@ -0,0 +1,202 @@
+package com.example.hotel_management.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * In-memory holds on rooms, so a guest filling in checkout details keeps the room without a PENDING row.
+ * <p>
+ * Holds live only in this process and expire on their own: lookups ignore expired holds straight away and a
+ * reaper drains them from an expiry-ordered {@link DelayQueue}. Holds per room are changed atomically, so two
+ * guests cannot hold overlapping stays on the same room. A hold being confirmed stays in place until its
+ * reservation has committed, so the room is never free in between.
+ */
+@Slf4j
+@Component
+public class RoomHoldStore {
+
+    private final Map<String, RoomHold> holdsById = new ConcurrentHashMap<>();
+    private final Map<Long, List<RoomHold>> holdsByRoom = new ConcurrentHashMap<>();
+    private final DelayQueue<RoomHold> expiryQueue = new DelayQueue<>();
+
+    @Value("${availability.holds.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    /**
+     * Holds the room for [checkIn, checkOut) unless another live hold overlaps it or {@code roomFree} says the
+     * room is booked.
+     *
+     * @throws IllegalStateException if the stay is not available
+     */
+    public RoomHold place(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut, BooleanSupplier roomFree) {
+        RoomHold hold = new RoomHold(UUID.randomUUID().toString(), roomId, checkIn, checkOut,
+                TimeUnit.SECONDS.toNanos(ttlSeconds));
+        // the booking check may query the database, so it runs before compute rather than under the map's bin lock
+        if (overlapsLiveHold(holdsByRoom.get(roomId), checkIn, checkOut, null) || !roomFree.getAsBoolean()) {
+            throw new IllegalStateException("Room is not available for the selected dates");
+        }
+        holdsByRoom.compute(roomId, (id, holds) -> {
+            // a hold placed meanwhile wins; only the in-memory check is repeated here
+            if (overlapsLiveHold(holds, checkIn, checkOut, null)) {
+                throw new IllegalStateException("Room is not available for the selected dates");
+            }
+            List<RoomHold> updated = new ArrayList<>(holds != null ? holds.size() + 1 : 1);
+            if (holds != null) {
+                holds.stream().filter(existing -> !existing.isExpired()).forEach(updated::add);
+            }
+            updated.add(hold);
+            return updated;
+        });
+        holdsById.put(hold.getId(), hold);
+        expiryQueue.add(hold);
+        return hold;
+    }
+
+    /**
+     * Returns true if a live hold covers any part of [checkIn, checkOut).
+     */
+    public boolean isHeld(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut) {
+        return isHeld(roomId, checkIn, checkOut, null);
+    }
+
+    /**
+     * Returns true if a live hold other than {@code ignoredHoldId} covers any part of [checkIn, checkOut), so the
+     * booking made for a hold is not blocked by the hold itself.
+     */
+    public boolean isHeld(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut, String ignoredHoldId) {
+        return overlapsLiveHold(holdsByRoom.get(roomId), checkIn, checkOut, ignoredHoldId);
+    }
+
+    /**
+     * Marks the hold as being converted into a reservation and returns it. The hold stays in the store and keeps
+     * blocking other guests until {@link #endConversion} is called, and it does not expire meanwhile.
+     *
+     * @return null if the hold is gone or expired
+     * @throws IllegalStateException if another request is already converting the hold
+     */
+    public RoomHold beginConversion(String holdId) {
+        RoomHold hold = get(holdId);
+        if (hold == null) {
+            return null;
+        }
+        boolean[] started = new boolean[1];
+        boolean[] busy = new boolean[1];
+        // under the room's bin lock, so the reaper cannot take the hold out between the checks and the flag
+        holdsByRoom.computeIfPresent(hold.getRoomId(), (id, holds) -> {
+            if (holds.contains(hold) && holdsById.get(holdId) == hold) {
+                busy[0] = hold.isConverting();
+                started[0] = hold.startConverting();
+            }
+            return holds;
+        });
+        if (busy[0]) {
+            throw new IllegalStateException("Hold is already being confirmed");
+        }
+        return started[0] ? hold : null;
+    }
+
+    /**
+     * Ends a conversion started by {@link #beginConversion}. A hold that became a reservation is removed; call this
+     * only after the reservation has committed. Otherwise the hold stays for the guest to retry, unless it has
+     * expired meanwhile.
+     */
+    public void endConversion(RoomHold hold, boolean booked) {
+        if (booked) {
+            remove(hold, true, true);
+            return;
+        }
+        hold.stopConverting();
+        if (hold.isExpired()) {
+            remove(hold, true, false);
+        } else {
+            // the reaper may have polled and skipped it while it was converting
+            expiryQueue.remove(hold);
+            expiryQueue.add(hold);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the hold is being converted into a reservation
+     */
+    public boolean release(String holdId) {
+        RoomHold hold = holdsById.get(holdId);
+        if (hold == null) {
+            return false;
+        }
+        if (remove(hold, true, false)) {
+            return true;
+        }
+        if (hold.isConverting()) {
+            throw new IllegalStateException("Hold is being confirmed");
+        }
+        return false;
+    }
+
+    public RoomHold get(String holdId) {
+        RoomHold hold = holdsById.get(holdId);
+        return hold != null && !hold.isExpired() ? hold : null;
+    }
+
+    public int size() {
+        return holdsById.size();
+    }
+
+    @Scheduled(fixedDelayString = "${availability.holds.reap-interval-ms:1000}")
+    public void releaseExpired() {
+        int released = 0;
+        for (RoomHold hold = expiryQueue.poll(); hold != null; hold = expiryQueue.poll()) {
+            if (remove(hold, false, false)) {
+                released++;
+            }
+        }
+        if (released > 0) {
+            log.debug("Released {} expired room holds", released);
+        }
+    }
+
+    // true only for the caller that actually took the hold out; a converting hold is only taken out by its conversion
+    private boolean remove(RoomHold hold, boolean dequeue, boolean converted) {
+        boolean[] removed = new boolean[1];
+        holdsByRoom.compute(hold.getRoomId(), (id, holds) -> {
+            if ((hold.isConverting() && !converted) || !holdsById.remove(hold.getId(), hold)) {
+                return holds;
+            }
+            removed[0] = true;
+            if (holds == null) {
+                return null;
+            }
+            List<RoomHold> updated = new ArrayList<>(holds);
+            updated.remove(hold);
+            return updated.isEmpty() ? null : updated;
+        });
+        if (removed[0] && dequeue) {
+            expiryQueue.remove(hold);
+        }
+        return removed[0];
+    }
+
+    private static boolean overlapsLiveHold(List<RoomHold> holds, LocalDateTime checkIn, LocalDateTime checkOut,
+                                            String ignoredHoldId) {
+        if (holds == null) {
+            return false;
+        }
+        for (RoomHold hold : holds) {
+            if (!hold.isExpired() && hold.overlaps(checkIn, checkOut) && !hold.getId().equals(ignoredHoldId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
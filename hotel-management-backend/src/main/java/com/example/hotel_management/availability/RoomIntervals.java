@@ -0,0 +1,156 @@
+package com.example.hotel_management.availability;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, start-sorted array of the blocking stays of one room.
+ * <p>
+ * {@code maxEnds[i]} is the largest end among entries {@code 0..i}, which lets an overlap query
+ * binary-search to the last stay starting before the requested check-out and then walk backwards
+ * only while earlier stays can still reach the requested check-in. Updates copy the arrays; a room
+ * only ever holds a handful of open reservations, so that is cheaper than a pointer-based tree.
+ */
+final class RoomIntervals {
+
+    static final RoomIntervals EMPTY = new RoomIntervals(new long[0], new long[0], new long[0]);
+
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private RoomIntervals(long[] ids, long[] starts, long[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ends.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    long idAt(int i) {
+        return ids[i];
+    }
+
+    long startAt(int i) {
+        return starts[i];
+    }
+
+    long endAt(int i) {
+        return ends[i];
+    }
+
+    /**
+     * Returns true if any stay other than {@code excludeId} overlaps the half-open range [start, end).
+     */
+    boolean overlaps(long start, long end, long excludeId) {
+        // last index whose start is strictly before the requested end
+        int i = lowerBound(end) - 1;
+        for (; i >= 0 && maxEnds[i] > start; i--) {
+            if (ends[i] > start && ids[i] != excludeId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    RoomIntervals with(long id, long start, long end) {
+        RoomIntervals base = indexOf(id) >= 0 ? without(id) : this;
+        int n = base.ids.length;
+        int pos = base.upperBound(start);
+        // keep equal starts ordered by id so two indexes built from the same stays compare equal
+        while (pos > 0 && base.starts[pos - 1] == start && base.ids[pos - 1] > id) {
+            pos--;
+        }
+        long[] newIds = new long[n + 1];
+        long[] newStarts = new long[n + 1];
+        long[] newEnds = new long[n + 1];
+        System.arraycopy(base.ids, 0, newIds, 0, pos);
+        System.arraycopy(base.starts, 0, newStarts, 0, pos);
+        System.arraycopy(base.ends, 0, newEnds, 0, pos);
+        newIds[pos] = id;
+        newStarts[pos] = start;
+        newEnds[pos] = end;
+        System.arraycopy(base.ids, pos, newIds, pos + 1, n - pos);
+        System.arraycopy(base.starts, pos, newStarts, pos + 1, n - pos);
+        System.arraycopy(base.ends, pos, newEnds, pos + 1, n - pos);
+        return new RoomIntervals(newIds, newStarts, newEnds);
+    }
+
+    RoomIntervals without(long id) {
+        int idx = indexOf(id);
+        if (idx < 0) {
+            return this;
+        }
+        int n = ids.length;
+        if (n == 1) {
+            return EMPTY;
+        }
+        long[] newIds = new long[n - 1];
+        long[] newStarts = new long[n - 1];
+        long[] newEnds = new long[n - 1];
+        System.arraycopy(ids, 0, newIds, 0, idx);
+        System.arraycopy(starts, 0, newStarts, 0, idx);
+        System.arraycopy(ends, 0, newEnds, 0, idx);
+        System.arraycopy(ids, idx + 1, newIds, idx, n - idx - 1);
+        System.arraycopy(starts, idx + 1, newStarts, idx, n - idx - 1);
+        System.arraycopy(ends, idx + 1, newEnds, idx, n - idx - 1);
+        return new RoomIntervals(newIds, newStarts, newEnds);
+    }
+
+    boolean sameEntries(RoomIntervals other) {
+        return Arrays.equals(ids, other.ids)
+                && Arrays.equals(starts, other.starts)
+                && Arrays.equals(ends, other.ends);
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // first index whose start is not less than the given value
+    private int lowerBound(long value) {
+        int lo = 0;
+        int hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // first index whose start is greater than the given value
+    private int upperBound(long value) {
+        int lo = 0;
+        int hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.hotel_management.availability;
+
+import com.example.hotel_management.dto.RoomDTO;
+import com.example.hotel_management.entity.Room;
+import com.example.hotel_management.enums.RoomStatus;
+import com.example.hotel_management.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Answers "which rooms are occupied right now" either from the stored {@link Room#getStatus()} or, in derived
+ * mode, from the reservation timeline at read time.
+ * <p>
+ * In derived mode the scheduler, status changes and transition timers no longer write OCCUPIED/AVAILABLE to the
+ * rooms table; the stored status only carries manual states such as MAINTENANCE, which always wins. A room is
+ * occupied while a checked-in stay has not reached its check-out time, or a confirmed stay has started, so the
+ * answer is never stale between status job runs.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomOccupancyView {
+
+    private final RoomRepository roomRepository;
+
+    @Value("${rooms.occupancy.derived:false}")
+    private boolean derived;
+
+    public boolean isDerived() {
+        return derived;
+    }
+
+    public List<Room> findByHotelIdAndStatus(Long hotelId, RoomStatus status) {
+        if (!derived || status == RoomStatus.MAINTENANCE) {
+            return roomRepository.findByHotelIdAndStatus(hotelId, status);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return status == RoomStatus.OCCUPIED
+                ? roomRepository.findOccupiedRooms(hotelId, now)
+                : roomRepository.findVacantRooms(hotelId, now, Sort.unsorted());
+    }
+
+    public long countByHotelIdAndStatus(Long hotelId, RoomStatus status) {
+        if (!derived || status == RoomStatus.MAINTENANCE) {
+            return roomRepository.countByHotelIdAndStatus(hotelId, status);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return status == RoomStatus.OCCUPIED
+                ? roomRepository.countOccupiedRooms(hotelId, now)
+                : roomRepository.countVacantRooms(hotelId, now);
+    }
+
+    public List<Room> findAvailableSortedByPrice(Long hotelId) {
+        if (!derived) {
+            return roomRepository.findAvailableRoomsSortedByPrice(hotelId, RoomStatus.AVAILABLE);
+        }
+        return roomRepository.findVacantRooms(hotelId, LocalDateTime.now(), Sort.by("price"));
+    }
+
+    public List<Room> findAvailableByPriceRange(Long hotelId, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!derived) {
+            return roomRepository.findAvailableRoomsByPriceRange(hotelId, RoomStatus.AVAILABLE, minPrice, maxPrice);
+        }
+        return roomRepository.findVacantRoomsByPriceRange(hotelId, LocalDateTime.now(), minPrice, maxPrice);
+    }
+
+    /**
+     * Replaces the stored status of the given rooms with the derived one, using one query for all of them.
+     * Does nothing unless derived mode is on. Works on DTOs so managed entities are never touched.
+     */
+    public List<RoomDTO> applyTo(List<RoomDTO> rooms) {
+        if (!derived || rooms.isEmpty()) {
+            return rooms;
+        }
+        Set<Long> candidates = new HashSet<>();
+        for (RoomDTO room : rooms) {
+            if (room.getStatus() != RoomStatus.MAINTENANCE) {
+                candidates.add(room.getId());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return rooms;
+        }
+        Set<Long> occupied = new HashSet<>(roomRepository.findOccupiedRoomIds(candidates, LocalDateTime.now()));
+        for (RoomDTO room : rooms) {
+            if (candidates.contains(room.getId())) {
+                room.setStatus(occupied.contains(room.getId()) ? RoomStatus.OCCUPIED : RoomStatus.AVAILABLE);
+            }
+        }
+        return rooms;
+    }
+
+    public RoomDTO applyTo(RoomDTO room) {
+        applyTo(List.of(room));
+        return room;
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.hotel_management.booking;
+
+import com.example.hotel_management.dto.BookingEngineStatsDTO;
+import com.example.hotel_management.dto.ReservationDTO;
+import com.example.hotel_management.entity.Reservation;
+import com.example.hotel_management.repository.RoomRepository;
+import com.example.hotel_management.service.ReservationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional booking path for flash sales: every reservation command for a hotel goes through that hotel's
+ * bounded mailbox and is processed by one writer at a time, so bookings for the same inventory no longer
+ * contend on database rows. Different hotels are drained in parallel by a fixed pool of workers.
+ * <p>
+ * Each drain validates a small batch against the in-memory availability index, rejects conflicts inside the
+ * batch, and inserts the rest in one transaction. If that transaction fails, the batch is retried one
+ * reservation per transaction so a single bad command cannot fail the others. A full mailbox is reported
+ * with {@link RejectedExecutionException} so callers can answer 503 and ask the client to retry.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingEngine {
+
+    // batches drained per turn before the worker moves on, so one busy hotel cannot hold a worker forever
+    private static final int MAX_BATCHES_PER_TURN = 8;
+
+    private final ReservationService reservationService;
+    private final RoomRepository roomRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${booking.engine.enabled:false}")
+    private boolean enabled;
+
+    @Value("${booking.engine.workers:4}")
+    private int workers;
+
+    @Value("${booking.engine.mailbox-capacity:256}")
+    private int mailboxCapacity;
+
+    @Value("${booking.engine.batch-size:16}")
+    private int batchSize;
+
+    @Value("${booking.engine.response-timeout-ms:30000}")
+    private long responseTimeoutMillis;
+
+    @Value("${booking.engine.write-timeout-ms:10000}")
+    private long writeTimeoutMillis;
+
+    @Value("${booking.engine.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    private final Map<Long, HotelMailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Map<Long, Long> hotelByRoom = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "booking-engine-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        log.info("Booking engine started with {} workers, mailbox capacity {}, batch size {}",
+                workers, mailboxCapacity, batchSize);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Queues the reservation on its hotel's mailbox and waits for the outcome.
+     *
+     * @throws RejectedExecutionException if the hotel's mailbox is full, the command waited too long to start, its
+     *                                    write did not finish in time or the request was interrupted
+     * @throws BookingFailedException if the worker failed with anything but a runtime exception
+     * @throws IllegalStateException if the room is not available
+     * @throws IllegalArgumentException if the reservation is invalid
+     * @throws EntityNotFoundException if the room does not exist
+     */
+    public ReservationDTO book(Reservation reservation) {
+        HotelMailbox.Command command = submit(reservation);
+        try {
+            try {
+                return command.result.get(responseTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (command.claimed.compareAndSet(false, true)) {
+                    // never picked up by a worker, so it is safe to tell the client to retry
+                    throw new RejectedExecutionException("Booking queue is busy, please retry");
+                }
+                // already being written; the outcome is close, but a stuck write must not hold the request forever
+                return awaitWrite(command);
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BookingFailedException("Booking failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // e.g. the node is shutting down; like a timed out write, a retry cannot book the stay twice
+            throw new RejectedExecutionException("Interrupted while waiting for booking", e);
+        }
+    }
+
+    private ReservationDTO awaitWrite(HotelMailbox.Command command) throws ExecutionException, InterruptedException {
+        try {
+            return command.result.get(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // the write may still commit; a retry of the same stay is then refused as a conflict, not booked twice
+            throw new RejectedExecutionException("Booking is taking longer than expected, please retry");
+        }
+    }
+
+    private HotelMailbox.Command submit(Reservation reservation) {
+        if (reservation.getRoom() == null || reservation.getRoom().getId() == null) {
+            throw new IllegalArgumentException("Room is required");
+        }
+        Long hotelId = hotelByRoom.computeIfAbsent(reservation.getRoom().getId(),
+                roomId -> roomRepository.findHotelIdById(roomId)
+                        .orElseThrow(() -> new EntityNotFoundException("Room not found")));
+        HotelMailbox mailbox = mailboxes.computeIfAbsent(hotelId, id -> new HotelMailbox(id, mailboxCapacity));
+
+        HotelMailbox.Command command = new HotelMailbox.Command(reservation);
+        if (!mailbox.queue.offer(command)) {
+            mailbox.rejected.increment();
+            throw new RejectedExecutionException("Booking queue for hotel " + hotelId + " is full");
+        }
+        mailbox.submitted.increment();
+        schedule(mailbox);
+        return command;
+    }
+
+    private void schedule(HotelMailbox mailbox) {
+        if (mailbox.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(mailbox));
+        }
+    }
+
+    private void drain(HotelMailbox mailbox) {
+        try {
+            List<HotelMailbox.Command> batch = new ArrayList<>(batchSize);
+            for (int turn = 0; turn < MAX_BATCHES_PER_TURN; turn++) {
+                batch.clear();
+                mailbox.queue.drainTo(batch, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                process(mailbox, batch);
+            }
+        } catch (RuntimeException e) {
+            log.error("Booking engine failed draining hotel {}: {}", mailbox.hotelId, e.getMessage(), e);
+        } finally {
+            mailbox.scheduled.set(false);
+            // a command may have arrived after the last drain but before the flag was cleared
+            if (!mailbox.queue.isEmpty()) {
+                schedule(mailbox);
+            }
+        }
+    }
+
+    private void process(HotelMailbox mailbox, List<HotelMailbox.Command> batch) {
+        mailbox.batches.increment();
+        List<HotelMailbox.Command> accepted = new ArrayList<>(batch.size());
+        for (HotelMailbox.Command command : batch) {
+            if (!command.claimed.compareAndSet(false, true)) {
+                continue; // the caller gave up waiting before we got here
+            }
+            Reservation reservation = command.reservation;
+            if (reservation.getCheckInTime() == null || reservation.getCheckOutTime() == null) {
+                fail(mailbox, command, new IllegalArgumentException("Check-in and check-out times are required"));
+            } else if (overlapsAccepted(reservation, accepted)
+                    || !reservationService.isRoomAvailable(reservation.getRoom().getId(),
+                            reservation.getCheckInTime(), reservation.getCheckOutTime())) {
+                fail(mailbox, command, new IllegalStateException("Room is not available for the selected dates"));
+            } else {
+                accepted.add(command);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<ReservationDTO> created = transactionTemplate.execute(status -> accepted.stream()
+                    .map(command -> reservationService.createReservation(command.reservation))
+                    .toList());
+            for (int i = 0; i < accepted.size(); i++) {
+                complete(mailbox, accepted.get(i), created.get(i));
+            }
+        } catch (RuntimeException batchFailure) {
+            log.debug("Batch of {} bookings for hotel {} failed, retrying one by one: {}",
+                    accepted.size(), mailbox.hotelId, batchFailure.getMessage());
+            for (HotelMailbox.Command command : accepted) {
+                command.reservation.setId(null); // assigned by the rolled back insert
+                try {
+                    complete(mailbox, command, reservationService.createReservation(command.reservation));
+                } catch (RuntimeException e) {
+                    fail(mailbox, command, e);
+                }
+            }
+        }
+    }
+
+    private static boolean overlapsAccepted(Reservation reservation, List<HotelMailbox.Command> accepted) {
+        for (HotelMailbox.Command other : accepted) {
+            Reservation booked = other.reservation;
+            if (booked.getRoom().getId().equals(reservation.getRoom().getId())
+                    && booked.getCheckInTime().isBefore(reservation.getCheckOutTime())
+                    && booked.getCheckOutTime().isAfter(reservation.getCheckInTime())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void complete(HotelMailbox mailbox, HotelMailbox.Command command, ReservationDTO reservation) {
+        mailbox.recordDone(command, true);
+        command.result.complete(reservation);
+    }
+
+    private static void fail(HotelMailbox mailbox, HotelMailbox.Command command, RuntimeException error) {
+        mailbox.recordDone(command, false);
+        command.result.completeExceptionally(error);
+    }
+
+    public BookingEngineStatsDTO getStats() {
+        return BookingEngineStatsDTO.builder()
+                .enabled(enabled)
+                .workers(workers)
+                .mailboxCapacity(mailboxCapacity)
+                .batchSize(batchSize)
+                .hotels(mailboxes.values().stream()
+                        .map(HotelMailbox::toStats)
+                        .sorted(Comparator.comparing(BookingEngineStatsDTO.HotelEngineStatsDTO::getHotelId))
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.hotel_management.booking;
+
+/**
+ * A booking that failed inside the engine for a reason other than the request itself, such as an error in a
+ * worker. Unlike the {@link IllegalStateException} of a taken room, it says nothing about availability.
+ */
+public class BookingFailedException extends RuntimeException {
+
+    public BookingFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
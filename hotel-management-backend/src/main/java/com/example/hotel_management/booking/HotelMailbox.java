@@ -0,0 +1,74 @@
+package com.example.hotel_management.booking;
+
+import com.example.hotel_management.dto.BookingEngineStatsDTO;
+import com.example.hotel_management.dto.ReservationDTO;
+import com.example.hotel_management.entity.Reservation;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded queue of booking commands for one hotel plus its counters.
+ * At most one drain task per mailbox runs at a time, which makes it the hotel's single writer.
+ */
+final class HotelMailbox {
+
+    final Long hotelId;
+    final BlockingQueue<Command> queue;
+    // set while a drain task for this hotel is queued or running
+    final AtomicBoolean scheduled = new AtomicBoolean();
+
+    final LongAdder submitted = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder completed = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder batches = new LongAdder();
+    final LongAdder totalLatencyNanos = new LongAdder();
+    final AtomicLong maxLatencyNanos = new AtomicLong();
+    final long createdAtNanos = System.nanoTime();
+
+    HotelMailbox(Long hotelId, int capacity) {
+        this.hotelId = hotelId;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    void recordDone(Command command, boolean success) {
+        long latency = System.nanoTime() - command.enqueuedAtNanos;
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        (success ? completed : failed).increment();
+    }
+
+    BookingEngineStatsDTO.HotelEngineStatsDTO toStats() {
+        long done = completed.sum() + failed.sum();
+        double uptimeSeconds = Math.max(1e-3, (System.nanoTime() - createdAtNanos) / 1e9);
+        return BookingEngineStatsDTO.HotelEngineStatsDTO.builder()
+                .hotelId(hotelId)
+                .queueDepth(queue.size())
+                .submitted(submitted.sum())
+                .rejected(rejected.sum())
+                .completed(completed.sum())
+                .failed(failed.sum())
+                .batches(batches.sum())
+                .averageLatencyMillis(done == 0 ? 0 : totalLatencyNanos.sum() / 1e6 / done)
+                .maxLatencyMillis(maxLatencyNanos.get() / 1e6)
+                .throughputPerSecond(completed.sum() / uptimeSeconds)
+                .build();
+    }
+
+    static final class Command {
+        final Reservation reservation;
+        final CompletableFuture<ReservationDTO> result = new CompletableFuture<>();
+        final long enqueuedAtNanos = System.nanoTime();
+        // taken by the worker before writing, or by the caller when it gives up waiting; whoever wins decides
+        final AtomicBoolean claimed = new AtomicBoolean();
+
+        Command(Reservation reservation) {
+            this.reservation = reservation;
+        }
+    }
+}
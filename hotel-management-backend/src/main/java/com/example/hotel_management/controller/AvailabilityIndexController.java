@@ -0,0 +1,33 @@
+package com.example.hotel_management.controller;
+
+import com.example.hotel_management.availability.RoomAvailabilityIndex;
+import com.example.hotel_management.dto.AvailabilityIndexStatsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/availability-index")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class AvailabilityIndexController {
+
+    private final RoomAvailabilityIndex availabilityIndex;
+
+    @GetMapping("/stats")
+    public ResponseEntity<AvailabilityIndexStatsDTO> getStats() {
+        return ResponseEntity.ok(availabilityIndex.getStats());
+    }
+
+    @PostMapping("/verify")
+    public ResponseEntity<AvailabilityIndexStatsDTO> verify() {
+        availabilityIndex.verify();
+        return ResponseEntity.ok(availabilityIndex.getStats());
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<AvailabilityIndexStatsDTO> rebuild() {
+        availabilityIndex.rebuild();
+        return ResponseEntity.ok(availabilityIndex.getStats());
+    }
+}
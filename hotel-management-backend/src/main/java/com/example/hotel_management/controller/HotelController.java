@@ -1,5 +1,6 @@
 package com.example.hotel_management.controller;
 
+import com.example.hotel_management.dto.CursorPageDTO;
 import com.example.hotel_management.dto.HotelDTO;
 import com.example.hotel_management.dto.HotelResponseDTO;
 import com.example.hotel_management.entity.Hotel;
@@ -123,12 +124,14 @@ public class HotelController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllHotels() {
+    public ResponseEntity<?> getAllHotels(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
-            log.debug("Fetching all hotels");
-            List<HotelResponseDTO> hotels = hotelService.getAllHotels();
-            log.debug("Found {} hotels", hotels.size());
-            return ResponseEntity.ok(hotels);
+            return ResponseEntity.ok(CursorPageDTO.fetch(after, limit,
+                hotelService::getHotelsAfter, HotelResponseDTO::getId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Error retrieving all hotels: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().body(Map.of("error", "Error retrieving hotels"));
@@ -0,0 +1,116 @@
+package com.example.hotel_management.controller;
+
+import com.example.hotel_management.dto.PictureUploadStatsDTO;
+import com.example.hotel_management.dto.PictureVariantStatsDTO;
+import com.example.hotel_management.entity.PictureRendition;
+import com.example.hotel_management.entity.PictureVariant;
+import com.example.hotel_management.enums.PictureRenditionStatus;
+import com.example.hotel_management.repository.PictureRenditionRepository;
+import com.example.hotel_management.repository.PictureRepository;
+import com.example.hotel_management.storage.BlobStore;
+import com.example.hotel_management.storage.PictureUploads;
+import com.example.hotel_management.storage.PictureVariantPipeline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/pictures")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class PictureController {
+
+    // a hash always names the same bytes, so a picture never changes once cached
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    // a variant asked for before it is rendered; the answer changes once it is
+    private static final CacheControl PENDING_VARIANT = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+
+    private final BlobStore blobStore;
+    private final PictureRepository pictureRepository;
+    private final PictureRenditionRepository renditionRepository;
+    private final PictureVariantPipeline variantPipeline;
+    private final PictureUploads pictureUploads;
+
+    /**
+     * Serves a stored picture. The file is written from the blob store as a resource, Range requests get the
+     * requested regions (206), and If-None-Match with the hash as strong ETag gets a 304.
+     * <p>
+     * With {@code w}, the narrowest rendered variant at least that wide is served instead, or the widest one if
+     * none is. Until the variants are rendered the original is served, cached only briefly so clients pick up
+     * the variant later.
+     */
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> getPicture(@PathVariable String hash, @RequestParam(required = false) Integer w) {
+        if (w != null) {
+            if (w <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "w must be positive");
+            }
+            Optional<PictureRendition> rendition = renditionRepository.findBySourceHash(hash);
+            Optional<PictureVariant> variant = rendition
+                    .filter(found -> found.getStatus() == PictureRenditionStatus.DONE)
+                    .flatMap(found -> pick(found.getVariants(), w));
+            if (variant.isPresent()) {
+                return serve(variant.get().getHash(), parse(variant.get().getContentType()), IMMUTABLE);
+            }
+            // once rendering is over, the original is the answer for good
+            boolean settled = rendition
+                    .map(found -> found.getStatus() == PictureRenditionStatus.DONE
+                            || found.getStatus() == PictureRenditionStatus.FAILED)
+                    .orElse(false);
+            return serve(hash, contentTypeOf(hash), settled ? IMMUTABLE : PENDING_VARIANT);
+        }
+        return serve(hash, contentTypeOf(hash), IMMUTABLE);
+    }
+
+    @GetMapping("/uploads/stats")
+    public ResponseEntity<PictureUploadStatsDTO> getUploadStats() {
+        return ResponseEntity.ok(pictureUploads.getStats());
+    }
+
+    @GetMapping("/variants/stats")
+    public ResponseEntity<PictureVariantStatsDTO> getVariantStats() {
+        return ResponseEntity.ok(variantPipeline.getStats());
+    }
+
+    private ResponseEntity<Resource> serve(String hash, MediaType contentType, CacheControl cacheControl) {
+        Resource picture = blobStore.get(hash)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Picture not found: " + hash));
+        return ResponseEntity.ok()
+                .eTag('"' + hash + '"')
+                .cacheControl(cacheControl)
+                .contentType(contentType)
+                .body(picture);
+    }
+
+    private static Optional<PictureVariant> pick(List<PictureVariant> variants, int width) {
+        return variants.stream()
+                .filter(variant -> variant.getWidth() >= width)
+                .min(Comparator.comparingInt(PictureVariant::getWidth))
+                .or(() -> variants.stream().max(Comparator.comparingInt(PictureVariant::getWidth)));
+    }
+
+    private MediaType contentTypeOf(String hash) {
+        return pictureRepository.findFirstByHashAndContentTypeNotNull(hash)
+                .map(picture -> parse(picture.getContentType()))
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private static MediaType parse(String contentType) {
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
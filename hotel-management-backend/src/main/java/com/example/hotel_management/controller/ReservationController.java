@@ -1,19 +1,39 @@
 package com.example.hotel_management.controller;
 
+import com.example.hotel_management.booking.BookingEngine;
+import com.example.hotel_management.booking.BookingFailedException;
+import com.example.hotel_management.dto.BookingEngineStatsDTO;
+import com.example.hotel_management.dto.CursorPageDTO;
+import com.example.hotel_management.dto.GroupReservationResultDTO;
+import com.example.hotel_management.dto.PortfolioStatsDTO;
 import com.example.hotel_management.dto.ReservationDTO;
 import com.example.hotel_management.dto.UpdateStatusRequest;
 import com.example.hotel_management.dto.HotelStatsDTO; // added import
+import com.example.hotel_management.dto.StatsSeriesDTO;
+import com.example.hotel_management.dto.StatusTransitionStatsDTO;
+import com.example.hotel_management.dto.TransitionTimerStatsDTO;
 import com.example.hotel_management.entity.Reservation;
+import com.example.hotel_management.enums.ExportFormat;
+import com.example.hotel_management.scheduling.ReservationTransitionTimers;
+import com.example.hotel_management.service.HotelRollupService;
+import com.example.hotel_management.service.ReservationExportService;
 import com.example.hotel_management.service.ReservationService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/reservations")
@@ -21,22 +41,90 @@ import java.util.List;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final BookingEngine bookingEngine;
+    private final ReservationTransitionTimers transitionTimers;
+    private final HotelRollupService rollupService;
+    private final ReservationExportService exportService;
 
     @Autowired
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, BookingEngine bookingEngine,
+                                 ReservationTransitionTimers transitionTimers, HotelRollupService rollupService,
+                                 ReservationExportService exportService) {
         this.reservationService = reservationService;
+        this.bookingEngine = bookingEngine;
+        this.transitionTimers = transitionTimers;
+        this.rollupService = rollupService;
+        this.exportService = exportService;
     }
 
     @PostMapping
     public ResponseEntity<ReservationDTO> createReservation(@Valid @RequestBody ReservationDTO reservationDTO) {
-        return ResponseEntity.ok(reservationService.createReservation(reservationDTO.toEntity()));
+        try {
+            Reservation reservation = reservationDTO.toEntity();
+            return ResponseEntity.ok(bookingEngine.isEnabled()
+                    ? bookingEngine.book(reservation)
+                    : reservationService.createReservation(reservation));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(bookingEngine.getRetryAfterSeconds()))
+                    .build();
+        } catch (BookingFailedException e) {
+            // a server fault, not a taken room
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<GroupReservationResultDTO> createReservations(
+            @Valid @RequestBody List<ReservationDTO> reservationDTOs) {
+        try {
+            GroupReservationResultDTO result = reservationService.createReservations(reservationDTOs.stream()
+                    .map(ReservationDTO::toEntity)
+                    .toList());
+            return result.isCommitted()
+                    ? ResponseEntity.ok(result)
+                    : ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<ReservationDTO> updateReservation(
             @PathVariable Long id,
             @Valid @RequestBody ReservationDTO reservationDTO) {
-        return ResponseEntity.ok(reservationService.updateReservation(id, reservationDTO.toEntity()));
+        try {
+            return ResponseEntity.ok(reservationService.updateReservation(id, reservationDTO.toEntity()));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @GetMapping("/engine/stats")
+    public ResponseEntity<BookingEngineStatsDTO> getBookingEngineStats() {
+        return ResponseEntity.ok(bookingEngine.getStats());
+    }
+
+    @GetMapping("/status-job/stats")
+    public ResponseEntity<StatusTransitionStatsDTO> getStatusJobStats() {
+        return ResponseEntity.ok(reservationService.getStatusTransitionStats());
+    }
+
+    @GetMapping("/status-job/timers")
+    public ResponseEntity<TransitionTimerStatsDTO> getTransitionTimerStats() {
+        return ResponseEntity.ok(transitionTimers.getStats());
     }
 
     @GetMapping("/{id}")
@@ -45,8 +133,15 @@ public class ReservationController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ReservationDTO>> getAllReservations() {
-        return ResponseEntity.ok(reservationService.getAllReservations());
+    public ResponseEntity<?> getAllReservations(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(CursorPageDTO.fetch(after, limit,
+                    reservationService::getReservationsAfter, ReservationDTO::getId));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @GetMapping("/guest/{guestId}")
@@ -59,6 +154,28 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.getReservationsByHotelId(hotelId));
     }
 
+    @GetMapping("/hotel/{hotelId}/export")
+    public ResponseEntity<StreamingResponseBody> exportReservationsByHotelId(
+            @PathVariable Long hotelId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+            exportService.requireHotel(hotelId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+        StreamingResponseBody body = out -> exportService.exportHotelReservations(hotelId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("reservations-hotel-" + hotelId + "." + exportFormat.getExtension())
+                        .build().toString())
+                .body(body);
+    }
+
     @GetMapping("/guest/{guestId}/upcoming")
     public ResponseEntity<List<ReservationDTO>> getUpcomingReservations(@PathVariable Long guestId) {
         return ResponseEntity.ok(reservationService.getUpcomingReservations(guestId));
@@ -97,15 +214,25 @@ public class ReservationController {
 
     @GetMapping("/hotel/{hotelId}/stats")
     public ResponseEntity<HotelStatsDTO> getHotelStats(@PathVariable Long hotelId) {
+        return ResponseEntity.ok(reservationService.getHotelStats(hotelId));
+    }
+
+    @GetMapping("/admin/{adminId}/stats")
+    public ResponseEntity<PortfolioStatsDTO> getPortfolioStats(@PathVariable Long adminId) {
+        return ResponseEntity.ok(reservationService.getPortfolioStats(adminId));
+    }
+
+    @GetMapping("/hotel/{hotelId}/stats/series")
+    public ResponseEntity<StatsSeriesDTO> getHotelStatsSeries(
+            @PathVariable Long hotelId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String roomType) {
         try {
-            System.out.println("Getting stats for hotel ID: " + hotelId);
-            HotelStatsDTO stats = reservationService.getHotelStats(hotelId);
-            System.out.println("Retrieved stats: " + stats);
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            System.err.println("Error getting hotel stats: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
+            return ResponseEntity.ok(rollupService.getSeries(hotelId, from, to, granularity, roomType));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
 }
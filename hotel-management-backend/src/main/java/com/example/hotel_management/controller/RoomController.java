@@ -1,22 +1,38 @@
 package com.example.hotel_management.controller;
 
+import com.example.hotel_management.availability.RoomOccupancyView;
+import com.example.hotel_management.dto.CursorPageDTO;
+import com.example.hotel_management.dto.ReservationDTO;
 import com.example.hotel_management.dto.RoomDTO;
+import com.example.hotel_management.dto.RoomHoldDTO;
 import com.example.hotel_management.entity.Room;
 import com.example.hotel_management.enums.RoomStatus;
+import com.example.hotel_management.service.RoomHoldService;
 import com.example.hotel_management.service.RoomService;
+import com.example.hotel_management.storage.PictureUploads;
+import com.example.hotel_management.storage.PictureVariantView;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.validation.Valid;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,10 +42,27 @@ import java.util.stream.Collectors;
 public class RoomController {
 
     private final RoomService roomService;
+    private final RoomHoldService roomHoldService;
+    private final RoomOccupancyView occupancyView;
+    private final PictureVariantView pictureVariants;
+    private final PictureUploads pictureUploads;
 
     @Autowired
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, RoomHoldService roomHoldService,
+                          RoomOccupancyView occupancyView, PictureVariantView pictureVariants,
+                          PictureUploads pictureUploads) {
         this.roomService = roomService;
+        this.roomHoldService = roomHoldService;
+        this.occupancyView = occupancyView;
+        this.pictureVariants = pictureVariants;
+        this.pictureUploads = pictureUploads;
+    }
+
+    // room cards with their picture variants
+    private List<RoomDTO> toDTOs(List<Room> rooms) {
+        return pictureVariants.applyTo(rooms.stream()
+                .map(RoomDTO::fromEntity)
+                .collect(Collectors.toList()));
     }
 
     @PostMapping(consumes = {
@@ -67,6 +100,32 @@ public class RoomController {
         try {
             roomService.uploadPicture(id, picture);
             return ResponseEntity.ok().build();
+        } catch (RejectedExecutionException | MaxUploadSizeExceededException | IllegalArgumentException e) {
+            return rejectUpload(e);
+        } catch (EntityNotFoundException e) {
+            log.warn("Room not found with id {}: {}", id, e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            log.error("Error uploading picture: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Error uploading picture"));
+        }
+    }
+
+    /**
+     * Uploads a picture sent as the raw request body (Content-Type image/...), which is streamed into storage
+     * as it arrives instead of being parsed and spooled as multipart first.
+     */
+    @PostMapping("/{id}/pictures")
+    public ResponseEntity<?> uploadPictureBody(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream body) {
+        try {
+            Room room = roomService.uploadPicture(id, contentType, contentLength != null ? contentLength : -1, body);
+            return ResponseEntity.status(HttpStatus.CREATED).body(RoomDTO.fromEntity(room));
+        } catch (RejectedExecutionException | MaxUploadSizeExceededException | IllegalArgumentException e) {
+            return rejectUpload(e);
         } catch (EntityNotFoundException e) {
             log.warn("Room not found with id {}: {}", id, e.getMessage());
             return ResponseEntity.notFound().build();
@@ -76,30 +135,103 @@ public class RoomController {
         }
     }
 
+    private ResponseEntity<?> rejectUpload(RuntimeException e) {
+        if (e instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(pictureUploads.getRetryAfterSeconds()))
+                    .build();
+        }
+        HttpStatus status = e instanceof MaxUploadSizeExceededException
+                ? HttpStatus.PAYLOAD_TOO_LARGE : HttpStatus.UNSUPPORTED_MEDIA_TYPE;
+        return ResponseEntity.status(status).body(Map.of("error", e.getMessage()));
+    }
+
+    @PostMapping("/{id}/holds")
+    public ResponseEntity<RoomHoldDTO> placeHold(@PathVariable Long id, @RequestBody RoomHoldDTO holdRequest) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(roomHoldService.placeHold(id, holdRequest.getCheckInTime(), holdRequest.getCheckOutTime()));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/holds/{holdId}")
+    public ResponseEntity<RoomHoldDTO> getHold(@PathVariable Long id, @PathVariable String holdId) {
+        try {
+            return ResponseEntity.ok(roomHoldService.getHold(id, holdId));
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/holds/{holdId}/confirm")
+    public ResponseEntity<ReservationDTO> confirmHold(
+            @PathVariable Long id,
+            @PathVariable String holdId,
+            @RequestBody ReservationDTO reservationDTO) {
+        try {
+            return ResponseEntity.ok(roomHoldService.confirmHold(id, holdId, reservationDTO.toEntity()));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable Long id, @PathVariable String holdId) {
+        try {
+            roomHoldService.releaseHold(id, holdId);
+            return ResponseEntity.noContent().build();
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<RoomDTO> getRoom(@PathVariable Long id) {
-        return ResponseEntity.ok(RoomDTO.fromEntity(roomService.getRoomById(id)));
+        RoomDTO room = RoomDTO.fromEntity(roomService.getRoomById(id));
+        return ResponseEntity.ok(pictureVariants.applyTo(occupancyView.applyTo(room)));
     }
 
     @GetMapping
-    public ResponseEntity<List<RoomDTO>> getAllRooms() {
-        return ResponseEntity.ok(roomService.getAllRooms().stream()
-                .map(RoomDTO::fromEntity)
-                .collect(Collectors.toList()));
+    public ResponseEntity<?> getAllRooms(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(CursorPageDTO.fetch(after, limit,
+                    (afterId, rows) -> occupancyView.applyTo(toDTOs(roomService.getRoomsAfter(afterId, rows))),
+                    RoomDTO::getId));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @GetMapping("/hotel/{hotelId}")
     public ResponseEntity<List<RoomDTO>> getRoomsByHotel(@PathVariable Long hotelId) {
-        return ResponseEntity.ok(roomService.getRoomsByHotelId(hotelId).stream()
-                .map(RoomDTO::fromEntity)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(occupancyView.applyTo(toDTOs(roomService.getRoomsByHotelId(hotelId))));
     }
 
     @GetMapping("/hotel/{hotelId}/available")
-    public ResponseEntity<List<RoomDTO>> getAvailableRoomsByHotel(@PathVariable Long hotelId) {
-        return ResponseEntity.ok(roomService.getAvailableRoomsByHotel(hotelId).stream()
-                .map(RoomDTO::fromEntity)
-                .collect(Collectors.toList()));
+    public ResponseEntity<List<RoomDTO>> getAvailableRoomsByHotel(
+            @PathVariable Long hotelId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime checkOut,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            Sort sort) {
+        try {
+            return ResponseEntity.ok(toDTOs(roomService.getAvailableRoomsByHotel(hotelId, checkIn, checkOut, minPrice, maxPrice, sort)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @GetMapping("/hotel/{hotelId}/price-range")
@@ -107,9 +239,7 @@ public class RoomController {
             @PathVariable Long hotelId,
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice) {
-        return ResponseEntity.ok(roomService.getRoomsByPriceRange(hotelId, minPrice, maxPrice).stream()
-                .map(RoomDTO::fromEntity)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(toDTOs(roomService.getRoomsByPriceRange(hotelId, minPrice, maxPrice)));
     }
 
     @GetMapping("/hotel/{hotelId}/available/price-range")
@@ -117,16 +247,12 @@ public class RoomController {
             @PathVariable Long hotelId,
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice) {
-        return ResponseEntity.ok(roomService.getAvailableRoomsByPriceRange(hotelId, minPrice, maxPrice).stream()
-                .map(RoomDTO::fromEntity)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(toDTOs(roomService.getAvailableRoomsByPriceRange(hotelId, minPrice, maxPrice)));
     }
 
     @GetMapping("/hotel/{hotelId}/available/sorted")
     public ResponseEntity<List<RoomDTO>> getAvailableRoomsSortedByPrice(@PathVariable Long hotelId) {
-        return ResponseEntity.ok(roomService.getAvailableRoomsSortedByPrice(hotelId).stream()
-                .map(RoomDTO::fromEntity)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(toDTOs(roomService.getAvailableRoomsSortedByPrice(hotelId)));
     }
 
     @DeleteMapping("/{id}")
@@ -140,8 +266,11 @@ public class RoomController {
             @PathVariable Long id,
             @RequestBody Map<String, String> statusMap) {
         RoomStatus status = RoomStatus.valueOf(statusMap.get("status"));
-        Room updatedRoom = roomService.updateRoomStatus(id, status);
-        return ResponseEntity.ok(updatedRoom);
+        try {
+            return ResponseEntity.ok(roomService.updateRoomStatus(id, status));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @PatchMapping("/{id}/status/by-reservation")
@@ -0,0 +1,40 @@
+package com.example.hotel_management.controller;
+
+import com.example.hotel_management.dto.InventoryRebuildReportDTO;
+import com.example.hotel_management.dto.RoomTypeInventoryDTO;
+import com.example.hotel_management.service.RoomInventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/inventory")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class RoomInventoryController {
+
+    private final RoomInventoryService inventoryService;
+
+    @GetMapping("/hotel/{hotelId}")
+    public ResponseEntity<RoomTypeInventoryDTO> getInventory(
+            @PathVariable Long hotelId,
+            @RequestParam String roomType,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+        try {
+            return ResponseEntity.ok(inventoryService.getInventory(hotelId, roomType, checkIn, checkOut));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<InventoryRebuildReportDTO> rebuild(@RequestParam(required = false) Long hotelId) {
+        return ResponseEntity.ok(inventoryService.verifyAndRepair(hotelId));
+    }
+}
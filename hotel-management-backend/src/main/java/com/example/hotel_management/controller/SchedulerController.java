@@ -0,0 +1,27 @@
+package com.example.hotel_management.controller;
+
+import com.example.hotel_management.dto.SchedulerPartitionStatsDTO;
+import com.example.hotel_management.scheduling.PartitionLeaseManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/scheduler")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class SchedulerController {
+
+    private final PartitionLeaseManager partitionLeaseManager;
+
+    @GetMapping("/partitions")
+    public ResponseEntity<SchedulerPartitionStatsDTO> getPartitions() {
+        return ResponseEntity.ok(partitionLeaseManager.getStats());
+    }
+
+    @PostMapping("/heartbeat")
+    public ResponseEntity<SchedulerPartitionStatsDTO> heartbeat() {
+        partitionLeaseManager.heartbeat();
+        return ResponseEntity.ok(partitionLeaseManager.getStats());
+    }
+}
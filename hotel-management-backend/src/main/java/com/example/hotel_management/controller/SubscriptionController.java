@@ -1,10 +1,13 @@
 package com.example.hotel_management.controller;
 
+import com.example.hotel_management.dto.CursorPageDTO;
 import com.example.hotel_management.entity.Subscription;
 import com.example.hotel_management.service.SubscriptionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -32,8 +35,15 @@ public class SubscriptionController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Subscription>> getAllSubscriptions() {
-        return ResponseEntity.ok(subscriptionService.getAllSubscriptions());
+    public ResponseEntity<?> getAllSubscriptions(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(CursorPageDTO.fetch(after, limit,
+                    subscriptionService::getSubscriptionsAfter, Subscription::getId));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @GetMapping("/user/{userId}")
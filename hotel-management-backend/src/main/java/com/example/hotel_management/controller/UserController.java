@@ -1,6 +1,7 @@
 package com.example.hotel_management.controller;
 
 import com.example.hotel_management.dto.CreateUserDTO;
+import com.example.hotel_management.dto.CursorPageDTO;
 import com.example.hotel_management.dto.UpdateUserDTO;
 import com.example.hotel_management.dto.UserDTO;
 import com.example.hotel_management.entity.User;
@@ -10,9 +11,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import jakarta.validation.Valid;
 
-import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
@@ -100,11 +101,18 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(CursorPageDTO.fetch(after, limit,
+                    (afterId, rows) -> userService.getUsersAfter(afterId, rows).stream()
+                            .map(this::convertToDTO)
+                            .collect(Collectors.toList()),
+                    UserDTO::getId));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,30 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityIndexStatsDTO {
+    private boolean ready;
+    private int indexedRooms;
+    private int indexedReservations;
+    private long hits;
+    private long misses;
+    private long calendarHits;
+    private int calendarHorizonNights;
+    private int calendarHotels;
+    private int calendarRooms;
+    private long calendarBytes;
+    private long rebuilds;
+    private LocalDateTime lastRebuildAt;
+    private long lastRebuildMillis;
+    private LocalDateTime lastVerifiedAt;
+    private int lastDriftRooms;
+}
@@ -0,0 +1,37 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingEngineStatsDTO {
+    private boolean enabled;
+    private int workers;
+    private int mailboxCapacity;
+    private int batchSize;
+    private List<HotelEngineStatsDTO> hotels;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HotelEngineStatsDTO {
+        private Long hotelId;
+        private int queueDepth;
+        private long submitted;
+        private long rejected;
+        private long completed;
+        private long failed;
+        private long batches;
+        private double averageLatencyMillis;
+        private double maxLatencyMillis;
+        private double throughputPerSecond;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * One page of a list ordered by id. {@code nextCursor} is passed back as {@code after} to get the next page and
+ * is null on the last one. Pages are read with {@code WHERE id > :after ORDER BY id LIMIT n}, so a deep page
+ * costs the same as the first. List endpoints always answer with a page, never with the whole table.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private List<T> items;
+    private String nextCursor;
+
+    /**
+     * Reads the page after {@code cursor} with {@code query(afterId, rows)}, which must return rows with an id
+     * greater than afterId in id order. One row more than the limit is asked for to tell whether a next page exists.
+     */
+    public static <T> CursorPageDTO<T> fetch(String cursor, Integer limit,
+                                             BiFunction<Long, Integer, List<T>> query, Function<T, Long> idOf) {
+        // without a limit the first page has the default size; a larger limit is cut down to the cap
+        int pageSize = limit != null ? Math.min(limit, MAX_LIMIT) : DEFAULT_LIMIT;
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        List<T> rows = query.apply(decodeCursor(cursor), pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPageDTO<>(rows, null);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return new CursorPageDTO<>(page, encodeCursor(idOf.apply(page.get(pageSize - 1))));
+    }
+
+    static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through: NumberFormatException is an IllegalArgumentException too
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a group booking. Either every item was created ({@code committed}) or none was,
+ * in which case the items that could not be booked carry the reason.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupReservationResultDTO {
+    private boolean committed;
+    private List<Item> items;
+
+    public enum Outcome {
+        CREATED, INVALID, ROOM_NOT_FOUND, UNAVAILABLE, NOT_BOOKED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        // position in the request
+        private int index;
+        private Long roomId;
+        private Outcome outcome;
+        private String message;
+        private ReservationDTO reservation;
+    }
+}
@@ -20,6 +20,9 @@ public class HotelStatsDTO {
     private List<ReservationDTO> recentBookings;
     private List<RoomTypeStatsDTO> roomTypeStats;
     private List<ReservationDTO> upcomingCheckouts;
+    // true when some figures could not be loaded in time; those are listed in missing and left empty
+    private boolean partial;
+    private List<String> missing;
 
     @Data
     @Builder
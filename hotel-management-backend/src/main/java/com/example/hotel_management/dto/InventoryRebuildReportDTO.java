@@ -0,0 +1,21 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryRebuildReportDTO {
+    private Long hotelId;
+    private LocalDateTime checkedAt;
+    private long driftRows;
+    private boolean repaired;
+    private int rowsWritten;
+    private long durationMillis;
+}
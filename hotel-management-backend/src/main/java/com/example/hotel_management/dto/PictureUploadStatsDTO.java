@@ -0,0 +1,24 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PictureUploadStatsDTO {
+    private int maxConcurrent;
+    private int inProgress;
+    // uploads waiting for a slot, up to queue-wait-ms
+    private int waiting;
+    private long maxBytes;
+    private long stored;
+    private long storedBytes;
+    // answered 429, 413 and 415
+    private long rejectedBusy;
+    private long rejectedTooLarge;
+    private long rejectedType;
+}
@@ -0,0 +1,32 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PictureVariantStatsDTO {
+    private boolean enabled;
+    private int workers;
+    private int activeWorkers;
+    // claimed by this instance and waiting for a worker
+    private int waiting;
+    // persistent queue, across all instances
+    private long queued;
+    private long running;
+    private long done;
+    private long failed;
+    // renders by this instance since startup
+    private long rendered;
+    private long renderFailures;
+    private long retries;
+    private long renderedLastMinute;
+    private long variantsWritten;
+    private double averageRenderMillis;
+    private long maxRenderMillis;
+    private long lastRenderMillis;
+}
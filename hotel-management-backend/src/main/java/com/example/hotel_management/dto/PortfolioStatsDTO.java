@@ -0,0 +1,29 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioStatsDTO {
+    private Long adminId;
+    private int hotelCount;
+    private HotelStatsDTO total;
+    private List<HotelEntryDTO> hotels;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HotelEntryDTO {
+        private Long hotelId;
+        private String hotelName;
+        private HotelStatsDTO stats;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.hotel_management.dto;
+
+import com.example.hotel_management.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One exported reservation, flattened: room and guest are reduced to the columns finance needs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationExportDTO {
+    private Long id;
+    private Long hotelId;
+    private Long roomId;
+    private String roomNumber;
+    private String roomType;
+    private Long guestId;
+    private String guestFirstName;
+    private String guestLastName;
+    private String guestEmail;
+    private LocalDateTime checkInTime;
+    private LocalDateTime checkOutTime;
+    private ReservationStatus status;
+    private BigDecimal totalPrice;
+    private String specialRequests;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
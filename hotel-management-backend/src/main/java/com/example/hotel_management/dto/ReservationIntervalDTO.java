@@ -0,0 +1,20 @@
+package com.example.hotel_management.dto;
+
+import com.example.hotel_management.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationIntervalDTO {
+    private Long id;
+    private Long roomId;
+    private Long hotelId;
+    private LocalDateTime checkInTime;
+    private LocalDateTime checkOutTime;
+    private ReservationStatus status;
+}
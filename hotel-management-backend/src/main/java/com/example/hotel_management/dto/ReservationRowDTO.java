@@ -0,0 +1,80 @@
+package com.example.hotel_management.dto;
+
+import com.example.hotel_management.enums.ReservationStatus;
+import com.example.hotel_management.enums.RoomStatus;
+import com.example.hotel_management.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Every column {@link ReservationDTO} needs, read by one JPQL constructor query with the room and both users
+ * joined in. Only the room pictures, a collection, are loaded separately and attached in {@link #toDTO}.
+ */
+@Data
+@AllArgsConstructor
+public class ReservationRowDTO {
+    private Long id;
+    private LocalDateTime checkInTime;
+    private LocalDateTime checkOutTime;
+    private ReservationStatus status;
+    private Long hotelId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    private Long roomId;
+    private String roomNumber;
+    private String roomName;
+    private String roomDescription;
+    private RoomStatus roomStatus;
+    private BigDecimal roomPrice;
+    private Long roomHotelId;
+
+    private Long guestId;
+    private String guestFirstName;
+    private String guestLastName;
+    private String guestUsername;
+    private UserRole guestRole;
+    private String guestEmail;
+    private String guestPhoneNumber;
+    private boolean guestActive;
+
+    private Long createdById;
+    private String createdByFirstName;
+    private String createdByLastName;
+    private String createdByUsername;
+    private UserRole createdByRole;
+    private String createdByEmail;
+    private String createdByPhoneNumber;
+    private boolean createdByActive;
+
+    public ReservationDTO toDTO(List<RoomDTO.PictureDTO> roomPictures) {
+        RoomDTO room = new RoomDTO();
+        room.setId(roomId);
+        room.setNumber(roomNumber);
+        room.setName(roomName);
+        room.setDescription(roomDescription);
+        room.setStatus(roomStatus);
+        room.setPrice(roomPrice);
+        room.setHotelId(roomHotelId);
+        room.setPictures(roomPictures);
+
+        ReservationDTO dto = new ReservationDTO();
+        dto.setId(id);
+        dto.setCheckInTime(checkInTime);
+        dto.setCheckOutTime(checkOutTime);
+        dto.setStatus(status);
+        dto.setRoom(room);
+        dto.setHotelId(hotelId);
+        dto.setGuest(new UserDTO(guestId, guestFirstName, guestLastName, guestUsername, guestRole,
+                guestEmail, guestPhoneNumber, guestActive));
+        dto.setCreatedBy(new UserDTO(createdById, createdByFirstName, createdByLastName, createdByUsername,
+                createdByRole, createdByEmail, createdByPhoneNumber, createdByActive));
+        dto.setCreatedAt(createdAt);
+        dto.setUpdatedAt(updatedAt);
+        return dto;
+    }
+}
@@ -3,7 +3,9 @@ package com.example.hotel_management.dto;
 import com.example.hotel_management.entity.Room;
 import com.example.hotel_management.entity.Picture;
 import com.example.hotel_management.enums.RoomStatus;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -25,6 +27,19 @@ public class RoomDTO {
     @Data
     public static class PictureDTO {
         private String url;
+        // narrower copies, narrowest first; empty until they are rendered
+        private List<VariantDTO> variants = new ArrayList<>();
+        // tiny blurred data: URL to show while the picture loads
+        private String placeholder;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VariantDTO {
+        private int width;
+        private int height;
+        private String url;
     }
 
     public static RoomDTO fromEntity(Room room) {
@@ -42,10 +57,10 @@ public class RoomDTO {
         
         if (room.getPictures() != null) {
             roomDTO.setPictures(room.getPictures().stream()
-                    .filter(p -> p != null && p.getUrl() != null)
+                    .filter(p -> p != null && p.getPublicUrl() != null)
                     .map(picture -> {
                         PictureDTO pictureDTO = new PictureDTO();
-                        pictureDTO.setUrl(picture.getUrl());
+                        pictureDTO.setUrl(picture.getPublicUrl());
                         return pictureDTO;
                     })
                     .collect(Collectors.toList()));
@@ -0,0 +1,29 @@
+package com.example.hotel_management.dto;
+
+import com.example.hotel_management.availability.RoomHold;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class RoomHoldDTO {
+    private String id;
+    private Long roomId;
+    private LocalDateTime checkInTime;
+    private LocalDateTime checkOutTime;
+    private LocalDateTime expiresAt;
+
+    public static RoomHoldDTO fromHold(RoomHold hold) {
+        if (hold == null) {
+            return null;
+        }
+
+        RoomHoldDTO dto = new RoomHoldDTO();
+        dto.setId(hold.getId());
+        dto.setRoomId(hold.getRoomId());
+        dto.setCheckInTime(hold.getCheckInTime());
+        dto.setCheckOutTime(hold.getCheckOutTime());
+        dto.setExpiresAt(hold.getExpiresAt());
+        return dto;
+    }
+}
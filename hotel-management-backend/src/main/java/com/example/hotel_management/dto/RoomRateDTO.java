@@ -0,0 +1,21 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * The room columns needed to book and price a stay, without loading the room's pictures.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomRateDTO {
+    private Long id;
+    private Long hotelId;
+    private String number;
+    private String name;
+    private BigDecimal price;
+}
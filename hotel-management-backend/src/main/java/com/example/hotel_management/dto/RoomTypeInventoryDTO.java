@@ -0,0 +1,23 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomTypeInventoryDTO {
+    private Long hotelId;
+    private String roomType;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private int total;
+    // highest number of rooms sold on any night of the stay
+    private int sold;
+    private int remaining;
+}
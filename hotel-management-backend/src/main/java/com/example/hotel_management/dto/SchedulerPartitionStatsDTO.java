@@ -0,0 +1,23 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerPartitionStatsDTO {
+    private boolean enabled;
+    private String nodeId;
+    private int partitions;
+    private List<Integer> ownedPartitions;
+    private long liveNodes;
+    private long rebalances;
+    private LocalDateTime lastHeartbeatAt;
+}
@@ -0,0 +1,42 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsSeriesDTO {
+    private Long hotelId;
+    // null when the series covers every room type
+    private String roomType;
+    private LocalDate from;
+    private LocalDate to;
+    private String granularity;
+    private List<PointDTO> points;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PointDTO {
+        // first day of the period, clipped to the requested range
+        private LocalDate periodStart;
+        private long nightsSold;
+        // rooms of the hotel (or type) today times the days of the period in range
+        private long roomNightsAvailable;
+        private BigDecimal revenue;
+        // average daily rate: revenue per night sold
+        private BigDecimal adr;
+        // nights sold / room-nights available, between 0 and 1
+        private double occupancy;
+        private long cancellations;
+    }
+}
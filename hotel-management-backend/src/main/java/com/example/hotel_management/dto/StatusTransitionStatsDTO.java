@@ -0,0 +1,28 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusTransitionStatsDTO {
+    private int chunkSize;
+    private long runs;
+    private long checkedIn;
+    private long checkedOut;
+    private long chunks;
+    private long lastChunkMillis;
+    private long maxChunkMillis;
+    private double averageChunkMillis;
+    // how long the oldest reservation in the last chunk had been due when it was transitioned
+    private long lastLagSeconds;
+    private long maxLagSeconds;
+    private LocalDateTime lastRunAt;
+    private long lastRunMillis;
+}
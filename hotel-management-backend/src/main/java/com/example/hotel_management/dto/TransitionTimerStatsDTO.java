@@ -0,0 +1,27 @@
+package com.example.hotel_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransitionTimerStatsDTO {
+    private boolean enabled;
+    private long tickMillis;
+    private long horizonHours;
+    private int pendingTimers;
+    private long fired;
+    private long failed;
+    // time between a transition becoming due and its timer firing
+    private double averageFiringLatencyMillis;
+    private long maxFiringLatencyMillis;
+    private long lastFiringLatencyMillis;
+    private LocalDateTime lastFiredAt;
+    private LocalDateTime lastRefillAt;
+}
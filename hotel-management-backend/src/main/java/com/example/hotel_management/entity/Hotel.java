@@ -1,6 +1,7 @@
 package com.example.hotel_management.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -13,6 +14,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @AllArgsConstructor
 @Entity
 @Table(name = "hotels")
+// hotel lists show the admin; amenities and pictures are collections and follow in batches
+@NamedEntityGraph(name = "Hotel.summary", attributeNodes = @NamedAttributeNode("admin"))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Hotel {
 
@@ -39,11 +42,13 @@ public class Hotel {
     private Integer starRating;
 
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "hotel_amenities", joinColumns = @JoinColumn(name = "hotel_id"))
     @Column(name = "amenity")
     private Set<String> amenities;
 
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "hotel_pictures", joinColumns = @JoinColumn(name = "hotel_id"))
     @Column(name = "picture_url", columnDefinition = "TEXT")
     private List<String> pictures;
@@ -0,0 +1,47 @@
+package com.example.hotel_management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * What one room type of a hotel sold on one day: room-nights, the revenue of those nights (each stay's price spread
+ * evenly over its nights) and the cancelled stays that were due to arrive that day.
+ * Only days with something to report have a row. Rows are rewritten by the rollup job, never edited in place.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "hotel_daily_rollup",
+       uniqueConstraints = @UniqueConstraint(name = "uk_hotel_daily_rollup",
+                                             columnNames = {"hotel_id", "room_type", "day"}),
+       indexes = @Index(name = "idx_hotel_daily_rollup_hotel_day", columnList = "hotel_id, day"))
+public class HotelDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hotel_id", nullable = false)
+    private Long hotelId;
+
+    @Column(name = "room_type", nullable = false)
+    private String roomType;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(name = "nights_sold", nullable = false)
+    private int nightsSold;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private int cancellations;
+}
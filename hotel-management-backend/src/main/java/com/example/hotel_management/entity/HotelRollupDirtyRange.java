@@ -0,0 +1,33 @@
+package com.example.hotel_management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Days of a hotel whose rollups must be recomputed, written in the transaction of the change that caused it and
+ * consumed by the rollup job. A range without days means the whole hotel, e.g. after its rooms changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "hotel_rollup_dirty_ranges")
+public class HotelRollupDirtyRange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hotel_id", nullable = false)
+    private Long hotelId;
+
+    @Column(name = "from_day")
+    private LocalDate fromDay;
+
+    @Column(name = "to_day")
+    private LocalDate toDay;
+}
@@ -7,6 +7,7 @@ import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 @Entity
+@Table(name = "picture", indexes = @Index(name = "idx_picture_hash", columnList = "hash"))
 @Data
 @EqualsAndHashCode(exclude = {"room"})
 @ToString(exclude = {"room"})
@@ -15,11 +16,30 @@ public class Picture {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
+    // where pictures in the blob store are served from, followed by the hash
+    public static final String BLOB_PATH = "/api/pictures/";
+
+    // an external link, or a legacy data: URL until PictureBlobMigration has moved it to the blob store
+    @Column(columnDefinition = "TEXT")
     private String url;
 
+    // SHA-256 of the picture in the blob store
+    @Column(length = 64)
+    private String hash;
+
+    private Long sizeBytes;
+
+    private String contentType;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "room_id")
     @JsonIgnoreProperties({"pictures", "reservations", "hotel"})
     private Room room;
+
+    /**
+     * The URL clients load the picture from.
+     */
+    public String getPublicUrl() {
+        return hash != null ? BLOB_PATH + hash : url;
+    }
 }
@@ -0,0 +1,60 @@
+package com.example.hotel_management.entity;
+
+import com.example.hotel_management.enums.PictureRenditionStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The resized variants and blur placeholder of one picture in the blob store. The row is queued in the
+ * transaction that stored the picture and doubles as the job the variant pipeline claims, so queued work
+ * survives restarts. Pictures are keyed by content, so room and hotel pictures with the same bytes share a row.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "picture_renditions",
+       indexes = @Index(name = "idx_picture_renditions_status", columnList = "status, id"))
+public class PictureRendition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source_hash", nullable = false, unique = true, length = 64)
+    private String sourceHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PictureRenditionStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // a tiny blurred JPEG as a data: URL, shown inline while the real picture loads
+    @Column(columnDefinition = "TEXT")
+    private String placeholder;
+
+    @ElementCollection
+    @CollectionTable(name = "picture_rendition_variants", joinColumns = @JoinColumn(name = "rendition_id"))
+    @OrderBy("width")
+    @BatchSize(size = 50)
+    private List<PictureVariant> variants = new ArrayList<>();
+
+    @Column(name = "queued_at", nullable = false)
+    private LocalDateTime queuedAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,29 @@
+package com.example.hotel_management.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A downscaled copy of a picture, stored in the blob store under its own hash.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class PictureVariant {
+
+    @Column(nullable = false)
+    private int width;
+
+    @Column(nullable = false)
+    private int height;
+
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    @Column(name = "content_type", nullable = false, length = 32)
+    private String contentType;
+}
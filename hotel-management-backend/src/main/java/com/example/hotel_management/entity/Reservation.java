@@ -14,6 +14,12 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @Entity
 @Table(name = "reservations")
+// what a reservation list shows; room pictures follow in batches
+@NamedEntityGraph(name = "Reservation.list", attributeNodes = {
+        @NamedAttributeNode("room"),
+        @NamedAttributeNode("guest"),
+        @NamedAttributeNode("createdBy")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Reservation {
 
@@ -4,6 +4,7 @@ import com.example.hotel_management.enums.RoomStatus;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -17,6 +18,12 @@ import java.util.HashSet;
 @AllArgsConstructor
 @Entity
 @Table(name = "rooms")
+// room cards show the pictures; the detail view also needs the hotel
+@NamedEntityGraph(name = "Room.card", attributeNodes = @NamedAttributeNode("pictures"))
+@NamedEntityGraph(name = "Room.detail", attributeNodes = {
+        @NamedAttributeNode("pictures"),
+        @NamedAttributeNode("hotel")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Room {
 
@@ -40,7 +47,9 @@ public class Room {
     @Column(nullable = false)
     private BigDecimal price;
 
-    @OneToMany(mappedBy = "room", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    // loaded by the Room.card/Room.detail graphs, otherwise in batches for all rooms of a result
+    @OneToMany(mappedBy = "room", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @BatchSize(size = 50)
     @JsonIgnoreProperties("room")
     private Set<Picture> pictures = new HashSet<>();
 
@@ -0,0 +1,42 @@
+package com.example.hotel_management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * How many rooms of one type a hotel has and how many of them are sold for one night.
+ * Room type is the room name, the same grouping the room type statistics use.
+ * A stay sells every night from its check-in date up to, but not including, its check-out date.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "room_type_night_inventory",
+       uniqueConstraints = @UniqueConstraint(name = "uk_room_type_night_inventory",
+                                             columnNames = {"hotel_id", "room_type", "night"}))
+public class RoomTypeNightInventory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hotel_id", nullable = false)
+    private Long hotelId;
+
+    @Column(name = "room_type", nullable = false)
+    private String roomType;
+
+    @Column(nullable = false)
+    private LocalDate night;
+
+    @Column(nullable = false)
+    private int total;
+
+    @Column(nullable = false)
+    private int sold;
+}
@@ -0,0 +1,29 @@
+package com.example.hotel_management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A running scheduler node; nodes that stop sending heartbeats drop out of the partition share.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "scheduler_nodes")
+public class SchedulerNode {
+
+    @Id
+    @Column(name = "node_id")
+    private String nodeId;
+
+    @Column(nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+}
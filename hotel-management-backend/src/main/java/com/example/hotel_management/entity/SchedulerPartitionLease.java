@@ -0,0 +1,28 @@
+package com.example.hotel_management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Which scheduler node currently processes the hotels of one partition ({@code hotel_id % partitions}).
+ * A lease that is not renewed before {@code leaseUntil} can be claimed by another node.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "scheduler_partition_leases")
+public class SchedulerPartitionLease {
+
+    @Id
+    @Column(name = "partition_id")
+    private Integer partitionId;
+
+    private String owner;
+
+    private LocalDateTime leaseUntil;
+}
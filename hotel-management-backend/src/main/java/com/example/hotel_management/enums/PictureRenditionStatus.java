@@ -0,0 +1,5 @@
+package com.example.hotel_management.enums;
+
+public enum PictureRenditionStatus {
+    QUEUED, RUNNING, DONE, FAILED
+}
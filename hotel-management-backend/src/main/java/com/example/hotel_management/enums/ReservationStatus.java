@@ -1,5 +1,23 @@
 package com.example.hotel_management.enums;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum ReservationStatus {
-    PENDING, CONFIRMED, CHECKED_IN, CHECKED_OUT, CANCELLED
+    PENDING, CONFIRMED, CHECKED_IN, CHECKED_OUT, CANCELLED;
+
+    private static final Set<ReservationStatus> BLOCKING =
+            Collections.unmodifiableSet(EnumSet.of(PENDING, CONFIRMED, CHECKED_IN));
+
+    /**
+     * Statuses that hold the room for the stay, i.e. the ones that make a room unavailable.
+     */
+    public static Set<ReservationStatus> blockingStatuses() {
+        return BLOCKING;
+    }
+
+    public boolean blocksRoom() {
+        return BLOCKING.contains(this);
+    }
 }
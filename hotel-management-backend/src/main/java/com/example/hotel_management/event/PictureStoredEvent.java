@@ -0,0 +1,12 @@
+package com.example.hotel_management.event;
+
+import lombok.Value;
+
+/**
+ * Published when a room or hotel picture has been written to the blob store, inside the transaction that
+ * references it.
+ */
+@Value
+public class PictureStoredEvent {
+    String hash;
+}
@@ -0,0 +1,17 @@
+package com.example.hotel_management.event;
+
+import lombok.Value;
+
+/**
+ * Published by the reservation service after every create, update, cancellation or status change.
+ * {@code previous} is null for newly created reservations.
+ */
+@Value
+public class ReservationChangedEvent {
+    ReservationSnapshot previous;
+    ReservationSnapshot current;
+
+    public Long getReservationId() {
+        return current.getId();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.hotel_management.event;
+
+import com.example.hotel_management.entity.Reservation;
+import com.example.hotel_management.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the reservation fields that derived views (availability index, counters, ...) care about.
+ * Taken before and after a write so listeners can work out what changed without touching the entity.
+ */
+@Value
+@AllArgsConstructor
+public class ReservationSnapshot {
+    Long id;
+    Long roomId;
+    Long hotelId;
+    LocalDateTime checkInTime;
+    LocalDateTime checkOutTime;
+    ReservationStatus status;
+    BigDecimal totalPrice;
+    LocalDateTime createdAt;
+
+    public static ReservationSnapshot of(Reservation reservation) {
+        if (reservation == null) {
+            return null;
+        }
+        return new ReservationSnapshot(
+                reservation.getId(),
+                reservation.getRoom() != null ? reservation.getRoom().getId() : null,
+                reservation.getHotel() != null ? reservation.getHotel().getId() : null,
+                reservation.getCheckInTime(),
+                reservation.getCheckOutTime(),
+                reservation.getStatus(),
+                reservation.getTotalPrice(),
+                reservation.getCreatedAt());
+    }
+
+    public boolean blocksRoom() {
+        return status != null && status.blocksRoom();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.hotel_management.event;
+
+import lombok.Value;
+
+/**
+ * Published by the room service after a room is created, updated, deleted or has its status changed.
+ */
+@Value
+public class RoomChangedEvent {
+    Long roomId;
+    Long hotelId;
+}
@@ -0,0 +1,125 @@
+package com.example.hotel_management.repository;
+
+import com.example.hotel_management.entity.HotelDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HotelDailyRollupRepository extends JpaRepository<HotelDailyRollup, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO hotel_rollup_dirty_ranges (hotel_id, from_day, to_day) " +
+                   "VALUES (:hotelId, :fromDay, :toDay)",
+           nativeQuery = true)
+    void markDirty(@Param("hotelId") Long hotelId,
+                   @Param("fromDay") LocalDate fromDay,
+                   @Param("toDay") LocalDate toDay);
+
+    // Queues every hotel when nothing was ever rolled up, so a fresh database backfills on its own
+    @Modifying
+    @Query(value = "INSERT INTO hotel_rollup_dirty_ranges (hotel_id) " +
+                   "SELECT id FROM hotels " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM hotel_daily_rollup) " +
+                   "  AND NOT EXISTS (SELECT 1 FROM hotel_rollup_dirty_ranges)",
+           nativeQuery = true)
+    int queueAllHotelsIfEmpty();
+
+    // Up to :limit hotels in the given scheduler partitions that have ranges queued
+    @Query(value = "SELECT DISTINCT hotel_id FROM hotel_rollup_dirty_ranges " +
+                   "WHERE MOD(hotel_id, :partitions) IN (:ownedPartitions) " +
+                   "ORDER BY hotel_id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findDirtyHotelIds(@Param("partitions") int partitions,
+                                 @Param("ownedPartitions") Collection<Integer> ownedPartitions,
+                                 @Param("limit") int limit);
+
+    /**
+     * Removes and returns up to {@code limit} queued ranges (from_day, to_day) of one hotel. Ranges queued by
+     * transactions still in flight, or beyond the limit, are left for the next run.
+     */
+    @Query(value = "WITH claimed AS (" +
+                   "    DELETE FROM hotel_rollup_dirty_ranges " +
+                   "    WHERE id IN (SELECT id FROM hotel_rollup_dirty_ranges " +
+                   "                 WHERE hotel_id = :hotelId " +
+                   "                 LIMIT :limit " +
+                   "                 FOR UPDATE SKIP LOCKED) " +
+                   "    RETURNING from_day, to_day" +
+                   ") SELECT from_day, to_day FROM claimed",
+           nativeQuery = true)
+    List<Object[]> claimDirtyRanges(@Param("hotelId") Long hotelId, @Param("limit") int limit);
+
+    // First and last night of any stay of the hotel, or nulls if it has none
+    @Query(value = "SELECT MIN(CAST(check_in_time AS date)), " +
+                   "       MAX(GREATEST(CAST(check_out_time AS date), CAST(check_in_time AS date) + 1) - 1) " +
+                   "FROM reservations WHERE hotel_id = :hotelId",
+           nativeQuery = true)
+    List<Object[]> findStaySpan(@Param("hotelId") Long hotelId);
+
+    @Modifying
+    @Query(value = "DELETE FROM hotel_daily_rollup WHERE hotel_id = :hotelId " +
+                   "AND (CAST(:fromDay AS date) IS NULL OR day BETWEEN :fromDay AND :toDay)",
+           nativeQuery = true)
+    int deleteRollups(@Param("hotelId") Long hotelId,
+                      @Param("fromDay") LocalDate fromDay,
+                      @Param("toDay") LocalDate toDay);
+
+    /**
+     * Writes the rollups of every day in [fromDay, toDay] from the reservations. A stay sells every night from its
+     * check-in date up to, but not including, its check-out date, and its price is spread evenly over those nights.
+     * Cancelled stays are counted on their arrival day. Expects the range to have been deleted first.
+     */
+    @Modifying
+    @Query(value = "WITH stays AS (" +
+                   "    SELECT rm.name AS room_type, res.status, res.total_price, " +
+                   "           CAST(res.check_in_time AS date) AS first_night, " +
+                   "           GREATEST(CAST(res.check_out_time AS date), CAST(res.check_in_time AS date) + 1) AS end_night " +
+                   "    FROM reservations res JOIN rooms rm ON rm.id = res.room_id " +
+                   "    WHERE res.hotel_id = :hotelId " +
+                   "      AND res.check_in_time < CAST(:toDay AS date) + 1 " +
+                   "      AND res.check_out_time > CAST(:fromDay AS date)" +
+                   "), sold AS (" +
+                   "    SELECT s.room_type, CAST(n AS date) AS day, COUNT(*) AS nights, " +
+                   "           SUM(s.total_price / (s.end_night - s.first_night)) AS revenue " +
+                   "    FROM stays s " +
+                   "    CROSS JOIN LATERAL generate_series(GREATEST(s.first_night, CAST(:fromDay AS date)), " +
+                   "        LEAST(s.end_night - 1, CAST(:toDay AS date)), interval '1 day') n " +
+                   "    WHERE s.status <> 'CANCELLED' " +
+                   "    GROUP BY s.room_type, CAST(n AS date)" +
+                   "), cancelled AS (" +
+                   "    SELECT room_type, first_night AS day, COUNT(*) AS cancellations FROM stays " +
+                   "    WHERE status = 'CANCELLED' AND first_night BETWEEN :fromDay AND :toDay " +
+                   "    GROUP BY room_type, first_night" +
+                   ") " +
+                   "INSERT INTO hotel_daily_rollup (hotel_id, room_type, day, nights_sold, revenue, cancellations) " +
+                   "SELECT :hotelId, COALESCE(s.room_type, c.room_type), COALESCE(s.day, c.day), " +
+                   "       COALESCE(s.nights, 0), COALESCE(s.revenue, 0), COALESCE(c.cancellations, 0) " +
+                   "FROM sold s FULL JOIN cancelled c ON c.room_type = s.room_type AND c.day = s.day",
+           nativeQuery = true)
+    int insertRollups(@Param("hotelId") Long hotelId,
+                      @Param("fromDay") LocalDate fromDay,
+                      @Param("toDay") LocalDate toDay);
+
+    /**
+     * Sums the rollups of [fromDay, toDay] per period of the given granularity (day, week or month), optionally
+     * for one room type. Returns period start, nights sold, revenue and cancellations, in period order.
+     */
+    @Query(value = "SELECT CAST(date_trunc(:granularity, day) AS date) AS period, " +
+                   "       SUM(nights_sold), SUM(revenue), SUM(cancellations) " +
+                   "FROM hotel_daily_rollup " +
+                   "WHERE hotel_id = :hotelId AND day BETWEEN :fromDay AND :toDay " +
+                   "  AND (CAST(:roomType AS varchar) IS NULL OR room_type = :roomType) " +
+                   "GROUP BY 1 ORDER BY 1",
+           nativeQuery = true)
+    List<Object[]> sumByPeriod(@Param("hotelId") Long hotelId,
+                               @Param("fromDay") LocalDate fromDay,
+                               @Param("toDay") LocalDate toDay,
+                               @Param("granularity") String granularity,
+                               @Param("roomType") String roomType);
+}
@@ -1,6 +1,8 @@
 package com.example.hotel_management.repository;
 
 import com.example.hotel_management.entity.Hotel;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,7 +11,16 @@ import java.util.List;
 
 @Repository
 public interface HotelRepository extends JpaRepository<Hotel, Long> {
+
+    @Override
+    @EntityGraph("Hotel.summary")
+    List<Hotel> findAll();
+
+    // One page of hotels with an id above afterId, in id order
+    @EntityGraph("Hotel.summary")
+    List<Hotel> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
     
+    @EntityGraph("Hotel.summary")
     List<Hotel> findByNameContainingIgnoreCaseOrAddressContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
             String name, String address, String description);
     
@@ -17,6 +28,7 @@ public interface HotelRepository extends JpaRepository<Hotel, Long> {
     
     List<Hotel> findByAverageRatingGreaterThanEqual(Double rating);
     
+    @EntityGraph("Hotel.summary")
     List<Hotel> findByAdminId(Long adminId);
     
     @Query("SELECT h FROM Hotel h WHERE h.starRating >= :minStars AND h.averageRating >= :minRating")
@@ -0,0 +1,65 @@
+package com.example.hotel_management.repository;
+
+import com.example.hotel_management.entity.PictureRendition;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PictureRenditionRepository extends JpaRepository<PictureRendition, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO picture_renditions (source_hash, status, attempts, queued_at) " +
+                   "VALUES (:hash, 'QUEUED', 0, :now) ON CONFLICT (source_hash) DO NOTHING",
+           nativeQuery = true)
+    int enqueue(@Param("hash") String hash, @Param("now") LocalDateTime now);
+
+    // Queues every stored room or hotel picture that has no rendition yet, e.g. pictures from before the pipeline
+    @Modifying
+    @Query(value = "INSERT INTO picture_renditions (source_hash, status, attempts, queued_at) " +
+                   "SELECT DISTINCT stored.hash, 'QUEUED', 0, :now FROM (" +
+                   "    SELECT hash FROM picture WHERE hash IS NOT NULL " +
+                   "    UNION " +
+                   "    SELECT SUBSTRING(picture_url FROM LENGTH(:blobPath) + 1) FROM hotel_pictures " +
+                   "    WHERE picture_url LIKE :blobPath || '%'" +
+                   ") stored " +
+                   "ON CONFLICT (source_hash) DO NOTHING",
+           nativeQuery = true)
+    int enqueueMissing(@Param("blobPath") String blobPath, @Param("now") LocalDateTime now);
+
+    /**
+     * Marks up to {@code batchSize} queued renditions as running and returns their source hashes, oldest first.
+     * Renditions left running since before {@code staleBefore}, by an instance that went away, are claimed again.
+     * Rows claimed by another instance at the same time are skipped.
+     */
+    @Query(value = "WITH claimed AS (" +
+                   "    UPDATE picture_renditions SET status = 'RUNNING', started_at = :now, attempts = attempts + 1 " +
+                   "    WHERE id IN (SELECT id FROM picture_renditions " +
+                   "                 WHERE status = 'QUEUED' OR (status = 'RUNNING' AND started_at < :staleBefore) " +
+                   "                 ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+                   "    RETURNING id, source_hash" +
+                   ") SELECT source_hash FROM claimed ORDER BY id",
+           nativeQuery = true)
+    List<String> claim(@Param("batchSize") int batchSize,
+                       @Param("now") LocalDateTime now,
+                       @Param("staleBefore") LocalDateTime staleBefore);
+
+    Optional<PictureRendition> findBySourceHash(String sourceHash);
+
+    @EntityGraph(attributePaths = "variants")
+    @Query("SELECT r FROM PictureRendition r WHERE r.sourceHash IN :hashes " +
+           "AND r.status = com.example.hotel_management.enums.PictureRenditionStatus.DONE")
+    List<PictureRendition> findDoneBySourceHashIn(@Param("hashes") Collection<String> hashes);
+
+    // (status, renditions) for the pipeline's queue depth
+    @Query("SELECT r.status, COUNT(r) FROM PictureRendition r GROUP BY r.status")
+    List<Object[]> countByStatus();
+}
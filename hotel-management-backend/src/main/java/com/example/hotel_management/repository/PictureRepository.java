@@ -0,0 +1,37 @@
+package com.example.hotel_management.repository;
+
+import com.example.hotel_management.entity.Picture;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PictureRepository extends JpaRepository<Picture, Long> {
+
+    // Any picture of a blob that knows its content type; rooms sharing the same file share the hash
+    Optional<Picture> findFirstByHashAndContentTypeNotNull(String hash);
+
+    /**
+     * Locks the next pictures after afterId still stored as data: URLs. Rows locked by another instance draining
+     * at the same time are skipped.
+     */
+    @Query(value = "SELECT * FROM picture WHERE id > :afterId AND hash IS NULL AND url LIKE 'data:%' " +
+                   "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Picture> lockDataUrlPictures(@Param("afterId") long afterId, @Param("batchSize") int batchSize);
+
+    // The given blob hashes that a room picture, a picture variant or a hotel picture URL still refers to
+    @Query(value = "SELECT hash FROM picture WHERE hash IN (:hashes) " +
+                   "UNION " +
+                   "SELECT hash FROM picture_rendition_variants WHERE hash IN (:hashes) " +
+                   "UNION " +
+                   "SELECT SUBSTRING(picture_url FROM LENGTH(:blobPath) + 1) FROM hotel_pictures " +
+                   "WHERE picture_url LIKE :blobPath || '%' AND SUBSTRING(picture_url FROM LENGTH(:blobPath) + 1) IN (:hashes)",
+           nativeQuery = true)
+    List<String> findReferencedHashes(@Param("hashes") Collection<String> hashes, @Param("blobPath") String blobPath);
+}
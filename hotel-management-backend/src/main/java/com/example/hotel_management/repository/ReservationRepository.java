@@ -1,32 +1,72 @@
 package com.example.hotel_management.repository;
 
+import com.example.hotel_management.dto.ReservationExportDTO;
+import com.example.hotel_management.dto.ReservationIntervalDTO;
+import com.example.hotel_management.dto.ReservationRowDTO;
+import com.example.hotel_management.entity.Picture;
 import com.example.hotel_management.entity.Reservation;
 import com.example.hotel_management.enums.ReservationStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    @Override
+    @EntityGraph("Reservation.list")
+    List<Reservation> findAll();
+
+    // One page of reservations with an id above afterId, in id order
+    @EntityGraph("Reservation.list")
+    List<Reservation> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
     
-    // Find by guest ID
+    // Select list of ReservationRowDTO: a reservation with its room, guest and creator in one row
+    String RESERVATION_ROW_SELECT = "SELECT new com.example.hotel_management.dto.ReservationRowDTO(" +
+           "r.id, r.checkInTime, r.checkOutTime, r.status, r.hotel.id, r.createdAt, r.updatedAt, " +
+           "rm.id, rm.number, rm.name, rm.description, rm.status, rm.price, rm.hotel.id, " +
+           "g.id, g.firstName, g.lastName, g.username, g.role, g.email, g.phoneNumber, g.active, " +
+           "cb.id, cb.firstName, cb.lastName, cb.username, cb.role, cb.email, cb.phoneNumber, cb.active) " +
+           "FROM Reservation r JOIN r.room rm JOIN r.guest g JOIN r.createdBy cb ";
+
+        // Find by guest ID
     List<Reservation> findByGuestId(Long guestId);
+
+    @Query(RESERVATION_ROW_SELECT + "WHERE g.id = :guestId ORDER BY r.id")
+    List<ReservationRowDTO> findRowsByGuestId(@Param("guestId") Long guestId);
+
+    @Query(RESERVATION_ROW_SELECT + "WHERE r.hotel.id = :hotelId ORDER BY r.id")
+    List<ReservationRowDTO> findRowsByHotelId(@Param("hotelId") Long hotelId);
+
+    @Query(RESERVATION_ROW_SELECT + "WHERE g.id = :guestId AND r.checkInTime > :dateTime ORDER BY r.id")
+    List<ReservationRowDTO> findUpcomingRowsByGuestId(@Param("guestId") Long guestId,
+                                                      @Param("dateTime") LocalDateTime dateTime);
+
+    @Query(RESERVATION_ROW_SELECT + "WHERE g.id = :guestId " +
+           "AND r.checkInTime <= :currentTime " +
+           "AND r.checkOutTime > :currentTime " +
+           "AND r.status = 'CONFIRMED' ORDER BY r.id")
+    List<ReservationRowDTO> findCurrentRowsByGuestId(@Param("guestId") Long guestId,
+                                                     @Param("currentTime") LocalDateTime currentTime);
     
     // Find by room ID
     List<Reservation> findByRoomId(Long roomId);
     
-    // Find by hotel ID with all necessary relationships
-    @Query("SELECT DISTINCT r FROM Reservation r " +
-           "LEFT JOIN FETCH r.room rm " +
-           "LEFT JOIN FETCH rm.pictures " +
-           "LEFT JOIN FETCH r.guest g " +
-           "LEFT JOIN FETCH r.createdBy cb " +
-           "LEFT JOIN FETCH r.hotel h " +
-           "WHERE r.hotel.id = :hotelId")
+    // Find by hotel ID with all necessary relationships; pictures are batch-fetched, not joined per row
+    @EntityGraph("Reservation.list")
+    @Query("SELECT r FROM Reservation r WHERE r.hotel.id = :hotelId")
     List<Reservation> findByHotelIdWithDetails(@Param("hotelId") Long hotelId);
 
     // Simple find by hotel ID (when full details aren't needed)
@@ -55,6 +95,141 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
         @Param("checkOut") LocalDateTime checkOut
     );
     
+    // Check for a reservation in one of the given statuses overlapping [checkIn, checkOut)
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r " +
+           "WHERE r.room.id = :roomId " +
+           "AND r.status IN :statuses " +
+           "AND r.checkInTime < :checkOut AND r.checkOutTime > :checkIn " +
+           "AND (:excludeId IS NULL OR r.id <> :excludeId)")
+    boolean existsOverlappingReservation(
+        @Param("roomId") Long roomId,
+        @Param("checkIn") LocalDateTime checkIn,
+        @Param("checkOut") LocalDateTime checkOut,
+        @Param("excludeId") Long excludeId,
+        @Param("statuses") Collection<ReservationStatus> statuses
+    );
+
+    // Stay intervals only (no entities) for reservations in the given statuses
+    @Query("SELECT new com.example.hotel_management.dto.ReservationIntervalDTO(" +
+           "r.id, r.room.id, r.hotel.id, r.checkInTime, r.checkOutTime, r.status) " +
+           "FROM Reservation r WHERE r.status IN :statuses")
+    List<ReservationIntervalDTO> findIntervalsByStatusIn(@Param("statuses") Collection<ReservationStatus> statuses);
+
+    // Stay intervals of the given reservations, whatever their status
+    @Query("SELECT new com.example.hotel_management.dto.ReservationIntervalDTO(" +
+           "r.id, r.room.id, r.hotel.id, r.checkInTime, r.checkOutTime, r.status) " +
+           "FROM Reservation r WHERE r.id IN :ids")
+    List<ReservationIntervalDTO> findIntervalsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.hotel_management.dto.ReservationIntervalDTO(" +
+           "r.id, r.room.id, r.hotel.id, r.checkInTime, r.checkOutTime, r.status) " +
+           "FROM Reservation r WHERE r.room.hotel.id = :hotelId AND r.status = :status")
+    List<ReservationIntervalDTO> findIntervalsByHotelIdAndStatus(@Param("hotelId") Long hotelId,
+                                                                 @Param("status") ReservationStatus status);
+
+    // Confirmed stays starting before :until and checked-in stays ending before it, i.e. the next transitions
+    @Query("SELECT new com.example.hotel_management.dto.ReservationIntervalDTO(" +
+           "r.id, r.room.id, r.hotel.id, r.checkInTime, r.checkOutTime, r.status) " +
+           "FROM Reservation r " +
+           "WHERE (r.status = com.example.hotel_management.enums.ReservationStatus.CONFIRMED AND r.checkInTime < :until) " +
+           "OR (r.status = com.example.hotel_management.enums.ReservationStatus.CHECKED_IN AND r.checkOutTime < :until)")
+    List<ReservationIntervalDTO> findTransitionsDueBefore(@Param("until") LocalDateTime until);
+
+    /**
+     * Checks in up to {@code limit} confirmed reservations whose check-in time has passed and marks their rooms
+     * OCCUPIED, in one statement. Only hotels in the given scheduler partitions ({@code hotel_id % partitions})
+     * are considered. Rows locked by someone else are skipped and picked up by the next chunk or run.
+     * Rooms are only updated when {@code roomWrites} is set, i.e. occupancy is not derived at read time.
+     * Returns id, room_id, hotel_id, check_in_time, check_out_time, total_price and created_at of each row moved.
+     */
+    @Query(value = "WITH due AS (" +
+                   "    SELECT id FROM reservations " +
+                   "    WHERE status = 'CONFIRMED' AND check_in_time < :now " +
+                   "      AND MOD(hotel_id, :partitions) IN (:ownedPartitions) " +
+                   "    ORDER BY check_in_time LIMIT :limit FOR UPDATE SKIP LOCKED" +
+                   "), moved AS (" +
+                   "    UPDATE reservations r SET status = 'CHECKED_IN', updated_at = :now FROM due WHERE r.id = due.id " +
+                   "    RETURNING r.id, r.room_id, r.hotel_id, r.check_in_time, r.check_out_time, r.total_price, r.created_at" +
+                   "), occupied AS (" +
+                   "    UPDATE rooms SET status = 'OCCUPIED' WHERE :roomWrites AND id IN (SELECT room_id FROM moved)" +
+                   ") " +
+                   "SELECT id, room_id, hotel_id, check_in_time, check_out_time, total_price, created_at FROM moved",
+           nativeQuery = true)
+    List<Object[]> checkInDueReservations(@Param("now") LocalDateTime now,
+                                          @Param("limit") int limit,
+                                          @Param("partitions") int partitions,
+                                          @Param("ownedPartitions") Collection<Integer> ownedPartitions,
+                                          @Param("roomWrites") boolean roomWrites);
+
+    /**
+     * Checks out up to {@code limit} checked-in reservations whose check-out time has passed and marks their rooms
+     * AVAILABLE, in one statement. Returns the same columns as {@link #checkInDueReservations}.
+     */
+    @Query(value = "WITH due AS (" +
+                   "    SELECT id FROM reservations " +
+                   "    WHERE status = 'CHECKED_IN' AND check_out_time < :now " +
+                   "      AND MOD(hotel_id, :partitions) IN (:ownedPartitions) " +
+                   "    ORDER BY check_out_time LIMIT :limit FOR UPDATE SKIP LOCKED" +
+                   "), moved AS (" +
+                   "    UPDATE reservations r SET status = 'CHECKED_OUT', updated_at = :now FROM due WHERE r.id = due.id " +
+                   "    RETURNING r.id, r.room_id, r.hotel_id, r.check_in_time, r.check_out_time, r.total_price, r.created_at" +
+                   "), freed AS (" +
+                   "    UPDATE rooms SET status = 'AVAILABLE' WHERE :roomWrites AND id IN (SELECT room_id FROM moved)" +
+                   ") " +
+                   "SELECT id, room_id, hotel_id, check_in_time, check_out_time, total_price, created_at FROM moved",
+           nativeQuery = true)
+    List<Object[]> checkOutDueReservations(@Param("now") LocalDateTime now,
+                                           @Param("limit") int limit,
+                                           @Param("partitions") int partitions,
+                                           @Param("ownedPartitions") Collection<Integer> ownedPartitions,
+                                           @Param("roomWrites") boolean roomWrites);
+
+    /**
+     * Checks in one reservation if it is still CONFIRMED and its check-in time has passed, with the same guarded
+     * update as {@link #checkInDueReservations}. Returns the moved row, or nothing if a concurrent change got there
+     * first.
+     */
+    @Query(value = "WITH moved AS (" +
+                   "    UPDATE reservations SET status = 'CHECKED_IN', updated_at = :now " +
+                   "    WHERE id = :id AND status = 'CONFIRMED' AND check_in_time < :now " +
+                   "    RETURNING id, room_id, hotel_id, check_in_time, check_out_time, total_price, created_at" +
+                   "), occupied AS (" +
+                   "    UPDATE rooms SET status = 'OCCUPIED' WHERE :roomWrites AND id IN (SELECT room_id FROM moved)" +
+                   ") " +
+                   "SELECT id, room_id, hotel_id, check_in_time, check_out_time, total_price, created_at FROM moved",
+           nativeQuery = true)
+    List<Object[]> checkInReservation(@Param("id") Long id,
+                                      @Param("now") LocalDateTime now,
+                                      @Param("roomWrites") boolean roomWrites);
+
+    /**
+     * Checks out one reservation if it is still CHECKED_IN and its check-out time has passed. Returns the same
+     * columns as {@link #checkInReservation}.
+     */
+    @Query(value = "WITH moved AS (" +
+                   "    UPDATE reservations SET status = 'CHECKED_OUT', updated_at = :now " +
+                   "    WHERE id = :id AND status = 'CHECKED_IN' AND check_out_time < :now " +
+                   "    RETURNING id, room_id, hotel_id, check_in_time, check_out_time, total_price, created_at" +
+                   "), freed AS (" +
+                   "    UPDATE rooms SET status = 'AVAILABLE' WHERE :roomWrites AND id IN (SELECT room_id FROM moved)" +
+                   ") " +
+                   "SELECT id, room_id, hotel_id, check_in_time, check_out_time, total_price, created_at FROM moved",
+           nativeQuery = true)
+    List<Object[]> checkOutReservation(@Param("id") Long id,
+                                       @Param("now") LocalDateTime now,
+                                       @Param("roomWrites") boolean roomWrites);
+
+    // Stays in the given statuses on any of the rooms that touch [earliestCheckIn, latestCheckOut)
+    @Query("SELECT new com.example.hotel_management.dto.ReservationIntervalDTO(" +
+           "r.id, r.room.id, r.hotel.id, r.checkInTime, r.checkOutTime, r.status) " +
+           "FROM Reservation r WHERE r.room.id IN :roomIds AND r.status IN :statuses " +
+           "AND r.checkInTime < :latestCheckOut AND r.checkOutTime > :earliestCheckIn")
+    List<ReservationIntervalDTO> findIntervalsForRooms(
+            @Param("roomIds") Collection<Long> roomIds,
+            @Param("earliestCheckIn") LocalDateTime earliestCheckIn,
+            @Param("latestCheckOut") LocalDateTime latestCheckOut,
+            @Param("statuses") Collection<ReservationStatus> statuses);
+    
     // Find all active reservations for a hotel
     List<Reservation> findByHotelIdAndStatus(Long hotelId, ReservationStatus status);
     
@@ -114,4 +289,140 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
            "AND r.checkOutTime > :now " +
            "ORDER BY r.checkOutTime ASC")
     List<Reservation> findUpcomingCheckouts(Long hotelId, LocalDateTime now);
+
+    // One reservation of the dashboard lists as JSON shaped like ReservationDTO; x is the reservation,
+    // rm its room, g its guest and cb its creator
+    String DASHBOARD_RESERVATION_JSON = "json_build_object(" +
+           "'id', x.id, 'checkInTime', x.check_in_time, 'checkOutTime', x.check_out_time, 'status', x.status, " +
+           "'hotelId', x.hotel_id, 'createdAt', x.created_at, 'updatedAt', x.updated_at, " +
+           "'room', json_build_object('id', rm.id, 'number', rm.number, 'name', rm.name, " +
+           "    'description', rm.description, 'status', rm.status, 'price', rm.price, 'hotelId', rm.hotel_id, " +
+           "    'pictures', COALESCE((SELECT json_agg(json_build_object('url', " +
+           "                              COALESCE('" + Picture.BLOB_PATH + "' || p.hash, p.url))) FROM picture p " +
+           "                          WHERE p.room_id = rm.id AND (p.url IS NOT NULL OR p.hash IS NOT NULL)), " +
+           "                 CAST('[]' AS json))), " +
+           "'guest', json_build_object('id', g.id, 'firstName', g.first_name, 'lastName', g.last_name, " +
+           "    'username', g.username, 'role', g.role, 'email', g.email, 'phoneNumber', g.phone_number, " +
+           "    'active', g.active), " +
+           "'createdBy', json_build_object('id', cb.id, 'firstName', cb.first_name, 'lastName', cb.last_name, " +
+           "    'username', cb.username, 'role', cb.role, 'email', cb.email, 'phoneNumber', cb.phone_number, " +
+           "    'active', cb.active))";
+
+    String DASHBOARD_RESERVATION_JOINS = "JOIN rooms rm ON rm.id = x.room_id " +
+           "JOIN users g ON g.id = x.guest_id " +
+           "JOIN users cb ON cb.id = x.created_by_id";
+
+    /**
+     * Everything the hotel dashboard shows, assembled by the database into one JSON document shaped like
+     * HotelStatsDTO: booking count, checked-in guests, available rooms, revenue of reservations created in
+     * [monthStart, nextMonthStart), room type shares, and the {@code shown} newest bookings and next check-outs.
+     * Available rooms are counted from the stored room status, or from the reservations when {@code derived}
+     * occupancy is on.
+     */
+    @Query(value = "WITH res AS (" +
+                   "    SELECT * FROM reservations WHERE hotel_id = :hotelId" +
+                   "), hotel_rooms AS (" +
+                   "    SELECT * FROM rooms WHERE hotel_id = :hotelId" +
+                   "), recent AS (" +
+                   "    SELECT * FROM res ORDER BY created_at DESC, id DESC LIMIT :shown" +
+                   "), upcoming AS (" +
+                   "    SELECT * FROM res WHERE check_out_time > :now ORDER BY check_out_time, id LIMIT :shown" +
+                   ") " +
+                   "SELECT CAST(json_build_object(" +
+                   "    'totalBookings', (SELECT COUNT(*) FROM res), " +
+                   "    'activeGuests', (SELECT COUNT(*) FROM res WHERE status = 'CHECKED_IN'), " +
+                   "    'availableRooms', (SELECT COUNT(*) FROM hotel_rooms hr WHERE CASE WHEN :derived " +
+                   "        THEN hr.status <> 'MAINTENANCE' AND NOT EXISTS (SELECT 1 FROM res o WHERE o.room_id = hr.id " +
+                   "            AND o.check_out_time > :now AND (o.status = 'CHECKED_IN' " +
+                   "            OR (o.status = 'CONFIRMED' AND o.check_in_time <= :now))) " +
+                   "        ELSE hr.status = 'AVAILABLE' END), " +
+                   "    'monthlyRevenue', (SELECT COALESCE(SUM(total_price), 0) FROM res " +
+                   "        WHERE created_at >= :monthStart AND created_at < :nextMonthStart), " +
+                   "    'roomTypeStats', (SELECT COALESCE(json_agg(json_build_object(" +
+                   "        'type', t.name, 'percentage', t.rooms * 100.0 / t.total) ORDER BY t.name), CAST('[]' AS json)) " +
+                   "        FROM (SELECT name, COUNT(*) AS rooms, SUM(COUNT(*)) OVER () AS total " +
+                   "              FROM hotel_rooms GROUP BY name) t), " +
+                   "    'recentBookings', (SELECT COALESCE(json_agg(" + DASHBOARD_RESERVATION_JSON +
+                   "        ORDER BY x.created_at DESC, x.id DESC), CAST('[]' AS json)) " +
+                   "        FROM recent x " + DASHBOARD_RESERVATION_JOINS + "), " +
+                   "    'upcomingCheckouts', (SELECT COALESCE(json_agg(" + DASHBOARD_RESERVATION_JSON +
+                   "        ORDER BY x.check_out_time, x.id), CAST('[]' AS json)) " +
+                   "        FROM upcoming x " + DASHBOARD_RESERVATION_JOINS + ")" +
+                   ") AS text)",
+           nativeQuery = true)
+    String findHotelDashboardJson(@Param("hotelId") Long hotelId,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("monthStart") LocalDateTime monthStart,
+                                  @Param("nextMonthStart") LocalDateTime nextMonthStart,
+                                  @Param("derived") boolean derived,
+                                  @Param("shown") int shown);
+
+    /**
+     * The dashboard counters of every hotel an admin manages, grouped per hotel in one query: hotel id, hotel name,
+     * booking count, checked-in guests, revenue of reservations created in [monthStart, nextMonthStart) and
+     * available rooms, counted like {@link #findHotelDashboardJson}. Hotels without reservations or rooms are
+     * included with zeros.
+     */
+    @Query(value = "WITH admin_hotels AS (" +
+                   "    SELECT id, name FROM hotels WHERE admin_id = :adminId" +
+                   "), res AS (" +
+                   "    SELECT hotel_id, COUNT(*) AS bookings, " +
+                   "           COUNT(*) FILTER (WHERE status = 'CHECKED_IN') AS guests, " +
+                   "           SUM(total_price) FILTER (WHERE created_at >= :monthStart " +
+                   "               AND created_at < :nextMonthStart) AS revenue " +
+                   "    FROM reservations WHERE hotel_id IN (SELECT id FROM admin_hotels) " +
+                   "    GROUP BY hotel_id" +
+                   "), available AS (" +
+                   "    SELECT hr.hotel_id, COUNT(*) AS rooms FROM rooms hr " +
+                   "    WHERE hr.hotel_id IN (SELECT id FROM admin_hotels) AND CASE WHEN :derived " +
+                   "        THEN hr.status <> 'MAINTENANCE' AND NOT EXISTS (SELECT 1 FROM reservations o " +
+                   "            WHERE o.room_id = hr.id AND o.check_out_time > :now AND (o.status = 'CHECKED_IN' " +
+                   "            OR (o.status = 'CONFIRMED' AND o.check_in_time <= :now))) " +
+                   "        ELSE hr.status = 'AVAILABLE' END " +
+                   "    GROUP BY hr.hotel_id" +
+                   ") " +
+                   "SELECT h.id, h.name, COALESCE(res.bookings, 0), COALESCE(res.guests, 0), " +
+                   "       COALESCE(res.revenue, 0), COALESCE(available.rooms, 0) " +
+                   "FROM admin_hotels h " +
+                   "LEFT JOIN res ON res.hotel_id = h.id " +
+                   "LEFT JOIN available ON available.hotel_id = h.id " +
+                   "ORDER BY h.id",
+           nativeQuery = true)
+    List<Object[]> findPortfolioCounters(@Param("adminId") Long adminId,
+                                         @Param("now") LocalDateTime now,
+                                         @Param("monthStart") LocalDateTime monthStart,
+                                         @Param("nextMonthStart") LocalDateTime nextMonthStart,
+                                         @Param("derived") boolean derived);
+
+    // Rows of a hotel export fetched from the cursor at a time
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Every reservation of a hotel as a flat export row, in id order. Must be consumed inside a transaction and
+     * closed; rows are pulled from the database cursor {@link #EXPORT_FETCH_SIZE} at a time.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.hotel_management.dto.ReservationExportDTO(" +
+           "r.id, r.hotel.id, rm.id, rm.number, rm.name, g.id, g.firstName, g.lastName, g.email, " +
+           "r.checkInTime, r.checkOutTime, r.status, r.totalPrice, r.specialRequests, r.createdAt, r.updatedAt) " +
+           "FROM Reservation r JOIN r.room rm JOIN r.guest g " +
+           "WHERE r.hotel.id = :hotelId ORDER BY r.id")
+    Stream<ReservationExportDTO> streamExportByHotelId(@Param("hotelId") Long hotelId);
+
+    // Newest reservations of a hotel, one page at a time
+    @EntityGraph("Reservation.list")
+    @Query("SELECT r FROM Reservation r WHERE r.room.hotel.id = :hotelId " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Reservation> findRecentByHotelId(@Param("hotelId") Long hotelId, Pageable pageable);
+
+    // Next check-outs of a hotel, one page at a time
+    @EntityGraph("Reservation.list")
+    @Query("SELECT r FROM Reservation r WHERE r.room.hotel.id = :hotelId " +
+           "AND r.checkOutTime > :now " +
+           "ORDER BY r.checkOutTime ASC, r.id ASC")
+    List<Reservation> findUpcomingCheckouts(@Param("hotelId") Long hotelId, @Param("now") LocalDateTime now,
+                                            Pageable pageable);
 }
@@ -1,26 +1,64 @@
 package com.example.hotel_management.repository;
 
+import com.example.hotel_management.dto.RoomRateDTO;
 import com.example.hotel_management.entity.Room;
+import com.example.hotel_management.enums.ReservationStatus;
 import com.example.hotel_management.enums.RoomStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
-    @Query("SELECT DISTINCT r FROM Room r " +
-           "LEFT JOIN FETCH r.hotel h " +
-           "WHERE r.hotel.id = :hotelId")
+
+    // One page of rooms with an id above afterId, in id order
+    List<Room> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // A reservation occupies its room at :now when the guest is checked in and not yet due out, or when a
+    // confirmed stay has started; used by the derived occupancy view instead of the stored room status
+    String OCCUPYING_RESERVATION = "SELECT res.id FROM Reservation res WHERE res.room = r " +
+           "AND res.checkOutTime > :now " +
+           "AND (res.status = com.example.hotel_management.enums.ReservationStatus.CHECKED_IN " +
+           "OR (res.status = com.example.hotel_management.enums.ReservationStatus.CONFIRMED AND res.checkInTime <= :now))";
+
+    @EntityGraph("Room.card")
+    @Query("SELECT r FROM Room r WHERE r.hotel.id = :hotelId")
     List<Room> findByHotelId(@Param("hotelId") Long hotelId);
+
+    @Override
+    @EntityGraph("Room.card")
+    List<Room> findAll();
+
+    @Override
+    @EntityGraph("Room.detail")
+    Optional<Room> findById(Long id);
     
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Room r WHERE r.number = :number AND r.hotel.id = :hotelId")
     boolean existsByNumberAndHotelId(@Param("number") String number, @Param("hotelId") Long hotelId);
     
     List<Room> findByHotelIdAndStatus(Long hotelId, RoomStatus status);
+
+    @Query("SELECT new com.example.hotel_management.dto.RoomRateDTO(r.id, r.hotel.id, r.number, r.name, r.price) " +
+           "FROM Room r WHERE r.id IN :roomIds")
+    List<RoomRateDTO> findRatesByIdIn(@Param("roomIds") Collection<Long> roomIds);
+
+    @Query("SELECT r.hotel.id FROM Room r WHERE r.id = :roomId")
+    Optional<Long> findHotelIdById(@Param("roomId") Long roomId);
+
+    List<Room> findByHotelIdAndStatusNot(Long hotelId, RoomStatus status, Sort sort);
+
+    List<Room> findByHotelIdAndStatusNotAndPriceBetween(
+            Long hotelId, RoomStatus status, BigDecimal minPrice, BigDecimal maxPrice, Sort sort);
     
     List<Room> findByHotelIdAndPriceLessThanEqual(Long hotelId, BigDecimal maxPrice);
     
@@ -36,12 +74,91 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
             @Param("minPrice") BigDecimal minPrice,
             @Param("maxPrice") BigDecimal maxPrice);
     
+    // Rooms of a hotel with no reservation in one of the blocking statuses overlapping [checkIn, checkOut)
+    @Query("SELECT r FROM Room r WHERE r.hotel.id = :hotelId AND r.status <> :excludedStatus " +
+           "AND NOT EXISTS (SELECT res.id FROM Reservation res WHERE res.room = r " +
+           "AND res.status IN :blockingStatuses " +
+           "AND res.checkInTime < :checkOut AND res.checkOutTime > :checkIn)")
+    List<Room> findAvailableRoomsForStay(
+            @Param("hotelId") Long hotelId,
+            @Param("checkIn") LocalDateTime checkIn,
+            @Param("checkOut") LocalDateTime checkOut,
+            @Param("blockingStatuses") Collection<ReservationStatus> blockingStatuses,
+            @Param("excludedStatus") RoomStatus excludedStatus,
+            Sort sort);
+
+    @Query("SELECT r FROM Room r WHERE r.hotel.id = :hotelId AND r.status <> :excludedStatus " +
+           "AND r.price BETWEEN :minPrice AND :maxPrice " +
+           "AND NOT EXISTS (SELECT res.id FROM Reservation res WHERE res.room = r " +
+           "AND res.status IN :blockingStatuses " +
+           "AND res.checkInTime < :checkOut AND res.checkOutTime > :checkIn)")
+    List<Room> findAvailableRoomsForStayByPriceRange(
+            @Param("hotelId") Long hotelId,
+            @Param("checkIn") LocalDateTime checkIn,
+            @Param("checkOut") LocalDateTime checkOut,
+            @Param("blockingStatuses") Collection<ReservationStatus> blockingStatuses,
+            @Param("excludedStatus") RoomStatus excludedStatus,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            Sort sort);
+    
+    long countByHotelId(Long hotelId);
+
+    long countByHotelIdAndName(Long hotelId, String name);
+
     @Query("SELECT COUNT(r) FROM Room r WHERE r.hotel.id = :hotelId AND r.status = :status")
     long countByHotelIdAndStatus(@Param("hotelId") Long hotelId, @Param("status") RoomStatus status);
 
     @Query("SELECT COUNT(r) FROM Room r WHERE r.hotel.id = :hotelId AND r.status = 'AVAILABLE'")
     int countAvailableRoomsByHotel(Long hotelId);
 
+    @Query("SELECT r FROM Room r WHERE r.hotel.id = :hotelId " +
+           "AND r.status <> com.example.hotel_management.enums.RoomStatus.MAINTENANCE " +
+           "AND EXISTS (" + OCCUPYING_RESERVATION + ")")
+    List<Room> findOccupiedRooms(@Param("hotelId") Long hotelId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT r FROM Room r WHERE r.hotel.id = :hotelId " +
+           "AND r.status <> com.example.hotel_management.enums.RoomStatus.MAINTENANCE " +
+           "AND NOT EXISTS (" + OCCUPYING_RESERVATION + ")")
+    List<Room> findVacantRooms(@Param("hotelId") Long hotelId, @Param("now") LocalDateTime now, Sort sort);
+
+    @Query("SELECT r FROM Room r WHERE r.hotel.id = :hotelId " +
+           "AND r.status <> com.example.hotel_management.enums.RoomStatus.MAINTENANCE " +
+           "AND r.price BETWEEN :minPrice AND :maxPrice " +
+           "AND NOT EXISTS (" + OCCUPYING_RESERVATION + ")")
+    List<Room> findVacantRoomsByPriceRange(
+            @Param("hotelId") Long hotelId,
+            @Param("now") LocalDateTime now,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice);
+
+    @Query("SELECT COUNT(r) FROM Room r WHERE r.hotel.id = :hotelId " +
+           "AND r.status <> com.example.hotel_management.enums.RoomStatus.MAINTENANCE " +
+           "AND EXISTS (" + OCCUPYING_RESERVATION + ")")
+    long countOccupiedRooms(@Param("hotelId") Long hotelId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(r) FROM Room r WHERE r.hotel.id = :hotelId " +
+           "AND r.status <> com.example.hotel_management.enums.RoomStatus.MAINTENANCE " +
+           "AND NOT EXISTS (" + OCCUPYING_RESERVATION + ")")
+    long countVacantRooms(@Param("hotelId") Long hotelId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.id FROM Room r WHERE r.id IN :roomIds AND EXISTS (" + OCCUPYING_RESERVATION + ")")
+    List<Long> findOccupiedRoomIds(@Param("roomIds") Collection<Long> roomIds, @Param("now") LocalDateTime now);
+
+    // (room id, url, blob hash) of every picture of the given rooms
+    @Query("SELECT p.room.id, p.url, p.hash FROM Picture p WHERE p.room.id IN :roomIds " +
+           "AND (p.url IS NOT NULL OR p.hash IS NOT NULL)")
+    List<Object[]> findPictureUrlsByRoomIds(@Param("roomIds") Collection<Long> roomIds);
+
+    // (hotel id, room type, rooms) of every hotel an admin manages
+    @Query("SELECT r.hotel.id, r.name, COUNT(r) FROM Room r WHERE r.hotel.admin.id = :adminId " +
+           "GROUP BY r.hotel.id, r.name ORDER BY r.name")
+    List<Object[]> countRoomTypesByAdminId(@Param("adminId") Long adminId);
+
+    // id, name and stored status of every room of a hotel
+    @Query("SELECT r.id, r.name, r.status FROM Room r WHERE r.hotel.id = :hotelId")
+    List<Object[]> findRoomStatesByHotelId(@Param("hotelId") Long hotelId);
+
     @Query("SELECT r.name as type, COUNT(r) * 100.0 / (SELECT COUNT(r2) FROM Room r2 WHERE r2.hotel.id = :hotelId) as percentage " +
            "FROM Room r WHERE r.hotel.id = :hotelId GROUP BY r.name")
     List<Object[]> getRoomTypeStatsByHotel(Long hotelId);
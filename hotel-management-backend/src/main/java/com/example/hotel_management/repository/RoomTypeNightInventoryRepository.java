@@ -0,0 +1,136 @@
+package com.example.hotel_management.repository;
+
+import com.example.hotel_management.entity.RoomTypeNightInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RoomTypeNightInventoryRepository extends JpaRepository<RoomTypeNightInventory, Long> {
+
+    // Counters every non-cancelled reservation implies, optionally limited to one hotel and room type
+    String EXPECTED_COUNTERS =
+            "WITH sold AS (" +
+            "    SELECT rm.hotel_id, rm.name AS room_type, CAST(n AS date) AS night, COUNT(*) AS sold " +
+            "    FROM reservations res " +
+            "    JOIN rooms rm ON rm.id = res.room_id " +
+            "    CROSS JOIN LATERAL generate_series(CAST(res.check_in_time AS date), " +
+            "        GREATEST(CAST(res.check_out_time AS date), CAST(res.check_in_time AS date) + 1) - 1, " +
+            "        interval '1 day') n " +
+            "    WHERE res.status <> 'CANCELLED' " +
+            "      AND (CAST(:hotelId AS bigint) IS NULL OR rm.hotel_id = :hotelId) " +
+            "      AND (CAST(:roomType AS text) IS NULL OR rm.name = :roomType) " +
+            "    GROUP BY rm.hotel_id, rm.name, CAST(n AS date)" +
+            "), totals AS (" +
+            "    SELECT hotel_id, name AS room_type, COUNT(*) AS total FROM rooms GROUP BY hotel_id, name" +
+            "), expected AS (" +
+            "    SELECT s.hotel_id, s.room_type, s.night, t.total, s.sold " +
+            "    FROM sold s JOIN totals t ON t.hotel_id = s.hotel_id AND t.room_type = s.room_type" +
+            ") ";
+
+    // Stored rows in the same scope as EXPECTED_COUNTERS
+    String STORED_COUNTERS =
+            "(SELECT * FROM room_type_night_inventory " +
+            " WHERE (CAST(:hotelId AS bigint) IS NULL OR hotel_id = :hotelId) " +
+            "   AND (CAST(:roomType AS text) IS NULL OR room_type = :roomType))";
+
+    List<RoomTypeNightInventory> findByHotelIdAndRoomTypeAndNightGreaterThanEqualAndNightLessThanOrderByNight(
+            Long hotelId, String roomType, LocalDate fromNight, LocalDate toNight);
+
+    /**
+     * Adds {@code delta} to the sold counter of every night in [firstNight, lastNight] for the type of the given room,
+     * creating missing rows. Nights are visited in date order so concurrent writers lock rows in the same order.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO room_type_night_inventory (hotel_id, room_type, night, total, sold) " +
+                   "SELECT rm.hotel_id, rm.name, CAST(n AS date), " +
+                   "       (SELECT COUNT(*) FROM rooms t WHERE t.hotel_id = rm.hotel_id AND t.name = rm.name), :delta " +
+                   "FROM rooms rm " +
+                   "CROSS JOIN generate_series(CAST(:firstNight AS date), CAST(:lastNight AS date), interval '1 day') n " +
+                   "WHERE rm.id = :roomId " +
+                   "ORDER BY 3 " +
+                   "ON CONFLICT (hotel_id, room_type, night) " +
+                   "DO UPDATE SET sold = room_type_night_inventory.sold + EXCLUDED.sold",
+           nativeQuery = true)
+    int addSold(@Param("roomId") Long roomId,
+                @Param("firstNight") LocalDate firstNight,
+                @Param("lastNight") LocalDate lastNight,
+                @Param("delta") int delta);
+
+    /**
+     * Recounts the rooms of a type. The type's rows are locked in night order first, the same order
+     * {@link #addSold} takes them in, so a recount and a booking never wait on each other in a cycle.
+     */
+    @Modifying
+    @Query(value = "UPDATE room_type_night_inventory " +
+                   "SET total = (SELECT COUNT(*) FROM rooms WHERE hotel_id = :hotelId AND name = :roomType) " +
+                   "WHERE id IN (SELECT id FROM room_type_night_inventory " +
+                   "             WHERE hotel_id = :hotelId AND room_type = :roomType " +
+                   "             ORDER BY night FOR UPDATE)",
+           nativeQuery = true)
+    int refreshTotals(@Param("hotelId") Long hotelId, @Param("roomType") String roomType);
+
+    /**
+     * Number of stored rows that differ from what the reservations imply. Rows with nothing sold are allowed
+     * to linger, so they only count when their expected counterpart is missing and they still claim sales.
+     */
+    @Query(value = EXPECTED_COUNTERS +
+                   "SELECT COUNT(*) FROM expected e " +
+                   "FULL JOIN " + STORED_COUNTERS + " i " +
+                   "  ON i.hotel_id = e.hotel_id AND i.room_type = e.room_type AND i.night = e.night " +
+                   "WHERE i.id IS NULL " +
+                   "   OR (e.night IS NULL AND i.sold <> 0) " +
+                   "   OR (e.night IS NOT NULL AND (i.sold <> e.sold OR i.total <> e.total))",
+           nativeQuery = true)
+    long countDrift(@Param("hotelId") Long hotelId, @Param("roomType") String roomType);
+
+    /**
+     * Creates the rows the reservations imply but that are missing. A row a booking is creating at the same
+     * time is left to that booking, which counts its own reservation.
+     */
+    @Modifying
+    @Query(value = EXPECTED_COUNTERS +
+                   "INSERT INTO room_type_night_inventory (hotel_id, room_type, night, total, sold) " +
+                   "SELECT hotel_id, room_type, night, total, sold FROM expected " +
+                   "ORDER BY hotel_id, room_type, night " +
+                   "ON CONFLICT (hotel_id, room_type, night) DO NOTHING",
+           nativeQuery = true)
+    int insertMissingCounters(@Param("hotelId") Long hotelId, @Param("roomType") String roomType);
+
+    /**
+     * Locks the stored rows that differ from what the reservations imply, in the order bookings lock them,
+     * and returns their ids. Only these rows are held; bookings on any other night carry on.
+     */
+    @Query(value = EXPECTED_COUNTERS +
+                   "SELECT i.id FROM " + STORED_COUNTERS + " i " +
+                   "LEFT JOIN expected e " +
+                   "  ON i.hotel_id = e.hotel_id AND i.room_type = e.room_type AND i.night = e.night " +
+                   "WHERE (e.night IS NULL AND i.sold <> 0) " +
+                   "   OR (e.night IS NOT NULL AND (i.sold <> e.sold OR i.total <> e.total)) " +
+                   "ORDER BY i.hotel_id, i.room_type, i.night " +
+                   "FOR UPDATE OF i",
+           nativeQuery = true)
+    List<Long> lockDriftedCounters(@Param("hotelId") Long hotelId, @Param("roomType") String roomType);
+
+    /**
+     * Rewrites locked rows from the reservations. Runs as its own statement after {@link #lockDriftedCounters},
+     * so it sees every booking that had already counted itself on those rows; bookings that count themselves
+     * afterwards add to the repaired value.
+     */
+    @Modifying
+    @Query(value = EXPECTED_COUNTERS +
+                   "UPDATE room_type_night_inventory i " +
+                   "SET total = COALESCE(e.total, i.total), sold = COALESCE(e.sold, 0) " +
+                   "FROM room_type_night_inventory r " +
+                   "LEFT JOIN expected e " +
+                   "  ON r.hotel_id = e.hotel_id AND r.room_type = e.room_type AND r.night = e.night " +
+                   "WHERE i.id = r.id AND r.id IN (:ids)",
+           nativeQuery = true)
+    int repairCounters(@Param("hotelId") Long hotelId, @Param("roomType") String roomType,
+                       @Param("ids") List<Long> ids);
+}
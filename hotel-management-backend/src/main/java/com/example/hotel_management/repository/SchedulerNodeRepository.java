@@ -0,0 +1,29 @@
+package com.example.hotel_management.repository;
+
+import com.example.hotel_management.entity.SchedulerNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+// Times come from the database clock so nodes with skewed clocks still agree on who is alive
+@Repository
+public interface SchedulerNodeRepository extends JpaRepository<SchedulerNode, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_nodes (node_id, heartbeat_at, started_at) VALUES (:nodeId, now(), now()) " +
+                   "ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = now()",
+           nativeQuery = true)
+    void beat(@Param("nodeId") String nodeId);
+
+    @Query(value = "SELECT COUNT(*) FROM scheduler_nodes " +
+                   "WHERE heartbeat_at > now() - make_interval(secs => :ttlSeconds)",
+           nativeQuery = true)
+    long countLive(@Param("ttlSeconds") int ttlSeconds);
+
+    @Modifying
+    @Query(value = "DELETE FROM scheduler_nodes WHERE heartbeat_at < now() - make_interval(secs => :olderThanSeconds)",
+           nativeQuery = true)
+    int deleteStale(@Param("olderThanSeconds") int olderThanSeconds);
+}
@@ -0,0 +1,63 @@
+package com.example.hotel_management.repository;
+
+import com.example.hotel_management.entity.SchedulerPartitionLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// Lease times come from the database clock, like the node heartbeats
+@Repository
+public interface SchedulerPartitionLeaseRepository extends JpaRepository<SchedulerPartitionLease, Integer> {
+
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_partition_leases (partition_id) " +
+                   "SELECT g FROM generate_series(0, :partitions - 1) g ON CONFLICT (partition_id) DO NOTHING",
+           nativeQuery = true)
+    int createPartitions(@Param("partitions") int partitions);
+
+    @Modifying
+    @Query(value = "UPDATE scheduler_partition_leases SET lease_until = now() + make_interval(secs => :ttlSeconds) " +
+                   "WHERE owner = :nodeId",
+           nativeQuery = true)
+    int renew(@Param("nodeId") String nodeId, @Param("ttlSeconds") int ttlSeconds);
+
+    /**
+     * Takes up to {@code limit} partitions that nobody holds or whose lease ran out.
+     * Rows another node is claiming at the same moment are skipped.
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_partition_leases " +
+                   "SET owner = :nodeId, lease_until = now() + make_interval(secs => :ttlSeconds) " +
+                   "WHERE partition_id IN (" +
+                   "    SELECT partition_id FROM scheduler_partition_leases " +
+                   "    WHERE partition_id < :partitions AND (owner IS NULL OR lease_until < now()) " +
+                   "    ORDER BY partition_id LIMIT :limit FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int claim(@Param("nodeId") String nodeId,
+              @Param("ttlSeconds") int ttlSeconds,
+              @Param("partitions") int partitions,
+              @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE scheduler_partition_leases SET owner = NULL, lease_until = NULL " +
+                   "WHERE partition_id IN (" +
+                   "    SELECT partition_id FROM scheduler_partition_leases WHERE owner = :nodeId " +
+                   "    ORDER BY partition_id DESC LIMIT :count)",
+           nativeQuery = true)
+    int release(@Param("nodeId") String nodeId, @Param("count") int count);
+
+    @Modifying
+    @Query(value = "UPDATE scheduler_partition_leases SET owner = NULL, lease_until = NULL WHERE owner = :nodeId",
+           nativeQuery = true)
+    int releaseAll(@Param("nodeId") String nodeId);
+
+    @Query(value = "SELECT partition_id FROM scheduler_partition_leases " +
+                   "WHERE owner = :nodeId AND lease_until > now() AND partition_id < :partitions " +
+                   "ORDER BY partition_id",
+           nativeQuery = true)
+    List<Integer> findOwned(@Param("nodeId") String nodeId, @Param("partitions") int partitions);
+}
@@ -1,6 +1,7 @@
 package com.example.hotel_management.repository;
 
 import com.example.hotel_management.entity.Subscription;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,6 +10,7 @@ import java.util.Optional;
 
 @Repository
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+    List<Subscription> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
     List<Subscription> findByUserId(Long userId);
     List<Subscription> findByHotelId(Long hotelId);
     Optional<Subscription> findByUserIdAndHotelId(Long userId, Long hotelId);
@@ -1,13 +1,16 @@
 package com.example.hotel_management.repository;
 
 import com.example.hotel_management.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     Optional<User> findByEmailAndActive(String email, boolean active);
@@ -0,0 +1,162 @@
+package com.example.hotel_management.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: {@code levels} wheels of {@code wheelSize} slots each, where a slot of level
+ * {@code l} spans {@code wheelSize^l} ticks. A timer goes into the lowest level whose span covers its delay and
+ * drops one level every time that level's slot comes round, so adding, cancelling and firing are O(1) no matter
+ * how many timers are pending. Timers further out than the top level can reach wait in an overflow list that is
+ * re-filed whenever the top level turns.
+ * <p>
+ * Not thread-safe; the owner serializes access.
+ */
+final class HierarchicalTimingWheel<T> {
+
+    private final int bitsPerLevel;
+    private final int mask;
+    private final int levels;
+    private final List<Timer<T>>[][] slots;
+    private final List<Timer<T>> overflow = new ArrayList<>();
+    // last tick that has been processed; timers due at or before it have fired
+    private long currentTick;
+    private int size;
+
+    static final class Timer<T> {
+        final T payload;
+        final long dueTick;
+        boolean cancelled;
+
+        private Timer(T payload, long dueTick) {
+            this.payload = payload;
+            this.dueTick = dueTick;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(int bitsPerLevel, int levels, long startTick) {
+        this.bitsPerLevel = bitsPerLevel;
+        this.mask = (1 << bitsPerLevel) - 1;
+        this.levels = levels;
+        this.slots = new List[levels][1 << bitsPerLevel];
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Adds a timer. A timer that is already due fires on the next {@link #advance}.
+     */
+    Timer<T> add(T payload, long dueTick) {
+        Timer<T> timer = new Timer<>(payload, Math.max(dueTick, currentTick + 1));
+        file(timer);
+        size++;
+        return timer;
+    }
+
+    void cancel(Timer<T> timer) {
+        if (!timer.cancelled) {
+            timer.cancelled = true;
+            size--;
+        }
+    }
+
+    /**
+     * Processes every tick up to and including {@code nowTick} and returns the payloads of the timers that fired,
+     * in due order.
+     */
+    List<T> advance(long nowTick) {
+        List<T> fired = new ArrayList<>();
+        while (currentTick < nowTick) {
+            long tick = ++currentTick;
+            // cascade from the top so a timer can fall through several levels in one tick
+            for (int level = levels - 1; level > 0; level--) {
+                if ((tick & ((1L << (bitsPerLevel * level)) - 1)) == 0) {
+                    cascade(level, (int) ((tick >>> (bitsPerLevel * level)) & mask));
+                }
+            }
+            if (!overflow.isEmpty() && (tick & ((1L << (bitsPerLevel * (levels - 1))) - 1)) == 0) {
+                refileOverflow();
+            }
+            List<Timer<T>> due = slots[0][(int) (tick & mask)];
+            if (due != null) {
+                slots[0][(int) (tick & mask)] = null;
+                for (Timer<T> timer : due) {
+                    if (!timer.cancelled) {
+                        timer.cancelled = true;
+                        size--;
+                        fired.add(timer.payload);
+                    }
+                }
+            }
+        }
+        return fired;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    // the number of ticks the whole wheel can look ahead
+    long span() {
+        return 1L << (bitsPerLevel * levels);
+    }
+
+    private void file(Timer<T> timer) {
+        long delay = timer.dueTick - currentTick;
+        for (int level = 0; level < levels; level++) {
+            if (delay < 1L << (bitsPerLevel * (level + 1))) {
+                int slot = (int) ((timer.dueTick >>> (bitsPerLevel * level)) & mask);
+                List<Timer<T>> bucket = slots[level][slot];
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    slots[level][slot] = bucket;
+                }
+                bucket.add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private void cascade(int level, int slot) {
+        List<Timer<T>> bucket = slots[level][slot];
+        if (bucket == null) {
+            return;
+        }
+        slots[level][slot] = null;
+        for (Timer<T> timer : bucket) {
+            if (!timer.cancelled) {
+                refile(timer);
+            }
+        }
+    }
+
+    private void refileOverflow() {
+        List<Timer<T>> waiting = new ArrayList<>(overflow);
+        overflow.clear();
+        for (Timer<T> timer : waiting) {
+            if (!timer.cancelled) {
+                refile(timer);
+            }
+        }
+    }
+
+    // a cascaded timer due on the current tick goes straight into this tick's level 0 slot
+    private void refile(Timer<T> timer) {
+        if (timer.dueTick <= currentTick) {
+            int slot = (int) (currentTick & mask);
+            List<Timer<T>> bucket = slots[0][slot];
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                slots[0][slot] = bucket;
+            }
+            bucket.add(timer);
+        } else {
+            file(timer);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.hotel_management.scheduling;
+
+import com.example.hotel_management.dto.SchedulerPartitionStatsDTO;
+import com.example.hotel_management.repository.SchedulerNodeRepository;
+import com.example.hotel_management.repository.SchedulerPartitionLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Splits scheduled reservation work across the running nodes. Hotels fall into a fixed number of partitions
+ * ({@code hotel_id % partitions}) and every node leases about {@code partitions / live nodes} of them through the
+ * scheduler_partition_leases table, renewing its leases on every heartbeat. When a node joins, the others release
+ * their surplus; when one stops, its node row and leases run out and the rest claim its partitions.
+ * <p>
+ * Leases spread the work rather than guarantee exclusivity: during a handover two nodes may briefly process the
+ * same partition, which is harmless because every transition re-checks the reservation's current status.
+ * With partitioning disabled this node owns everything.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionLeaseManager {
+
+    private final SchedulerNodeRepository nodeRepository;
+    private final SchedulerPartitionLeaseRepository leaseRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${scheduler.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${scheduler.partitioning.partitions:16}")
+    private int partitions;
+
+    @Value("${scheduler.partitioning.lease-seconds:30}")
+    private int leaseSeconds;
+
+    @Value("${scheduler.node-id:}")
+    private String configuredNodeId;
+
+    private String nodeId;
+    private volatile Set<Integer> owned = Set.of();
+    private volatile long liveNodes;
+    private volatile LocalDateTime lastHeartbeatAt;
+    private final LongAdder rebalances = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        nodeId = !configuredNodeId.isBlank() ? configuredNodeId : defaultNodeId();
+        if (!enabled) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                leaseRepository.createPartitions(partitions));
+        log.info("Scheduler node {} joining with {} partitions", nodeId, partitions);
+        heartbeat();
+    }
+
+    /**
+     * Renews this node's leases and moves its share towards {@code partitions / live nodes}.
+     */
+    @Scheduled(fixedDelayString = "${scheduler.partitioning.heartbeat-ms:10000}",
+               initialDelayString = "${scheduler.partitioning.heartbeat-ms:10000}")
+    public void heartbeat() {
+        if (!enabled || nodeId == null) {
+            return;
+        }
+        try {
+            List<Integer> current = new TransactionTemplate(transactionManager).execute(status -> {
+                nodeRepository.beat(nodeId);
+                leaseRepository.renew(nodeId, leaseSeconds);
+                liveNodes = Math.max(1, nodeRepository.countLive(leaseSeconds));
+                int share = (int) ((partitions + liveNodes - 1) / liveNodes);
+                int held = leaseRepository.findOwned(nodeId, partitions).size();
+                if (held > share) {
+                    leaseRepository.release(nodeId, held - share);
+                } else if (held < share) {
+                    leaseRepository.claim(nodeId, leaseSeconds, partitions, share - held);
+                }
+                // forget nodes that have been gone for a long time
+                nodeRepository.deleteStale(leaseSeconds * 100);
+                return leaseRepository.findOwned(nodeId, partitions);
+            });
+            lastHeartbeatAt = LocalDateTime.now();
+            updateOwned(new TreeSet<>(current));
+        } catch (RuntimeException e) {
+            // our leases may expire if this keeps failing; stop working on partitions we cannot vouch for
+            log.warn("Scheduler heartbeat for node {} failed: {}", nodeId, e.getMessage());
+            updateOwned(Set.of());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!enabled || nodeId == null) {
+            return;
+        }
+        try {
+            // hand partitions over now instead of waiting for the leases to run out
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                leaseRepository.releaseAll(nodeId);
+                nodeRepository.deleteById(nodeId);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not release scheduler partitions of node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private void updateOwned(Set<Integer> current) {
+        if (current.equals(owned)) {
+            return;
+        }
+        log.info("Scheduler node {} now owns partitions {} of {} ({} live nodes)", nodeId, current, partitions, liveNodes);
+        owned = Set.copyOf(current);
+        rebalances.increment();
+        eventPublisher.publishEvent(new PartitionOwnershipChangedEvent(owned));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Partition count to use in queries; 1 when partitioning is off, so everything is partition 0.
+     */
+    public int partitionCount() {
+        return enabled ? partitions : 1;
+    }
+
+    /**
+     * Partitions this node should process right now; all of them when partitioning is off.
+     */
+    public List<Integer> ownedPartitions() {
+        return enabled ? new ArrayList<>(new TreeSet<>(owned)) : List.of(0);
+    }
+
+    public boolean ownsHotel(Long hotelId) {
+        return !enabled || (hotelId != null && owned.contains((int) Math.floorMod(hotelId, (long) partitions)));
+    }
+
+    public SchedulerPartitionStatsDTO getStats() {
+        return SchedulerPartitionStatsDTO.builder()
+                .enabled(enabled)
+                .nodeId(nodeId)
+                .partitions(partitionCount())
+                .ownedPartitions(ownedPartitions())
+                .liveNodes(enabled ? liveNodes : 1)
+                .rebalances(rebalances.sum())
+                .lastHeartbeatAt(lastHeartbeatAt)
+                .build();
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        // a restarted process is a new node, its old leases simply expire
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.hotel_management.scheduling;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Published when this node gains or loses scheduler partitions.
+ */
+@Value
+public class PartitionOwnershipChangedEvent {
+    Set<Integer> owned;
+}
@@ -0,0 +1,248 @@
+package com.example.hotel_management.scheduling;
+
+import com.example.hotel_management.dto.ReservationIntervalDTO;
+import com.example.hotel_management.dto.TransitionTimerStatsDTO;
+import com.example.hotel_management.enums.ReservationStatus;
+import com.example.hotel_management.event.ReservationChangedEvent;
+import com.example.hotel_management.event.ReservationSnapshot;
+import com.example.hotel_management.repository.ReservationRepository;
+import com.example.hotel_management.service.ReservationService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fires check-in and check-out transitions when they fall due instead of waiting for the status job.
+ * <p>
+ * Every confirmed reservation gets a timer at its check-in time and every checked-in one at its check-out time,
+ * kept in a {@link HierarchicalTimingWheel} that a single thread advances once per tick. Timers are seeded at
+ * startup for the next {@code horizon-hours}, topped up periodically, and moved whenever a reservation changes.
+ * The scheduled status job remains as an infrequent safety sweep for anything missed, e.g. while restarting.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationTransitionTimers {
+
+    // 64 slots per level over 4 levels reach about 194 days at one-second ticks
+    private static final int BITS_PER_LEVEL = 6;
+    private static final int LEVELS = 4;
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationService reservationService;
+    private final PartitionLeaseManager partitionLeases;
+
+    @Value("${transitions.timers.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transitions.timers.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${transitions.timers.horizon-hours:48}")
+    private long horizonHours;
+
+    // guarded by this
+    private HierarchicalTimingWheel<Due> wheel;
+    private final Map<Long, HierarchicalTimingWheel.Timer<Due>> timersByReservation = new HashMap<>();
+    private ScheduledExecutorService ticker;
+
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalLatencyMillis = new LongAdder();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+    private volatile long lastLatencyMillis;
+    private volatile LocalDateTime lastFiredAt;
+    private volatile LocalDateTime lastRefillAt;
+
+    private static final class Due {
+        final Long reservationId;
+        final Long hotelId;
+        final long dueMillis;
+        final long scheduledAtMillis = System.currentTimeMillis();
+
+        Due(Long reservationId, Long hotelId, long dueMillis) {
+            this.reservationId = reservationId;
+            this.hotelId = hotelId;
+            this.dueMillis = dueMillis;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            wheel = new HierarchicalTimingWheel<>(BITS_PER_LEVEL, LEVELS, System.currentTimeMillis() / tickMillis);
+        }
+        refill();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-timers");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Schedules every transition due within the horizon that is not scheduled yet.
+     */
+    @Scheduled(fixedDelayString = "${transitions.timers.refill-interval-ms:600000}",
+               initialDelayString = "${transitions.timers.refill-interval-ms:600000}")
+    public void refill() {
+        if (!isRunning()) {
+            return;
+        }
+        List<ReservationIntervalDTO> upcoming =
+                reservationRepository.findTransitionsDueBefore(LocalDateTime.now().plusHours(horizonHours));
+        synchronized (this) {
+            upcoming.forEach(row -> schedule(row.getId(), row.getHotelId(), row.getStatus(),
+                    row.getCheckInTime(), row.getCheckOutTime()));
+        }
+        lastRefillAt = LocalDateTime.now();
+        log.debug("Reservation timers refilled from {} upcoming transitions", upcoming.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (!isRunning()) {
+            return;
+        }
+        ReservationSnapshot current = event.getCurrent();
+        synchronized (this) {
+            schedule(current.getId(), current.getHotelId(), current.getStatus(),
+                    current.getCheckInTime(), current.getCheckOutTime());
+        }
+    }
+
+    /**
+     * Drops timers of hotels this node no longer owns and picks up the transitions of newly owned ones.
+     */
+    @EventListener
+    public void onPartitionOwnershipChanged(PartitionOwnershipChangedEvent event) {
+        if (!isRunning()) {
+            return;
+        }
+        synchronized (this) {
+            timersByReservation.values().removeIf(timer -> {
+                if (partitionLeases.ownsHotel(timer.payload.hotelId)) {
+                    return false;
+                }
+                wheel.cancel(timer);
+                return true;
+            });
+        }
+        refill();
+    }
+
+    // caller holds the lock
+    private void schedule(Long reservationId, Long hotelId, ReservationStatus status,
+                          LocalDateTime checkIn, LocalDateTime checkOut) {
+        // hotels of other nodes' partitions are theirs to transition
+        LocalDateTime dueAt = !partitionLeases.ownsHotel(hotelId) ? null
+                : status == ReservationStatus.CONFIRMED ? checkIn
+                : status == ReservationStatus.CHECKED_IN ? checkOut
+                : null;
+        HierarchicalTimingWheel.Timer<Due> existing = timersByReservation.get(reservationId);
+        if (dueAt == null || dueAt.isAfter(LocalDateTime.now().plusHours(horizonHours))) {
+            if (existing != null) {
+                wheel.cancel(existing);
+                timersByReservation.remove(reservationId);
+            }
+            return;
+        }
+        long dueMillis = dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // the first tick strictly after the due time, since transitions need "now" to be past it
+        long dueTick = dueMillis / tickMillis + 1;
+        if (existing != null) {
+            if (existing.dueTick == dueTick) {
+                return;
+            }
+            wheel.cancel(existing);
+        }
+        timersByReservation.put(reservationId, wheel.add(new Due(reservationId, hotelId, dueMillis), dueTick));
+    }
+
+    private void tick() {
+        try {
+            List<Due> due;
+            synchronized (this) {
+                due = wheel.advance(System.currentTimeMillis() / tickMillis);
+                due.forEach(timer -> timersByReservation.remove(timer.reservationId));
+            }
+            due.forEach(this::fire);
+        } catch (RuntimeException e) {
+            // an exception would cancel the periodic task
+            log.error("Reservation timer tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void fire(Due timer) {
+        // transitions already overdue when scheduled (e.g. at startup) count from when they were scheduled
+        long latency = Math.max(0, System.currentTimeMillis() - Math.max(timer.dueMillis, timer.scheduledAtMillis));
+        fired.increment();
+        totalLatencyMillis.add(latency);
+        maxLatencyMillis.accumulateAndGet(latency, Math::max);
+        lastLatencyMillis = latency;
+        lastFiredAt = LocalDateTime.now();
+        try {
+            reservationService.updateReservationStatusBasedOnTime(timer.reservationId);
+        } catch (EntityNotFoundException e) {
+            // deleted since it was scheduled
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Status transition for reservation {} failed, the status job will retry: {}",
+                    timer.reservationId, e.getMessage());
+        }
+    }
+
+    private synchronized boolean isRunning() {
+        return wheel != null;
+    }
+
+    public TransitionTimerStatsDTO getStats() {
+        int pending;
+        synchronized (this) {
+            pending = wheel != null ? wheel.size() : 0;
+        }
+        long firedCount = fired.sum();
+        return TransitionTimerStatsDTO.builder()
+                .enabled(enabled)
+                .tickMillis(tickMillis)
+                .horizonHours(horizonHours)
+                .pendingTimers(pending)
+                .fired(firedCount)
+                .failed(failed.sum())
+                .averageFiringLatencyMillis(firedCount == 0 ? 0 : (double) totalLatencyMillis.sum() / firedCount)
+                .maxFiringLatencyMillis(maxLatencyMillis.get())
+                .lastFiringLatencyMillis(lastLatencyMillis)
+                .lastFiredAt(lastFiredAt)
+                .lastRefillAt(lastRefillAt)
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.hotel_management.service;
+
+import com.example.hotel_management.dto.StatsSeriesDTO;
+import com.example.hotel_management.event.ReservationChangedEvent;
+import com.example.hotel_management.event.RoomChangedEvent;
+
+import java.time.LocalDate;
+
+/**
+ * Service interface for the daily revenue and occupancy rollups.
+ * Changes queue the affected days in their own transaction; a background job recomputes them.
+ */
+public interface HotelRollupService {
+
+    /**
+     * Queues the nights of the previous and current stay when anything the rollups count changed.
+     * Runs in the caller's transaction.
+     *
+     * @param event The reservation change
+     */
+    void onReservationChanged(ReservationChangedEvent event);
+
+    /**
+     * Queues the whole hotel, since its room types or room counts may have changed.
+     *
+     * @param event The room change
+     */
+    void onRoomChanged(RoomChangedEvent event);
+
+    /**
+     * Recomputes the queued days of the hotels this node schedules for, committing once per hotel.
+     *
+     * @return The number of hotels whose rollups were rewritten
+     */
+    int refreshRollups();
+
+    /**
+     * Returns nights sold, revenue, ADR, occupancy and cancellations per period, read from the rollups.
+     *
+     * @param hotelId The hotel ID
+     * @param from First day of the series
+     * @param to Last day of the series, inclusive
+     * @param granularity day, week or month
+     * @param roomType Limit the series to one room type, or null for the whole hotel
+     * @return One point per period of the range, including empty ones
+     * @throws IllegalArgumentException if the range or granularity is invalid
+     */
+    StatsSeriesDTO getSeries(Long hotelId, LocalDate from, LocalDate to, String granularity, String roomType);
+}
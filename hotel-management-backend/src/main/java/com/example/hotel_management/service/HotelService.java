@@ -42,10 +42,12 @@ public interface HotelService {
     void deleteHotel(Long id);
 
     /**
-     * Retrieves all hotels
-     * @return List of all hotels
+     * Retrieves hotels with an ID greater than the given one, in ID order
+     * @param afterId Last ID of the previous page, 0 for the first page
+     * @param limit Maximum number of hotels
+     * @return Up to limit hotels
      */
-    List<HotelResponseDTO> getAllHotels();
+    List<HotelResponseDTO> getHotelsAfter(Long afterId, int limit);
 
     /**
      * Retrieves a hotel by ID
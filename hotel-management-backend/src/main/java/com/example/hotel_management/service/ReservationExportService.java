@@ -0,0 +1,27 @@
+package com.example.hotel_management.service;
+
+import com.example.hotel_management.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ReservationExportService {
+
+    /**
+     * Checks that a hotel exists before an export of it is started
+     *
+     * @param hotelId The ID of the hotel
+     * @throws jakarta.persistence.EntityNotFoundException if the hotel does not exist
+     */
+    void requireHotel(Long hotelId);
+
+    /**
+     * Writes every reservation of a hotel to the stream, one row at a time, in ID order
+     *
+     * @param hotelId The ID of the hotel
+     * @param format NDJSON (one JSON object per line) or CSV with a header row
+     * @param out Where the rows are written; left open
+     * @return Number of reservations written
+     */
+    long exportHotelReservations(Long hotelId, ExportFormat format, OutputStream out) throws IOException;
+}
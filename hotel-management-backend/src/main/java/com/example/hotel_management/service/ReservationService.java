@@ -1,7 +1,10 @@
 package com.example.hotel_management.service;
 
+import com.example.hotel_management.dto.GroupReservationResultDTO;
 import com.example.hotel_management.dto.ReservationDTO;
+import com.example.hotel_management.dto.StatusTransitionStatsDTO;
 import com.example.hotel_management.dto.HotelStatsDTO;
+import com.example.hotel_management.dto.PortfolioStatsDTO;
 import com.example.hotel_management.entity.Reservation;
 import com.example.hotel_management.enums.ReservationStatus;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +29,18 @@ public interface ReservationService {
      */
     ReservationDTO createReservation(Reservation reservation);
 
+    /**
+     * Creates a reservation for the stay a room hold keeps. The hold itself does not count against
+     * availability; every other hold and booking does.
+     *
+     * @param reservation The reservation to create
+     * @param holdId The ID of the hold being converted
+     * @return The created reservation with generated ID and calculated price
+     * @throws IllegalArgumentException if reservation dates are invalid
+     * @throws IllegalStateException if the room is not available
+     */
+    ReservationDTO createReservation(Reservation reservation, String holdId);
+
     /**
      * Updates an existing reservation.
      * Recalculates price if dates change and validates new data.
@@ -39,6 +54,18 @@ public interface ReservationService {
      */
     ReservationDTO updateReservation(Long id, Reservation reservation);
 
+    /**
+     * Books several rooms at once, all or nothing.
+     * Every item is checked against existing stays with one query, priced in one pass,
+     * and inserted with one JDBC batch in a single transaction.
+     *
+     * @param reservations The stays to book; each needs a room, dates, guest and creator
+     * @return The outcome of every item; nothing is written unless all of them can be booked
+     * @throws IllegalArgumentException if the group is empty or too large
+     * @throws IllegalStateException if a concurrent booking took one of the rooms during the insert
+     */
+    GroupReservationResultDTO createReservations(List<Reservation> reservations);
+
     /**
      * Retrieves a reservation by its ID.
      *
@@ -49,11 +76,13 @@ public interface ReservationService {
     ReservationDTO getReservationById(Long id);
 
     /**
-     * Retrieves all reservations in the system.
+     * Retrieves reservations with an ID greater than the given one, in ID order.
      *
-     * @return List of all reservations
+     * @param afterId Last ID of the previous page, 0 for the first page
+     * @param limit Maximum number of reservations
+     * @return Up to limit reservations
      */
-    List<ReservationDTO> getAllReservations();
+    List<ReservationDTO> getReservationsAfter(Long afterId, int limit);
 
     /**
      * Retrieves all reservations for a specific guest.
@@ -93,17 +122,24 @@ public interface ReservationService {
      * Updates the status of a reservation based on its check-in and check-out times.
      * Changes status to CHECKED_IN if check-in time has passed and status is CONFIRMED.
      * Changes status to CHECKED_OUT if check-out time has passed and status is CHECKED_IN.
+     * The status is checked in the update itself, so a concurrent cancel or status change wins.
      *
      * @param id The ID of the reservation to update
+     * @throws EntityNotFoundException if reservation not found
      */
     void updateReservationStatusBasedOnTime(Long id);
 
     /**
      * Updates the status of all reservations based on their check-in and check-out times.
-     * This method is scheduled to run periodically.
+     * This method is scheduled to run periodically and commits in chunks.
      */
     void updateReservationStatuses();
 
+    /**
+     * Returns counters of the scheduled status job: rows transitioned, chunk latency and lag behind the clock.
+     */
+    StatusTransitionStatsDTO getStatusTransitionStats();
+
     /**
      * Cancels a reservation.
      * Sets the reservation status to CANCELLED.
@@ -126,4 +162,12 @@ public interface ReservationService {
      * @return HotelStatsDTO containing various statistics
      */
     HotelStatsDTO getHotelStats(Long hotelId);
+
+    /**
+     * Get the statistics of every hotel an admin manages, each on its own and summed up
+     *
+     * @param adminId The ID of the admin user
+     * @return PortfolioStatsDTO with per-hotel and total statistics
+     */
+    PortfolioStatsDTO getPortfolioStats(Long adminId);
 }
@@ -0,0 +1,53 @@
+package com.example.hotel_management.service;
+
+import com.example.hotel_management.dto.ReservationDTO;
+import com.example.hotel_management.dto.RoomHoldDTO;
+import com.example.hotel_management.entity.Reservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Service interface for short-lived room holds taken while a guest completes checkout.
+ * Holds are kept in memory and expire on their own; only a confirmed hold becomes a reservation.
+ */
+public interface RoomHoldService {
+
+    /**
+     * Holds a room for a stay.
+     *
+     * @param roomId The room to hold
+     * @param checkIn Check-in time of the stay
+     * @param checkOut Check-out time of the stay
+     * @return The hold, including when it expires
+     * @throws EntityNotFoundException if the room does not exist
+     * @throws IllegalArgumentException if the dates are invalid
+     * @throws IllegalStateException if the room is booked or held for any part of the stay
+     */
+    RoomHoldDTO placeHold(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut);
+
+    /**
+     * Returns a live hold.
+     *
+     * @throws EntityNotFoundException if the hold does not exist, has expired or belongs to another room
+     */
+    RoomHoldDTO getHold(Long roomId, String holdId);
+
+    /**
+     * Turns a hold into a reservation for the held room and dates.
+     * If the reservation cannot be created the hold is kept until it expires.
+     *
+     * @param roomId The held room
+     * @param holdId The hold to confirm
+     * @param reservation Guest and creator of the reservation; room and dates are taken from the hold
+     * @return The created reservation
+     * @throws EntityNotFoundException if the hold does not exist, has expired or belongs to another room
+     */
+    ReservationDTO confirmHold(Long roomId, String holdId, Reservation reservation);
+
+    /**
+     * Releases a hold before it expires.
+     *
+     * @throws EntityNotFoundException if the hold does not exist, has expired or belongs to another room
+     */
+    void releaseHold(Long roomId, String holdId);
+}
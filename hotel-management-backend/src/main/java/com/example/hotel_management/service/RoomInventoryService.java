@@ -0,0 +1,64 @@
+package com.example.hotel_management.service;
+
+import com.example.hotel_management.dto.InventoryRebuildReportDTO;
+import com.example.hotel_management.dto.RoomTypeInventoryDTO;
+import com.example.hotel_management.event.ReservationChangedEvent;
+
+import java.time.LocalDate;
+
+/**
+ * Service interface for the per night room type inventory counters.
+ * Counters are updated in the transaction of every reservation write and can be recomputed from the reservations.
+ */
+public interface RoomInventoryService {
+
+    /**
+     * Returns how many rooms of a type are left for every night of [checkIn, checkOut).
+     *
+     * @param hotelId The hotel ID
+     * @param roomType The room type (room name)
+     * @param checkIn First night of the stay
+     * @param checkOut Check-out date, not itself a night of the stay
+     * @return Total rooms of the type, the most sold on any of the nights, and what remains
+     * @throws IllegalArgumentException if the dates are missing or not in order
+     */
+    RoomTypeInventoryDTO getInventory(Long hotelId, String roomType, LocalDate checkIn, LocalDate checkOut);
+
+    /**
+     * Moves the sold counters from the previous state of the reservation to the current one.
+     * Runs in the caller's transaction.
+     *
+     * @param event The reservation change
+     */
+    void onReservationChanged(ReservationChangedEvent event);
+
+    /**
+     * Recounts the number of rooms of a type after rooms were added to a hotel.
+     *
+     * @param hotelId The hotel ID
+     * @param roomType The room type (room name)
+     */
+    void refreshTotals(Long hotelId, String roomType);
+
+    /**
+     * Compares the counters with the reservations and rewrites the rows that drifted. Only those rows are locked.
+     *
+     * @param hotelId Limit the check to one hotel, or null for all hotels
+     * @return What was found and whether the counters were rewritten
+     */
+    InventoryRebuildReportDTO verifyAndRepair(Long hotelId);
+
+    /**
+     * Nightly check of every hotel's counters; logs and repairs any drift.
+     */
+    void verifyAll();
+
+    /**
+     * Brings the counters of one room type in line with its rooms and reservations, e.g. after a room moved
+     * to another type or was removed. Runs in the caller's transaction and locks only that type's rows.
+     *
+     * @param hotelId The hotel ID
+     * @param roomType The room type (room name)
+     */
+    void recount(Long hotelId, String roomType);
+}
@@ -2,10 +2,13 @@ package com.example.hotel_management.service;
 
 import com.example.hotel_management.entity.Room;
 import com.example.hotel_management.enums.RoomStatus;
+import org.springframework.data.domain.Sort;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.io.InputStream;
 
 public interface RoomService {
     /**
@@ -37,10 +40,12 @@ public interface RoomService {
     Room getRoomById(Long id);
 
     /**
-     * Retrieves all rooms
-     * @return List of all rooms
+     * Retrieves rooms with an ID greater than the given one, in ID order
+     * @param afterId Last ID of the previous page, 0 for the first page
+     * @param limit Maximum number of rooms
+     * @return Up to limit rooms
      */
-    List<Room> getAllRooms();
+    List<Room> getRoomsAfter(Long afterId, int limit);
 
     /**
      * Retrieves all rooms for a specific hotel
@@ -50,11 +55,19 @@ public interface RoomService {
     List<Room> getRoomsByHotelId(Long hotelId);
 
     /**
-     * Retrieves available rooms for a specific hotel
+     * Retrieves the rooms of a hotel that are free for the whole stay, using a single query.
+     * Rooms under maintenance are never returned.
      * @param hotelId Hotel ID
-     * @return List of available rooms
+     * @param checkIn Start of the stay
+     * @param checkOut End of the stay
+     * @param minPrice Optional minimum price, must be given together with maxPrice
+     * @param maxPrice Optional maximum price, must be given together with minPrice
+     * @param sort Ordering by price, number or name
+     * @return List of rooms available for the stay
+     * @throws IllegalArgumentException if the dates, price range or sort are invalid
      */
-    List<Room> getAvailableRoomsByHotel(Long hotelId);
+    List<Room> getAvailableRoomsByHotel(Long hotelId, LocalDateTime checkIn, LocalDateTime checkOut,
+                                        BigDecimal minPrice, BigDecimal maxPrice, Sort sort);
 
     /**
      * Retrieves rooms within a price range for a specific hotel
@@ -96,11 +109,12 @@ public interface RoomService {
      * @param status New room status
      * @return Updated room
      * @throws EntityNotFoundException if room not found
+     * @throws IllegalArgumentException if occupancy is derived and status is OCCUPIED
      */
     Room updateRoomStatus(Long id, RoomStatus status);
 
     /**
-     * Updates room status by reservation status
+     * Updates room status by reservation status; a no-op when occupancy is derived from the reservations
      * @param id Room ID
      * @param reservationStatus New reservation status
      * @return Updated room
@@ -123,4 +137,18 @@ public interface RoomService {
      * @throws IOException if an I/O error occurs
      */
     Room uploadPicture(Long id, MultipartFile picture) throws IOException;
+
+    /**
+     * Uploads a picture for a room from a raw request body, streaming it into the blob store
+     * @param id Room ID
+     * @param contentType Declared content type of the picture
+     * @param contentLength Declared length in bytes, or -1 if unknown
+     * @param content Picture content, read to the end but not closed
+     * @return Updated room
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the picture is not of an allowed image type
+     * @throws org.springframework.web.multipart.MaxUploadSizeExceededException if the picture is too large
+     * @throws java.util.concurrent.RejectedExecutionException if too many uploads are in progress
+     */
+    Room uploadPicture(Long id, String contentType, long contentLength, InputStream content) throws IOException;
 }
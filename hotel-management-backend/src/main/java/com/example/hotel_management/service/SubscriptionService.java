@@ -7,7 +7,7 @@ public interface SubscriptionService {
     Subscription createSubscription(Subscription subscription);
     Subscription updateSubscription(Long id, Subscription subscription);
     Subscription getSubscriptionById(Long id);
-    List<Subscription> getAllSubscriptions();
+    List<Subscription> getSubscriptionsAfter(Long afterId, int limit);
     List<Subscription> getSubscriptionsByUserId(Long userId);
     List<Subscription> getSubscriptionsByHotelId(Long hotelId);
     void deleteSubscription(Long id);
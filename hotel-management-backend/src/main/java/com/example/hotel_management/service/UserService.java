@@ -9,7 +9,7 @@ public interface UserService {
     User getUserById(Long id);
     User getUserByEmail(String email);
     User getUserByEmailAndActive(String email, boolean active);
-    List<User> getAllUsers();
+    List<User> getUsersAfter(Long afterId, int limit);
     void deleteUser(Long id);
     boolean existsByEmail(String email);
     void activateUser(Long id);
@@ -0,0 +1,284 @@
+package com.example.hotel_management.service.impl;
+
+import com.example.hotel_management.dto.StatsSeriesDTO;
+import com.example.hotel_management.enums.ReservationStatus;
+import com.example.hotel_management.event.ReservationChangedEvent;
+import com.example.hotel_management.event.ReservationSnapshot;
+import com.example.hotel_management.event.RoomChangedEvent;
+import com.example.hotel_management.repository.HotelDailyRollupRepository;
+import com.example.hotel_management.repository.RoomRepository;
+import com.example.hotel_management.scheduling.PartitionLeaseManager;
+import com.example.hotel_management.service.HotelRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class HotelRollupServiceImpl implements HotelRollupService {
+
+    private static final Set<String> GRANULARITIES = Set.of("day", "week", "month");
+    // a little over ten years of daily points
+    private static final long MAX_SERIES_DAYS = 3700;
+
+    private final HotelDailyRollupRepository rollupRepository;
+    private final RoomRepository roomRepository;
+    private final PartitionLeaseManager partitionLeases;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${stats.rollup.batch-hotels:100}")
+    private int batchHotels;
+
+    @Value("${stats.rollup.batch-ranges:1000}")
+    private int batchRanges;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int queued = rollupRepository.queueAllHotelsIfEmpty();
+        if (queued > 0) {
+            log.info("Hotel rollups are empty, queued {} hotels for a backfill", queued);
+        }
+    }
+
+    @Override
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationSnapshot previous = event.getPrevious();
+        ReservationSnapshot current = event.getCurrent();
+        if (previous != null && !changesRollups(previous, current)) {
+            return; // e.g. CONFIRMED -> CHECKED_IN: same nights, same price
+        }
+        if (previous != null && !Objects.equals(previous.getHotelId(), current.getHotelId())) {
+            markNights(previous, previous);
+            markNights(current, current);
+        } else {
+            markNights(previous != null ? previous : current, current);
+        }
+    }
+
+    @Override
+    @EventListener
+    public void onRoomChanged(RoomChangedEvent event) {
+        if (event.getHotelId() != null) {
+            rollupRepository.markDirty(event.getHotelId(), null, null);
+        }
+    }
+
+    private static boolean changesRollups(ReservationSnapshot previous, ReservationSnapshot current) {
+        boolean wasCancelled = previous.getStatus() == ReservationStatus.CANCELLED;
+        boolean isCancelled = current.getStatus() == ReservationStatus.CANCELLED;
+        return wasCancelled != isCancelled
+                || !Objects.equals(previous.getRoomId(), current.getRoomId())
+                || !Objects.equals(previous.getCheckInTime(), current.getCheckInTime())
+                || !Objects.equals(previous.getCheckOutTime(), current.getCheckOutTime())
+                || !sameAmount(previous.getTotalPrice(), current.getTotalPrice());
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    // queues every night of both stays as one range
+    private void markNights(ReservationSnapshot first, ReservationSnapshot second) {
+        if (second.getHotelId() == null || first.getCheckInTime() == null || second.getCheckInTime() == null) {
+            return;
+        }
+        LocalDate from = min(first.getCheckInTime().toLocalDate(), second.getCheckInTime().toLocalDate());
+        LocalDate to = max(lastNight(first), lastNight(second));
+        rollupRepository.markDirty(second.getHotelId(), from, to);
+    }
+
+    private static LocalDate lastNight(ReservationSnapshot stay) {
+        LocalDate checkIn = stay.getCheckInTime().toLocalDate();
+        LocalDate checkOut = stay.getCheckOutTime() != null ? stay.getCheckOutTime().toLocalDate() : checkIn;
+        return max(checkOut, checkIn.plusDays(1)).minusDays(1);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${stats.rollup.interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int refreshRollups() {
+        List<Integer> owned = partitionLeases.ownedPartitions();
+        if (owned.isEmpty()) {
+            return 0;
+        }
+
+        long started = System.currentTimeMillis();
+        int hotels = 0;
+        int rows = 0;
+        List<Long> hotelIds;
+        int refreshed;
+        do {
+            hotelIds = rollupRepository.findDirtyHotelIds(partitions(), owned, batchHotels);
+            refreshed = 0;
+            for (Long hotelId : hotelIds) {
+                // claimed and rewritten in one transaction per hotel: a failure puts its ranges back and
+                // keeps no other hotel waiting on its locks
+                Integer written = new TransactionTemplate(transactionManager)
+                        .execute(status -> refreshHotel(hotelId));
+                if (written != null) {
+                    refreshed++;
+                    rows += written;
+                }
+            }
+            hotels += refreshed;
+            // a full batch means more may be queued; stop once a batch is all ranges other nodes hold
+        } while (hotelIds.size() == batchHotels && refreshed > 0);
+        if (hotels > 0) {
+            log.debug("Rewrote {} rollup rows for {} hotels in {} ms",
+                    rows, hotels, System.currentTimeMillis() - started);
+        }
+        return hotels;
+    }
+
+    // rewrites one range covering everything claimed for the hotel, or returns null if another node got there first
+    private Integer refreshHotel(Long hotelId) {
+        List<Object[]> claimed = rollupRepository.claimDirtyRanges(hotelId, batchRanges);
+        if (claimed.isEmpty()) {
+            return null;
+        }
+        // null days mean the whole hotel
+        LocalDate from = toLocalDate(claimed.get(0)[0]);
+        LocalDate to = toLocalDate(claimed.get(0)[1]);
+        for (Object[] row : claimed) {
+            if (from == null || row[0] == null) {
+                from = null;
+                to = null;
+                break;
+            }
+            from = min(from, toLocalDate(row[0]));
+            to = max(to, toLocalDate(row[1]));
+        }
+        return rewrite(hotelId, from, to);
+    }
+
+    private int rewrite(Long hotelId, LocalDate from, LocalDate to) {
+        if (from == null) {
+            rollupRepository.deleteRollups(hotelId, null, null);
+            List<Object[]> span = rollupRepository.findStaySpan(hotelId);
+            if (span.isEmpty() || span.get(0)[0] == null) {
+                return 0;
+            }
+            from = toLocalDate(span.get(0)[0]);
+            to = toLocalDate(span.get(0)[1]);
+        } else {
+            rollupRepository.deleteRollups(hotelId, from, to);
+        }
+        return rollupRepository.insertRollups(hotelId, from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StatsSeriesDTO getSeries(Long hotelId, LocalDate from, LocalDate to, String granularity, String roomType) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("From and to dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("To date must not be before from date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_SERIES_DAYS) {
+            throw new IllegalArgumentException("Series cannot span more than " + MAX_SERIES_DAYS + " days");
+        }
+        String unit = granularity == null ? "day" : granularity.toLowerCase();
+        if (!GRANULARITIES.contains(unit)) {
+            throw new IllegalArgumentException("Granularity must be one of day, week or month");
+        }
+        String type = roomType == null || roomType.isBlank() ? null : roomType;
+
+        long rooms = type == null
+                ? roomRepository.countByHotelId(hotelId)
+                : roomRepository.countByHotelIdAndName(hotelId, type);
+        Map<LocalDate, Object[]> sums = new HashMap<>();
+        for (Object[] row : rollupRepository.sumByPeriod(hotelId, from, to, unit, type)) {
+            sums.put(toLocalDate(row[0]), row);
+        }
+
+        List<StatsSeriesDTO.PointDTO> points = new ArrayList<>();
+        for (LocalDate period = periodStart(from, unit); !period.isAfter(to); period = nextPeriod(period, unit)) {
+            LocalDate first = max(period, from);
+            LocalDate last = min(nextPeriod(period, unit).minusDays(1), to);
+            Object[] sum = sums.get(period);
+            long nightsSold = sum != null ? ((Number) sum[1]).longValue() : 0;
+            BigDecimal revenue = sum != null ? new BigDecimal(sum[2].toString()) : BigDecimal.ZERO;
+            long available = rooms * (ChronoUnit.DAYS.between(first, last) + 1);
+            points.add(StatsSeriesDTO.PointDTO.builder()
+                    .periodStart(first)
+                    .nightsSold(nightsSold)
+                    .roomNightsAvailable(available)
+                    .revenue(revenue.setScale(2, RoundingMode.HALF_UP))
+                    .adr(nightsSold == 0 ? BigDecimal.ZERO
+                            : revenue.divide(BigDecimal.valueOf(nightsSold), 2, RoundingMode.HALF_UP))
+                    .occupancy(available == 0 ? 0 : (double) nightsSold / available)
+                    .cancellations(sum != null ? ((Number) sum[3]).longValue() : 0)
+                    .build());
+        }
+
+        return StatsSeriesDTO.builder()
+                .hotelId(hotelId)
+                .roomType(type)
+                .from(from)
+                .to(to)
+                .granularity(unit)
+                .points(points)
+                .build();
+    }
+
+    private int partitions() {
+        return partitionLeases.partitionCount();
+    }
+
+    private static LocalDate periodStart(LocalDate day, String unit) {
+        return switch (unit) {
+            case "week" -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "month" -> day.withDayOfMonth(1);
+            default -> day;
+        };
+    }
+
+    private static LocalDate nextPeriod(LocalDate periodStart, String unit) {
+        return switch (unit) {
+            case "week" -> periodStart.plusWeeks(1);
+            case "month" -> periodStart.plusMonths(1);
+            default -> periodStart.plusDays(1);
+        };
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -1,15 +1,27 @@
 package com.example.hotel_management.service.impl;
 
+import com.example.hotel_management.dto.CursorPageDTO;
 import com.example.hotel_management.dto.HotelResponseDTO;
 import com.example.hotel_management.entity.Hotel;
+import com.example.hotel_management.entity.Picture;
+import com.example.hotel_management.event.PictureStoredEvent;
 import com.example.hotel_management.repository.HotelRepository;
 import com.example.hotel_management.service.HotelService;
+import com.example.hotel_management.storage.BlobStore;
+import com.example.hotel_management.storage.DataUrl;
+import com.example.hotel_management.storage.StoredBlob;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,6 +32,8 @@ import java.util.stream.Collectors;
 public class HotelServiceImpl implements HotelService {
 
     private final HotelRepository hotelRepository;
+    private final BlobStore blobStore;
+    private final ApplicationEventPublisher eventPublisher;
 
     private HotelResponseDTO convertToDTO(Hotel hotel) {
         if (hotel == null) {
@@ -45,6 +59,35 @@ public class HotelServiceImpl implements HotelService {
         return dto;
     }
 
+    /**
+     * Moves pictures sent as base64 data: URLs into the blob store and queues variants for every stored picture.
+     * External links and data: URLs that do not decode are kept as they are.
+     */
+    private List<String> storePictures(List<String> pictures) {
+        if (pictures == null) {
+            return null;
+        }
+        List<String> stored = new ArrayList<>(pictures.size());
+        for (String picture : pictures) {
+            String url = DataUrl.parse(picture)
+                    .map(dataUrl -> Picture.BLOB_PATH + put(dataUrl.content()).hash())
+                    .orElse(picture);
+            if (url != null && url.startsWith(Picture.BLOB_PATH)) {
+                eventPublisher.publishEvent(new PictureStoredEvent(url.substring(Picture.BLOB_PATH.length())));
+            }
+            stored.add(url);
+        }
+        return stored;
+    }
+
+    private StoredBlob put(byte[] content) {
+        try {
+            return blobStore.put(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store hotel picture", e);
+        }
+    }
+
     private void validateHotelData(Hotel hotel) {
         if (hotel.getName() == null || hotel.getName().trim().isEmpty()) {
             throw new IllegalArgumentException("Hotel name cannot be empty");
@@ -68,6 +111,7 @@ public class HotelServiceImpl implements HotelService {
         if (hotel.getTotalReviews() == null) hotel.setTotalReviews(0);
         
         validateHotelData(hotel);
+        hotel.setPictures(storePictures(hotel.getPictures()));
         
         Hotel savedHotel = hotelRepository.save(hotel);
         log.info("Created new hotel with ID: {}", savedHotel.getId());
@@ -103,7 +147,7 @@ public class HotelServiceImpl implements HotelService {
         existingHotel.setEmail(hotel.getEmail());
         existingHotel.setStarRating(hotel.getStarRating());
         existingHotel.setAmenities(hotel.getAmenities());
-        existingHotel.setPictures(hotel.getPictures());
+        existingHotel.setPictures(storePictures(hotel.getPictures()));
         
         Hotel updatedHotel = hotelRepository.save(existingHotel);
         log.info("Updated hotel with ID: {}", updatedHotel.getId());
@@ -129,24 +173,18 @@ public class HotelServiceImpl implements HotelService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<HotelResponseDTO> getAllHotels() {
-        try {
-            List<Hotel> hotels = hotelRepository.findAll();
-            log.debug("Retrieved {} hotels from database", hotels.size());
-            return hotels.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        } catch (Exception e) {
-            log.error("Error fetching all hotels: {}", e.getMessage(), e);
-            throw new RuntimeException("Error fetching hotels: " + e.getMessage(), e);
-        }
+    public List<HotelResponseDTO> getHotelsAfter(Long afterId, int limit) {
+        return hotelRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)).stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<HotelResponseDTO> searchHotels(String keyword) {
         if (keyword == null || keyword.trim().isEmpty()) {
-            return getAllHotels();
+            // no keyword lists the first hotels, never the whole table
+            return getHotelsAfter(0L, CursorPageDTO.DEFAULT_LIMIT);
         }
         String searchTerm = keyword.trim();
         List<Hotel> hotels = hotelRepository.findByNameContainingIgnoreCaseOrAddressContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
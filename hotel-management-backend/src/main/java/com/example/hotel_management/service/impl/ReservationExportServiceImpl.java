@@ -0,0 +1,103 @@
+package com.example.hotel_management.service.impl;
+
+import com.example.hotel_management.dto.ReservationExportDTO;
+import com.example.hotel_management.enums.ExportFormat;
+import com.example.hotel_management.repository.HotelRepository;
+import com.example.hotel_management.repository.ReservationRepository;
+import com.example.hotel_management.service.ReservationExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a hotel's reservations straight from a database cursor to the response. Rows are read as flat
+ * projections, so nothing piles up in the persistence context, and each row is written before the next is
+ * fetched; memory stays flat however many reservations the hotel has.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationExportServiceImpl implements ReservationExportService {
+
+    private static final String CSV_HEADER = "id,hotelId,roomId,roomNumber,roomType,guestId,guestFirstName," +
+            "guestLastName,guestEmail,checkInTime,checkOutTime,status,totalPrice,specialRequests,createdAt,updatedAt";
+
+    private final ReservationRepository reservationRepository;
+    private final HotelRepository hotelRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void requireHotel(Long hotelId) {
+        if (!hotelRepository.existsById(hotelId)) {
+            throw new EntityNotFoundException("Hotel not found with id: " + hotelId);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportHotelReservations(Long hotelId, ExportFormat format, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter json = objectMapper.writerFor(ReservationExportDTO.class);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        // the cursor needs the transaction: PostgreSQL only honours the fetch size outside auto-commit
+        try (Stream<ReservationExportDTO> reservations = reservationRepository.streamExportByHotelId(hotelId)) {
+            Iterator<ReservationExportDTO> iterator = reservations.iterator();
+            while (iterator.hasNext()) {
+                ReservationExportDTO row = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(json.writeValueAsString(row));
+                }
+                writer.write('\n');
+                rows++;
+            }
+        }
+        writer.flush();
+        log.info("Exported {} reservations of hotel {} as {} in {} ms",
+                rows, hotelId, format, System.currentTimeMillis() - started);
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, ReservationExportDTO row) throws IOException {
+        Object[] values = {row.getId(), row.getHotelId(), row.getRoomId(), row.getRoomNumber(), row.getRoomType(),
+                row.getGuestId(), row.getGuestFirstName(), row.getGuestLastName(), row.getGuestEmail(),
+                row.getCheckInTime(), row.getCheckOutTime(), row.getStatus(),
+                row.getTotalPrice() != null ? row.getTotalPrice().toPlainString() : null,
+                row.getSpecialRequests(), row.getCreatedAt(), row.getUpdatedAt()};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvField(values[i].toString()));
+            }
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,5 +1,10 @@
 package com.example.hotel_management.service.impl;
 
+import com.example.hotel_management.availability.RoomAvailabilityIndex;
+import com.example.hotel_management.availability.RoomHoldStore;
+import com.example.hotel_management.availability.RoomOccupancyView;
+import com.example.hotel_management.entity.Hotel;
+import com.example.hotel_management.entity.Picture;
 import com.example.hotel_management.entity.Reservation;
 import com.example.hotel_management.entity.Room;
 import com.example.hotel_management.enums.ReservationStatus;
@@ -7,19 +12,55 @@ import com.example.hotel_management.enums.RoomStatus;
 import com.example.hotel_management.enums.UserRole;
 import com.example.hotel_management.repository.ReservationRepository;
 import com.example.hotel_management.repository.RoomRepository;
+import com.example.hotel_management.scheduling.PartitionLeaseManager;
+import com.example.hotel_management.stats.HotelDashboardStats;
+import com.example.hotel_management.stats.HotelStatsQueryCache;
+import com.example.hotel_management.stats.PortfolioStats;
+import com.example.hotel_management.storage.PictureVariantView;
 import com.example.hotel_management.service.ReservationService;
+import com.example.hotel_management.dto.GroupReservationResultDTO;
 import com.example.hotel_management.dto.ReservationDTO;
+import com.example.hotel_management.dto.ReservationIntervalDTO;
+import com.example.hotel_management.dto.ReservationRowDTO;
+import com.example.hotel_management.dto.RoomDTO;
+import com.example.hotel_management.dto.RoomRateDTO;
+import com.example.hotel_management.dto.StatusTransitionStatsDTO;
 import com.example.hotel_management.dto.HotelStatsDTO;
+import com.example.hotel_management.dto.PortfolioStatsDTO;
+import com.example.hotel_management.event.ReservationChangedEvent;
+import com.example.hotel_management.event.ReservationSnapshot;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.math.BigDecimal;
 import java.util.stream.Collectors;
 
@@ -28,17 +69,62 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ReservationServiceImpl implements ReservationService {
 
+    // SQLSTATE raised by the reservations_no_overlapping_stays exclusion constraint
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private static final int MAX_GROUP_SIZE = 200;
+
+    private static final String INSERT_RESERVATION_SQL =
+        "INSERT INTO reservations (room_id, hotel_id, guest_id, created_by_id, check_in_time, check_out_time, " +
+        "total_price, special_requests, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final ReservationRepository reservationRepository;
     private final RoomRepository roomRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomHoldStore holdStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final PartitionLeaseManager partitionLeases;
+    private final RoomOccupancyView occupancyView;
+    private final HotelDashboardStats hotelDashboardStats;
+    private final HotelStatsQueryCache hotelStatsQueryCache;
+    private final PortfolioStats portfolioStats;
+    private final PictureVariantView pictureVariants;
+
+    // "counters" serves dashboards from event-maintained aggregates, "query" from one cached query per hotel
+    @Value("${hotel-stats.mode:counters}")
+    private String hotelStatsMode;
+
+    @Value("${reservations.status-job.chunk-size:500}")
+    private int statusJobChunkSize;
+
+    // Status job metrics
+    private final LongAdder statusJobRuns = new LongAdder();
+    private final LongAdder statusJobCheckedIn = new LongAdder();
+    private final LongAdder statusJobCheckedOut = new LongAdder();
+    private final LongAdder statusJobChunks = new LongAdder();
+    private final LongAdder statusJobChunkMillis = new LongAdder();
+    private final AtomicLong statusJobMaxChunkMillis = new AtomicLong();
+    private final AtomicLong statusJobMaxLagSeconds = new AtomicLong();
+    private volatile long statusJobLastChunkMillis;
+    private volatile long statusJobLastLagSeconds;
+    private volatile LocalDateTime statusJobLastRunAt;
+    private volatile long statusJobLastRunMillis;
 
     @Override
     public ReservationDTO createReservation(Reservation reservation) {
+        return createReservation(reservation, null);
+    }
+
+    @Override
+    public ReservationDTO createReservation(Reservation reservation, String holdId) {
         validateReservation(reservation);
         
         Room room = roomRepository.findById(reservation.getRoom().getId())
             .orElseThrow(() -> new EntityNotFoundException("Room not found"));
             
-        if (!isRoomAvailable(room.getId(), reservation.getCheckInTime(), reservation.getCheckOutTime())) {
+        if (!isRoomAvailable(room.getId(), reservation.getCheckInTime(), reservation.getCheckOutTime(), null, holdId)) {
             throw new IllegalStateException("Room is not available for the selected dates");
         }
 
@@ -53,12 +139,15 @@ public class ReservationServiceImpl implements ReservationService {
         reservation.setCreatedAt(LocalDateTime.now());
         reservation.setUpdatedAt(LocalDateTime.now());
         
-        return ReservationDTO.fromEntity(reservationRepository.save(reservation));
+        Reservation savedReservation = saveStay(reservation, "Room is not available for the selected dates");
+        publishChange(null, savedReservation);
+        return ReservationDTO.fromEntity(savedReservation);
     }
 
     @Override
     public ReservationDTO updateReservation(Long id, Reservation updatedReservation) {
         Reservation existingReservation = getReservationEntityById(id);
+        ReservationSnapshot previous = ReservationSnapshot.of(existingReservation);
         
         validateReservation(updatedReservation);
         
@@ -68,7 +157,7 @@ public class ReservationServiceImpl implements ReservationService {
             if (!isRoomAvailable(existingReservation.getRoom().getId(), 
                                updatedReservation.getCheckInTime(), 
                                updatedReservation.getCheckOutTime(), 
-                               id)) {
+                               id, null)) {
                 throw new IllegalStateException("Room is not available for the updated dates");
             }
             
@@ -94,7 +183,193 @@ public class ReservationServiceImpl implements ReservationService {
         
         existingReservation.setUpdatedAt(LocalDateTime.now());
         
-        return ReservationDTO.fromEntity(reservationRepository.save(existingReservation));
+        Reservation savedReservation = saveStay(existingReservation, "Room is not available for the updated dates");
+        publishChange(previous, savedReservation);
+        return ReservationDTO.fromEntity(savedReservation);
+    }
+
+    @Override
+    public GroupReservationResultDTO createReservations(List<Reservation> reservations) {
+        if (reservations == null || reservations.isEmpty()) {
+            throw new IllegalArgumentException("At least one reservation is required");
+        }
+        if (reservations.size() > MAX_GROUP_SIZE) {
+            throw new IllegalArgumentException("A group booking can hold at most " + MAX_GROUP_SIZE + " reservations");
+        }
+
+        // Validate every item before touching the database
+        List<GroupReservationResultDTO.Item> items = new ArrayList<>(reservations.size());
+        Set<Long> roomIds = new HashSet<>();
+        LocalDateTime earliestCheckIn = null;
+        LocalDateTime latestCheckOut = null;
+        for (int i = 0; i < reservations.size(); i++) {
+            Reservation reservation = reservations.get(i);
+            String problem = findGroupItemProblem(reservation);
+            GroupReservationResultDTO.Item item = GroupReservationResultDTO.Item.builder()
+                .index(i)
+                .roomId(reservation.getRoom() != null ? reservation.getRoom().getId() : null)
+                .build();
+            if (problem != null) {
+                item.setOutcome(GroupReservationResultDTO.Outcome.INVALID);
+                item.setMessage(problem);
+            } else {
+                roomIds.add(item.getRoomId());
+                if (earliestCheckIn == null || reservation.getCheckInTime().isBefore(earliestCheckIn)) {
+                    earliestCheckIn = reservation.getCheckInTime();
+                }
+                if (latestCheckOut == null || reservation.getCheckOutTime().isAfter(latestCheckOut)) {
+                    latestCheckOut = reservation.getCheckOutTime();
+                }
+            }
+            items.add(item);
+        }
+
+        // One query for the rooms and one for every stay that could overlap the group
+        Map<Long, RoomRateDTO> rooms = roomIds.isEmpty() ? Map.of()
+            : roomRepository.findRatesByIdIn(roomIds).stream()
+                .collect(Collectors.toMap(RoomRateDTO::getId, Function.identity()));
+        Map<Long, List<ReservationIntervalDTO>> bookedByRoom = roomIds.isEmpty() ? Map.of()
+            : reservationRepository.findIntervalsForRooms(roomIds, earliestCheckIn, latestCheckOut,
+                    ReservationStatus.blockingStatuses()).stream()
+                .collect(Collectors.groupingBy(ReservationIntervalDTO::getRoomId));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Reservation> accepted = new ArrayList<>(reservations.size());
+        List<GroupReservationResultDTO.Item> acceptedItems = new ArrayList<>(reservations.size());
+        boolean failed = false;
+        for (GroupReservationResultDTO.Item item : items) {
+            if (item.getOutcome() != null) {
+                failed = true;
+                continue;
+            }
+            Reservation reservation = reservations.get(item.getIndex());
+            RoomRateDTO room = rooms.get(item.getRoomId());
+            if (room == null) {
+                item.setOutcome(GroupReservationResultDTO.Outcome.ROOM_NOT_FOUND);
+                item.setMessage("Room not found");
+                failed = true;
+            } else if (overlapsBooked(bookedByRoom.get(room.getId()), reservation)
+                    || overlapsAccepted(accepted, reservation)
+                    || holdStore.isHeld(room.getId(), reservation.getCheckInTime(), reservation.getCheckOutTime())) {
+                item.setOutcome(GroupReservationResultDTO.Outcome.UNAVAILABLE);
+                item.setMessage("Room is not available for the selected dates");
+                failed = true;
+            } else {
+                prepareGroupItem(reservation, room, now);
+                accepted.add(reservation);
+                acceptedItems.add(item);
+            }
+        }
+
+        if (failed) {
+            acceptedItems.forEach(item -> {
+                item.setOutcome(GroupReservationResultDTO.Outcome.NOT_BOOKED);
+                item.setMessage("Not booked because other reservations in the group failed");
+            });
+            return GroupReservationResultDTO.builder().committed(false).items(items).build();
+        }
+
+        List<Long> ids = insertAll(accepted);
+        for (int i = 0; i < accepted.size(); i++) {
+            Reservation reservation = accepted.get(i);
+            reservation.setId(ids.get(i));
+            publishChange(null, reservation);
+            acceptedItems.get(i).setOutcome(GroupReservationResultDTO.Outcome.CREATED);
+            acceptedItems.get(i).setReservation(ReservationDTO.fromEntity(reservation));
+        }
+        return GroupReservationResultDTO.builder().committed(true).items(items).build();
+    }
+
+    private static String findGroupItemProblem(Reservation reservation) {
+        if (reservation.getRoom() == null || reservation.getRoom().getId() == null) {
+            return "Room is required";
+        }
+        if (reservation.getGuest() == null || reservation.getGuest().getId() == null) {
+            return "Guest is required";
+        }
+        if (reservation.getCreatedBy() == null || reservation.getCreatedBy().getId() == null) {
+            return "Creator is required";
+        }
+        if (reservation.getCheckInTime() == null || reservation.getCheckOutTime() == null) {
+            return "Check-in and check-out times are required";
+        }
+        if (reservation.getCheckInTime().isAfter(reservation.getCheckOutTime())) {
+            return "Check-in time must be before check-out time";
+        }
+        return null;
+    }
+
+    private static boolean overlapsBooked(List<ReservationIntervalDTO> booked, Reservation reservation) {
+        if (booked == null) {
+            return false;
+        }
+        return booked.stream().anyMatch(stay -> stay.getCheckInTime().isBefore(reservation.getCheckOutTime())
+            && stay.getCheckOutTime().isAfter(reservation.getCheckInTime()));
+    }
+
+    private static boolean overlapsAccepted(List<Reservation> accepted, Reservation reservation) {
+        return accepted.stream().anyMatch(other -> other.getRoom().getId().equals(reservation.getRoom().getId())
+            && other.getCheckInTime().isBefore(reservation.getCheckOutTime())
+            && other.getCheckOutTime().isAfter(reservation.getCheckInTime()));
+    }
+
+    // Same pricing and status rules as createReservation
+    private static void prepareGroupItem(Reservation reservation, RoomRateDTO rate, LocalDateTime now) {
+        Hotel hotel = new Hotel();
+        hotel.setId(rate.getHotelId());
+        Room room = new Room();
+        room.setId(rate.getId());
+        room.setNumber(rate.getNumber());
+        room.setName(rate.getName());
+        room.setPrice(rate.getPrice());
+        room.setHotel(hotel);
+
+        long days = ChronoUnit.DAYS.between(reservation.getCheckInTime(), reservation.getCheckOutTime());
+        if (days < 1) days = 1; // Minimum one day charge
+        reservation.setRoom(room);
+        reservation.setHotel(hotel);
+        reservation.setTotalPrice(rate.getPrice().multiply(BigDecimal.valueOf(days)));
+        reservation.setStatus(UserRole.ADMIN.equals(reservation.getCreatedBy().getRole())
+            ? ReservationStatus.CONFIRMED : ReservationStatus.PENDING);
+        reservation.setCreatedAt(now);
+        reservation.setUpdatedAt(now);
+    }
+
+    // One round trip for the whole group; runs on the transaction's connection
+    private List<Long> insertAll(List<Reservation> reservations) {
+        try {
+            return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_RESERVATION_SQL, new String[] {"id"})) {
+                    for (Reservation reservation : reservations) {
+                        statement.setLong(1, reservation.getRoom().getId());
+                        statement.setLong(2, reservation.getHotel().getId());
+                        statement.setLong(3, reservation.getGuest().getId());
+                        statement.setLong(4, reservation.getCreatedBy().getId());
+                        statement.setTimestamp(5, Timestamp.valueOf(reservation.getCheckInTime()));
+                        statement.setTimestamp(6, Timestamp.valueOf(reservation.getCheckOutTime()));
+                        statement.setBigDecimal(7, reservation.getTotalPrice());
+                        statement.setString(8, reservation.getSpecialRequests());
+                        statement.setString(9, reservation.getStatus().name());
+                        statement.setTimestamp(10, Timestamp.valueOf(reservation.getCreatedAt()));
+                        statement.setTimestamp(11, Timestamp.valueOf(reservation.getUpdatedAt()));
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    List<Long> ids = new ArrayList<>(reservations.size());
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            ids.add(keys.getLong(1));
+                        }
+                    }
+                    return ids;
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new IllegalStateException("A room in the group was booked by someone else meanwhile; nothing was booked");
+            }
+            throw e;
+        }
     }
 
     @Override
@@ -105,29 +380,50 @@ public class ReservationServiceImpl implements ReservationService {
             throw new IllegalStateException("Reservation is already cancelled");
         }
         
+        ReservationSnapshot previous = ReservationSnapshot.of(reservation);
         reservation.setStatus(ReservationStatus.CANCELLED);
-        reservationRepository.save(reservation);
+        publishChange(previous, reservationRepository.save(reservation));
     }
 
     @Override
     public boolean isRoomAvailable(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut) {
-        return isRoomAvailable(roomId, checkIn, checkOut, null);
+        return isRoomAvailable(roomId, checkIn, checkOut, null, null);
     }
 
-    private boolean isRoomAvailable(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut, Long excludeReservationId) {
-        List<Reservation> overlappingReservations = reservationRepository
-            .findOverlappingReservations(roomId, checkIn, checkOut);
-            
-        if (excludeReservationId != null) {
-            overlappingReservations = overlappingReservations.stream()
-                .filter(r -> !r.getId().equals(excludeReservationId))
-                .toList();
+    private boolean isRoomAvailable(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut,
+                                    Long excludeReservationId, String excludeHoldId) {
+        // Answered from the in-memory index; the database is only queried until the index has loaded.
+        // Rooms held by a guest in checkout are unavailable too, except to the booking that converts the hold.
+        return !holdStore.isHeld(roomId, checkIn, checkOut, excludeHoldId)
+            && availabilityIndex.isAvailable(roomId, checkIn, checkOut, excludeReservationId,
+                () -> !reservationRepository.existsOverlappingReservation(
+                    roomId, checkIn, checkOut, excludeReservationId, ReservationStatus.blockingStatuses()));
+    }
+
+    // Flushes so an overlap rejected by the database surfaces here as an availability conflict
+    private Reservation saveStay(Reservation reservation, String conflictMessage) {
+        try {
+            return reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new IllegalStateException(conflictMessage);
+            }
+            throw e;
         }
-        
-        return overlappingReservations.stream()
-            .noneMatch(r -> r.getStatus() == ReservationStatus.PENDING 
-                       || r.getStatus() == ReservationStatus.CONFIRMED
-                       || r.getStatus() == ReservationStatus.CHECKED_IN);
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void publishChange(ReservationSnapshot previous, Reservation current) {
+        eventPublisher.publishEvent(new ReservationChangedEvent(previous, ReservationSnapshot.of(current)));
     }
 
     private void validateReservation(Reservation reservation) {
@@ -185,83 +481,167 @@ public class ReservationServiceImpl implements ReservationService {
     }
 
     @Override
-    public List<ReservationDTO> getAllReservations() {
-        return reservationRepository.findAll().stream()
+    @Transactional(readOnly = true)
+    public List<ReservationDTO> getReservationsAfter(Long afterId, int limit) {
+        return reservationRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)).stream()
                 .map(ReservationDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReservationDTO> getReservationsByUserId(Long userId) {
-        return reservationRepository.findByGuestId(userId).stream()
-                .map(ReservationDTO::fromEntity)
-                .collect(Collectors.toList());
+        return toReservationDTOs(reservationRepository.findRowsByGuestId(userId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReservationDTO> getReservationsByHotelId(Long hotelId) {
-        return reservationRepository.findByHotelId(hotelId).stream()
-                .map(ReservationDTO::fromEntity)
-                .collect(Collectors.toList());
+        return toReservationDTOs(reservationRepository.findRowsByHotelId(hotelId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReservationDTO> getUpcomingReservations(Long guestId) {
-        return reservationRepository.findByGuestIdAndCheckInTimeAfter(guestId, LocalDateTime.now()).stream()
-                .map(ReservationDTO::fromEntity)
-                .collect(Collectors.toList());
+        return toReservationDTOs(reservationRepository.findUpcomingRowsByGuestId(guestId, LocalDateTime.now()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReservationDTO> getCurrentReservations(Long guestId) {
-        return reservationRepository.findCurrentReservations(guestId, LocalDateTime.now()).stream()
-                .map(ReservationDTO::fromEntity)
-                .collect(Collectors.toList());
+        return toReservationDTOs(reservationRepository.findCurrentRowsByGuestId(guestId, LocalDateTime.now()));
     }
 
-    // New method to update reservation statuses based on time
-    @Scheduled(fixedRate = 120000) // Run every 2 minutes
+    // Safety sweep: transitions normally fire on time from ReservationTransitionTimers.
+    // Moves due reservations and their rooms with one statement per chunk, committing each chunk on its own
+    @Scheduled(fixedRateString = "${reservations.status-job.interval-ms:900000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void updateReservationStatuses() {
-        LocalDateTime now = LocalDateTime.now();    
-        
-        // Update reservations that should be CHECKED_IN
-        List<Reservation> toCheckIn = reservationRepository.findByStatusAndCheckInTimeBefore(
-            ReservationStatus.CONFIRMED, now);
-        toCheckIn.forEach(reservation -> {
-            reservation.setStatus(ReservationStatus.CHECKED_IN);
-            // Update room status to OCCUPIED
-            Room room = reservation.getRoom();
-            room.setStatus(RoomStatus.OCCUPIED);
-            roomRepository.save(room);
-            reservationRepository.save(reservation);
-        });
-        
-        // Update reservations that should be CHECKED_OUT
-        List<Reservation> toCheckOut = reservationRepository.findByStatusAndCheckOutTimeBefore(
-            ReservationStatus.CHECKED_IN, now);
-        toCheckOut.forEach(reservation -> {
-            reservation.setStatus(ReservationStatus.CHECKED_OUT);
-            // Update room status to AVAILABLE
-            Room room = reservation.getRoom();
-            room.setStatus(RoomStatus.AVAILABLE);
-            roomRepository.save(room);
-            reservationRepository.save(reservation);
-        });
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        // With several nodes each one only moves the hotels of the partitions it holds
+        int partitions = partitionLeases.partitionCount();
+        List<Integer> owned = partitionLeases.ownedPartitions();
+        if (owned.isEmpty()) {
+            return;
+        }
+        // With derived occupancy only the reservations move; rooms are left alone
+        boolean roomWrites = !occupancyView.isDerived();
+
+        // Check-outs first, so a room handed over between two guests ends up OCCUPIED by the arriving one
+        transitionInChunks(ReservationStatus.CHECKED_IN, ReservationStatus.CHECKED_OUT, now,
+            (due, limit) -> reservationRepository.checkOutDueReservations(due, limit, partitions, owned, roomWrites),
+            statusJobCheckedOut);
+        transitionInChunks(ReservationStatus.CONFIRMED, ReservationStatus.CHECKED_IN, now,
+            (due, limit) -> reservationRepository.checkInDueReservations(due, limit, partitions, owned, roomWrites),
+            statusJobCheckedIn);
+
+        statusJobRuns.increment();
+        statusJobLastRunAt = now;
+        statusJobLastRunMillis = System.currentTimeMillis() - started;
+    }
+
+    private void transitionInChunks(ReservationStatus from, ReservationStatus to, LocalDateTime now,
+                                    BiFunction<LocalDateTime, Integer, List<Object[]>> moveChunk,
+                                    LongAdder transitioned) {
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        int moved;
+        do {
+            long chunkStarted = System.nanoTime();
+            List<Object[]> rows = chunkTransaction.execute(status -> {
+                List<Object[]> chunk = moveChunk.apply(now, statusJobChunkSize);
+                chunk.forEach(row -> eventPublisher.publishEvent(
+                    new ReservationChangedEvent(transitionSnapshot(row, from), transitionSnapshot(row, to))));
+                return chunk;
+            });
+            moved = rows.size();
+            if (moved > 0) {
+                recordChunk(rows, to, now, (System.nanoTime() - chunkStarted) / 1_000_000);
+                transitioned.add(moved);
+            }
+        } while (moved == statusJobChunkSize);
+    }
+
+    private void recordChunk(List<Object[]> rows, ReservationStatus to, LocalDateTime now, long chunkMillis) {
+        // the column that made the row due: check_out_time for check-outs, check_in_time for check-ins
+        int dueColumn = to == ReservationStatus.CHECKED_OUT ? 4 : 3;
+        LocalDateTime oldestDue = rows.stream()
+            .map(row -> toLocalDateTime(row[dueColumn]))
+            .min(LocalDateTime::compareTo)
+            .orElse(now);
+        long lagSeconds = Math.max(0, ChronoUnit.SECONDS.between(oldestDue, now));
+
+        statusJobChunks.increment();
+        statusJobChunkMillis.add(chunkMillis);
+        statusJobLastChunkMillis = chunkMillis;
+        statusJobMaxChunkMillis.accumulateAndGet(chunkMillis, Math::max);
+        statusJobLastLagSeconds = lagSeconds;
+        statusJobMaxLagSeconds.accumulateAndGet(lagSeconds, Math::max);
+    }
+
+    private static ReservationSnapshot transitionSnapshot(Object[] row, ReservationStatus status) {
+        return new ReservationSnapshot(
+            ((Number) row[0]).longValue(),
+            ((Number) row[1]).longValue(),
+            ((Number) row[2]).longValue(),
+            toLocalDateTime(row[3]),
+            toLocalDateTime(row[4]),
+            status,
+            (BigDecimal) row[5],
+            toLocalDateTime(row[6]));
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    @Override
+    public StatusTransitionStatsDTO getStatusTransitionStats() {
+        long chunks = statusJobChunks.sum();
+        return StatusTransitionStatsDTO.builder()
+            .chunkSize(statusJobChunkSize)
+            .runs(statusJobRuns.sum())
+            .checkedIn(statusJobCheckedIn.sum())
+            .checkedOut(statusJobCheckedOut.sum())
+            .chunks(chunks)
+            .lastChunkMillis(statusJobLastChunkMillis)
+            .maxChunkMillis(statusJobMaxChunkMillis.get())
+            .averageChunkMillis(chunks == 0 ? 0 : (double) statusJobChunkMillis.sum() / chunks)
+            .lastLagSeconds(statusJobLastLagSeconds)
+            .maxLagSeconds(statusJobMaxLagSeconds.get())
+            .lastRunAt(statusJobLastRunAt)
+            .lastRunMillis(statusJobLastRunMillis)
+            .build();
     }
 
     // Method to manually check and update a specific reservation's status
     public void updateReservationStatusBasedOnTime(Long reservationId) {
-        Reservation reservation = getReservationEntityById(reservationId);
         LocalDateTime now = LocalDateTime.now();
-        
-        if (reservation.getStatus() == ReservationStatus.CONFIRMED 
-            && now.isAfter(reservation.getCheckInTime())) {
-            reservation.setStatus(ReservationStatus.CHECKED_IN);
-            reservationRepository.save(reservation);
-        } else if (reservation.getStatus() == ReservationStatus.CHECKED_IN 
-            && now.isAfter(reservation.getCheckOutTime())) {
-            reservation.setStatus(ReservationStatus.CHECKED_OUT);
-            reservationRepository.save(reservation);
+        boolean roomWrites = !occupancyView.isDerived();
+
+        // Guarded single-row updates like the status job's, so a cancel or manual status change that commits
+        // first is never overwritten; check-out is tried first so a stay moves at most one step per call
+        ReservationStatus from = ReservationStatus.CHECKED_IN;
+        ReservationStatus to = ReservationStatus.CHECKED_OUT;
+        List<Object[]> moved = reservationRepository.checkOutReservation(reservationId, now, roomWrites);
+        if (moved.isEmpty()) {
+            from = ReservationStatus.CONFIRMED;
+            to = ReservationStatus.CHECKED_IN;
+            moved = reservationRepository.checkInReservation(reservationId, now, roomWrites);
+        }
+        if (moved.isEmpty()) {
+            if (!reservationRepository.existsById(reservationId)) {
+                throw new EntityNotFoundException("Reservation not found with id: " + reservationId);
+            }
+            return;
+        }
+        for (Object[] row : moved) {
+            eventPublisher.publishEvent(
+                new ReservationChangedEvent(transitionSnapshot(row, from), transitionSnapshot(row, to)));
         }
     }
 
@@ -269,6 +649,7 @@ public class ReservationServiceImpl implements ReservationService {
     @Transactional
     public ReservationDTO updateReservationStatus(Long id, ReservationStatus status) {
         Reservation reservation = getReservationEntityById(id);
+        ReservationSnapshot previous = ReservationSnapshot.of(reservation);
         Room room = reservation.getRoom();
         
         // Validate the status transition
@@ -279,93 +660,45 @@ public class ReservationServiceImpl implements ReservationService {
         reservation.setUpdatedAt(LocalDateTime.now());
         
         // Update room status based on reservation status
+        RoomStatus roomStatus;
         switch (status) {
             case CHECKED_IN:
-                room.setStatus(RoomStatus.OCCUPIED);
+                roomStatus = RoomStatus.OCCUPIED;
                 break;
             case CHECKED_OUT:
             case CANCELLED:
-                room.setStatus(RoomStatus.AVAILABLE);
+                roomStatus = RoomStatus.AVAILABLE;
                 break;
             case CONFIRMED:
                 // Room status remains unchanged for confirmed reservations
+                roomStatus = null;
                 break;
             default:
                 throw new IllegalArgumentException("Unexpected reservation status: " + status);
         }
         
-        // Save both reservation and room updates
-        roomRepository.save(room);
+        // Save both reservation and room updates; with derived occupancy the room is read from the reservations
+        if (roomStatus != null && !occupancyView.isDerived()) {
+            room.setStatus(roomStatus);
+            roomRepository.save(room);
+        }
         Reservation updatedReservation = reservationRepository.save(reservation);
+        publishChange(previous, updatedReservation);
         
         return ReservationDTO.fromEntity(updatedReservation);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public HotelStatsDTO getHotelStats(Long hotelId) {
-        System.out.println("Calculating stats for hotel ID: " + hotelId);
-        
-        // Get total bookings
-        long totalBookings = reservationRepository.countByHotelId(hotelId);
-        System.out.println("Total bookings: " + totalBookings);
-
-        // Get active guests (current reservations)
-        LocalDateTime now = LocalDateTime.now();
-        List<Reservation> activeReservations = reservationRepository.findActiveReservations(hotelId, now);
-        int activeGuests = activeReservations.size();
-        System.out.println("Active guests: " + activeGuests);
-
-        // Get available rooms
-        int availableRooms = roomRepository.countAvailableRoomsByHotel(hotelId);
-        System.out.println("Available rooms: " + availableRooms);
-
-        // Calculate monthly revenue
-        LocalDateTime startOfMonth = now.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfMonth = now.withDayOfMonth(now.getMonth().length(now.toLocalDate().isLeapYear()));
-        double monthlyRevenue = reservationRepository.calculateRevenueForPeriod(hotelId, startOfMonth, endOfMonth);
-        System.out.println("Monthly revenue: " + monthlyRevenue);
-
-        // Get recent bookings (last 5)
-        List<ReservationDTO> recentBookings = reservationRepository.findByHotelIdOrderByCreatedAtDesc(hotelId)
-                .stream()
-                .limit(5)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        System.out.println("Recent bookings count: " + recentBookings.size());
-
-        // Calculate room type statistics
-        List<Object[]> roomTypeStats = roomRepository.getRoomTypeStatsByHotel(hotelId);
-        List<HotelStatsDTO.RoomTypeStatsDTO> roomTypeStatsDTOs = roomTypeStats.stream()
-                .map(stat -> {
-                    System.out.println("Room type stat: type=" + stat[0] + ", percentage=" + stat[1]);
-                    return HotelStatsDTO.RoomTypeStatsDTO.builder()
-                            .type((String) stat[0])
-                            .percentage((Double) stat[1])
-                            .build();
-                })
-                .collect(Collectors.toList());
+        return "query".equals(hotelStatsMode)
+            ? hotelStatsQueryCache.getStats(hotelId)
+            : hotelDashboardStats.getStats(hotelId);
+    }
 
-        // Get upcoming checkouts (next 5)
-        List<ReservationDTO> upcomingCheckouts = reservationRepository
-                .findUpcomingCheckouts(hotelId, now)
-                .stream()
-                .limit(5)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        System.out.println("Upcoming checkouts count: " + upcomingCheckouts.size());
-
-        HotelStatsDTO stats = HotelStatsDTO.builder()
-                .totalBookings(totalBookings)
-                .activeGuests(activeGuests)
-                .availableRooms(availableRooms)
-                .monthlyRevenue(monthlyRevenue)
-                .recentBookings(recentBookings)
-                .roomTypeStats(roomTypeStatsDTOs)
-                .upcomingCheckouts(upcomingCheckouts)
-                .build();
-        
-        System.out.println("Returning stats: " + stats);
-        return stats;
+    @Override
+    public PortfolioStatsDTO getPortfolioStats(Long adminId) {
+        return portfolioStats.getStats(adminId);
     }
 
     private Reservation getReservationEntityById(Long id) {
@@ -373,6 +706,29 @@ public class ReservationServiceImpl implements ReservationService {
                 .orElseThrow(() -> new EntityNotFoundException("Reservation not found with id: " + id));
     }
 
+    /**
+     * Builds DTOs from projected rows, loading the pictures of all their rooms with one query, so a list costs
+     * two statements however long it is, plus one for picture variants when the rooms have stored pictures.
+     */
+    private List<ReservationDTO> toReservationDTOs(List<ReservationRowDTO> rows) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> roomIds = rows.stream().map(ReservationRowDTO::getRoomId).collect(Collectors.toSet());
+        Map<Long, List<RoomDTO.PictureDTO>> pictures = new HashMap<>();
+        for (Object[] picture : roomRepository.findPictureUrlsByRoomIds(roomIds)) {
+            RoomDTO.PictureDTO pictureDTO = new RoomDTO.PictureDTO();
+            pictureDTO.setUrl(picture[2] != null ? Picture.BLOB_PATH + picture[2] : (String) picture[1]);
+            pictures.computeIfAbsent((Long) picture[0], id -> new ArrayList<>()).add(pictureDTO);
+        }
+        pictureVariants.applyToPictures(pictures.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList()));
+        return rows.stream()
+                .map(row -> row.toDTO(new ArrayList<>(pictures.getOrDefault(row.getRoomId(), List.of()))))
+                .collect(Collectors.toList());
+    }
+
     private ReservationDTO convertToDTO(Reservation reservation) {
         return ReservationDTO.fromEntity(reservation);
     }
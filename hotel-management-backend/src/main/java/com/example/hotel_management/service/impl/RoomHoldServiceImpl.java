@@ -0,0 +1,88 @@
+package com.example.hotel_management.service.impl;
+
+import com.example.hotel_management.availability.RoomHold;
+import com.example.hotel_management.availability.RoomHoldStore;
+import com.example.hotel_management.dto.ReservationDTO;
+import com.example.hotel_management.dto.RoomHoldDTO;
+import com.example.hotel_management.entity.Reservation;
+import com.example.hotel_management.entity.Room;
+import com.example.hotel_management.repository.RoomRepository;
+import com.example.hotel_management.service.ReservationService;
+import com.example.hotel_management.service.RoomHoldService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class RoomHoldServiceImpl implements RoomHoldService {
+
+    private final RoomHoldStore holdStore;
+    private final RoomRepository roomRepository;
+    private final ReservationService reservationService;
+
+    @Override
+    public RoomHoldDTO placeHold(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut) {
+        if (checkIn == null || checkOut == null) {
+            throw new IllegalArgumentException("Check-in and check-out times are required");
+        }
+        if (!checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out time must be after check-in time");
+        }
+        if (checkIn.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Check-in time cannot be in the past");
+        }
+        if (!roomRepository.existsById(roomId)) {
+            throw new EntityNotFoundException("Room not found");
+        }
+        RoomHold hold = holdStore.place(roomId, checkIn, checkOut,
+                () -> reservationService.isRoomAvailable(roomId, checkIn, checkOut));
+        return RoomHoldDTO.fromHold(hold);
+    }
+
+    @Override
+    public RoomHoldDTO getHold(Long roomId, String holdId) {
+        return RoomHoldDTO.fromHold(findHold(roomId, holdId));
+    }
+
+    @Override
+    public ReservationDTO confirmHold(Long roomId, String holdId, Reservation reservation) {
+        findHold(roomId, holdId);
+        // the hold keeps blocking other guests until the reservation has committed
+        RoomHold hold = holdStore.beginConversion(holdId);
+        if (hold == null) {
+            throw new EntityNotFoundException("Hold not found or expired");
+        }
+
+        Room room = new Room();
+        room.setId(hold.getRoomId());
+        reservation.setRoom(room);
+        reservation.setCheckInTime(hold.getCheckInTime());
+        reservation.setCheckOutTime(hold.getCheckOutTime());
+        boolean booked = false;
+        try {
+            ReservationDTO created = reservationService.createReservation(reservation, holdId);
+            booked = true;
+            return created;
+        } finally {
+            // on failure the guest can fix their details and try again within the hold
+            holdStore.endConversion(hold, booked);
+        }
+    }
+
+    @Override
+    public void releaseHold(Long roomId, String holdId) {
+        findHold(roomId, holdId);
+        holdStore.release(holdId);
+    }
+
+    private RoomHold findHold(Long roomId, String holdId) {
+        RoomHold hold = holdStore.get(holdId);
+        if (hold == null || !hold.getRoomId().equals(roomId)) {
+            throw new EntityNotFoundException("Hold not found or expired");
+        }
+        return hold;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.hotel_management.service.impl;
+
+import com.example.hotel_management.dto.InventoryRebuildReportDTO;
+import com.example.hotel_management.dto.RoomTypeInventoryDTO;
+import com.example.hotel_management.entity.RoomTypeNightInventory;
+import com.example.hotel_management.enums.ReservationStatus;
+import com.example.hotel_management.event.ReservationChangedEvent;
+import com.example.hotel_management.event.ReservationSnapshot;
+import com.example.hotel_management.repository.RoomRepository;
+import com.example.hotel_management.repository.RoomTypeNightInventoryRepository;
+import com.example.hotel_management.service.RoomInventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class RoomInventoryServiceImpl implements RoomInventoryService {
+
+    private final RoomTypeNightInventoryRepository inventoryRepository;
+    private final RoomRepository roomRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public RoomTypeInventoryDTO getInventory(Long hotelId, String roomType, LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null) {
+            throw new IllegalArgumentException("Check-in and check-out dates are required");
+        }
+        if (!checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+
+        int total = (int) roomRepository.countByHotelIdAndName(hotelId, roomType);
+        List<RoomTypeNightInventory> nights = inventoryRepository
+                .findByHotelIdAndRoomTypeAndNightGreaterThanEqualAndNightLessThanOrderByNight(
+                        hotelId, roomType, checkIn, checkOut);
+        int sold = nights.stream().mapToInt(RoomTypeNightInventory::getSold).max().orElse(0);
+
+        return RoomTypeInventoryDTO.builder()
+                .hotelId(hotelId)
+                .roomType(roomType)
+                .checkIn(checkIn)
+                .checkOut(checkOut)
+                .total(total)
+                .sold(sold)
+                .remaining(Math.max(0, total - sold))
+                .build();
+    }
+
+    @Override
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationSnapshot previous = event.getPrevious();
+        ReservationSnapshot current = event.getCurrent();
+        boolean wasSold = isSold(previous);
+        boolean isSold = isSold(current);
+        if (wasSold && isSold && sameStay(previous, current)) {
+            return;
+        }
+        if (wasSold) {
+            addSold(previous, -1);
+        }
+        if (isSold) {
+            addSold(current, 1);
+        }
+    }
+
+    @Override
+    public void refreshTotals(Long hotelId, String roomType) {
+        inventoryRepository.refreshTotals(hotelId, roomType);
+    }
+
+    @Override
+    @Scheduled(cron = "${inventory.rebuild-cron:0 30 3 * * *}")
+    public void verifyAll() {
+        InventoryRebuildReportDTO report = verifyAndRepair(null);
+        if (report.isRepaired()) {
+            log.warn("Room type inventory drifted on {} rows, rewrote {} rows in {} ms",
+                    report.getDriftRows(), report.getRowsWritten(), report.getDurationMillis());
+        }
+    }
+
+    @Override
+    public InventoryRebuildReportDTO verifyAndRepair(Long hotelId) {
+        long started = System.currentTimeMillis();
+        // look before writing so a clean check never takes a lock
+        long drift = inventoryRepository.countDrift(hotelId, null);
+        int written = drift > 0 ? repair(hotelId, null) : 0;
+        return InventoryRebuildReportDTO.builder()
+                .hotelId(hotelId)
+                .checkedAt(LocalDateTime.now())
+                .driftRows(drift)
+                .repaired(written > 0)
+                .rowsWritten(written)
+                .durationMillis(System.currentTimeMillis() - started)
+                .build();
+    }
+
+    @Override
+    public void recount(Long hotelId, String roomType) {
+        repair(hotelId, roomType);
+        inventoryRepository.refreshTotals(hotelId, roomType);
+    }
+
+    // rewrites only the rows that drifted, holding row locks on just those nights
+    private int repair(Long hotelId, String roomType) {
+        int written = inventoryRepository.insertMissingCounters(hotelId, roomType);
+        List<Long> drifted = inventoryRepository.lockDriftedCounters(hotelId, roomType);
+        if (!drifted.isEmpty()) {
+            written += inventoryRepository.repairCounters(hotelId, roomType, drifted);
+        }
+        return written;
+    }
+
+    private void addSold(ReservationSnapshot reservation, int delta) {
+        LocalDate firstNight = reservation.getCheckInTime().toLocalDate();
+        LocalDate lastNight = lastNight(firstNight, reservation.getCheckOutTime().toLocalDate());
+        inventoryRepository.addSold(reservation.getRoomId(), firstNight, lastNight, delta);
+    }
+
+    // the night before check-out, but a stay always sells at least its check-in night
+    private static LocalDate lastNight(LocalDate firstNight, LocalDate checkOutDate) {
+        return checkOutDate.isAfter(firstNight) ? checkOutDate.minusDays(1) : firstNight;
+    }
+
+    private static boolean isSold(ReservationSnapshot reservation) {
+        return reservation != null
+                && reservation.getRoomId() != null
+                && reservation.getCheckInTime() != null
+                && reservation.getCheckOutTime() != null
+                && reservation.getStatus() != null
+                && reservation.getStatus() != ReservationStatus.CANCELLED;
+    }
+
+    private static boolean sameStay(ReservationSnapshot a, ReservationSnapshot b) {
+        return Objects.equals(a.getRoomId(), b.getRoomId())
+                && a.getCheckInTime().toLocalDate().equals(b.getCheckInTime().toLocalDate())
+                && lastNight(a.getCheckInTime().toLocalDate(), a.getCheckOutTime().toLocalDate())
+                        .equals(lastNight(b.getCheckInTime().toLocalDate(), b.getCheckOutTime().toLocalDate()));
+    }
+}
@@ -1,29 +1,58 @@
 package com.example.hotel_management.service.impl;
 
+import com.example.hotel_management.availability.RoomAvailabilityIndex;
+import com.example.hotel_management.availability.RoomHoldStore;
+import com.example.hotel_management.availability.RoomOccupancyView;
 import com.example.hotel_management.entity.Room;
 import com.example.hotel_management.entity.Picture;
+import com.example.hotel_management.enums.ReservationStatus;
 import com.example.hotel_management.enums.RoomStatus;
+import com.example.hotel_management.event.PictureStoredEvent;
+import com.example.hotel_management.event.RoomChangedEvent;
 import com.example.hotel_management.repository.RoomRepository;
+import com.example.hotel_management.service.RoomInventoryService;
 import com.example.hotel_management.service.RoomService;
+import com.example.hotel_management.storage.PictureUploads;
+import com.example.hotel_management.storage.StoredBlob;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.util.Base64;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RoomServiceImpl implements RoomService {
 
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("price", "number", "name");
+
     private final RoomRepository roomRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomHoldStore holdStore;
+    private final RoomInventoryService inventoryService;
+    private final RoomOccupancyView occupancyView;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PictureUploads pictureUploads;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
+    @Transactional
     public Room createRoom(Room room) {
         validateRoomData(room);
         
@@ -37,10 +66,14 @@ public class RoomServiceImpl implements RoomService {
             room.setStatus(RoomStatus.AVAILABLE);
         }
         
-        return roomRepository.save(room);
+        Room savedRoom = roomRepository.save(room);
+        inventoryService.refreshTotals(savedRoom.getHotel().getId(), savedRoom.getName());
+        publishChange(savedRoom);
+        return savedRoom;
     }
 
     @Override
+    @Transactional
     public Room updateRoom(Long id, Room room) {
         Room existingRoom = getRoomById(id);
         
@@ -57,18 +90,35 @@ public class RoomServiceImpl implements RoomService {
                     room.getNumber(), room.getHotel().getId()));
         }
         
+        String previousType = existingRoom.getName();
+        boolean typeChanged = !previousType.equals(room.getName());
         existingRoom.setNumber(room.getNumber());
         existingRoom.setName(room.getName());
         existingRoom.setDescription(room.getDescription());
         existingRoom.setStatus(room.getStatus());
         existingRoom.setPrice(room.getPrice());
         
-        // Handle pictures using the helper method
+        // Handle pictures using the helper method; pictures sent back with their public URL keep their blob
         if (room.getPictures() != null) {
-            existingRoom.setPictures(new HashSet<>(room.getPictures()));
+            Map<String, Picture> current = existingRoom.getPictures().stream()
+                    .filter(picture -> picture.getPublicUrl() != null)
+                    .collect(Collectors.toMap(Picture::getPublicUrl, Function.identity(), (a, b) -> a));
+            Set<Picture> pictures = new HashSet<>();
+            for (Picture picture : room.getPictures()) {
+                Picture kept = current.get(picture.getPublicUrl());
+                pictures.add(kept != null ? kept : picture);
+            }
+            existingRoom.setPictures(pictures);
         }
         
-        return roomRepository.save(existingRoom);
+        Room savedRoom = roomRepository.save(existingRoom);
+        if (typeChanged) {
+            // the room's stays now count towards another room type
+            inventoryService.recount(savedRoom.getHotel().getId(), previousType);
+            inventoryService.recount(savedRoom.getHotel().getId(), savedRoom.getName());
+        }
+        publishChange(savedRoom);
+        return savedRoom;
     }
 
     @Override
@@ -78,8 +128,9 @@ public class RoomServiceImpl implements RoomService {
     }
 
     @Override
-    public List<Room> getAllRooms() {
-        return roomRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<Room> getRoomsAfter(Long afterId, int limit) {
+        return roomRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
     }
 
     @Override
@@ -89,8 +140,37 @@ public class RoomServiceImpl implements RoomService {
     }
 
     @Override
-    public List<Room> getAvailableRoomsByHotel(Long hotelId) {
-        return roomRepository.findByHotelIdAndStatus(hotelId, RoomStatus.AVAILABLE);
+    @Transactional(readOnly = true)
+    public List<Room> getAvailableRoomsByHotel(Long hotelId, LocalDateTime checkIn, LocalDateTime checkOut,
+                                               BigDecimal minPrice, BigDecimal maxPrice, Sort sort) {
+        validateStayDates(checkIn, checkOut);
+        Sort order = validateSort(sort);
+        boolean priceFiltered = minPrice != null || maxPrice != null;
+        if (priceFiltered) {
+            validatePriceRange(minPrice, maxPrice);
+        }
+
+        // Prefer the in-memory occupancy calendar: only rooms with a stay in those nights need checking
+        Set<Long> unavailableRoomIds = availabilityIndex.findUnavailableRooms(hotelId, checkIn, checkOut);
+        if (unavailableRoomIds != null) {
+            List<Room> candidates = priceFiltered
+                    ? roomRepository.findByHotelIdAndStatusNotAndPriceBetween(
+                            hotelId, RoomStatus.MAINTENANCE, minPrice, maxPrice, order)
+                    : roomRepository.findByHotelIdAndStatusNot(hotelId, RoomStatus.MAINTENANCE, order);
+            return candidates.stream()
+                    .filter(room -> !unavailableRoomIds.contains(room.getId()))
+                    .filter(room -> !holdStore.isHeld(room.getId(), checkIn, checkOut))
+                    .toList();
+        }
+
+        List<Room> available = priceFiltered
+                ? roomRepository.findAvailableRoomsForStayByPriceRange(hotelId, checkIn, checkOut,
+                        ReservationStatus.blockingStatuses(), RoomStatus.MAINTENANCE, minPrice, maxPrice, order)
+                : roomRepository.findAvailableRoomsForStay(hotelId, checkIn, checkOut,
+                        ReservationStatus.blockingStatuses(), RoomStatus.MAINTENANCE, order);
+        return available.stream()
+                .filter(room -> !holdStore.isHeld(room.getId(), checkIn, checkOut))
+                .toList();
     }
 
     @Override
@@ -102,30 +182,41 @@ public class RoomServiceImpl implements RoomService {
     @Override
     public List<Room> getAvailableRoomsByPriceRange(Long hotelId, BigDecimal minPrice, BigDecimal maxPrice) {
         validatePriceRange(minPrice, maxPrice);
-        return roomRepository.findAvailableRoomsByPriceRange(hotelId, RoomStatus.AVAILABLE, minPrice, maxPrice);
+        return occupancyView.findAvailableByPriceRange(hotelId, minPrice, maxPrice);
     }
 
     @Override
     public List<Room> getAvailableRoomsSortedByPrice(Long hotelId) {
-        return roomRepository.findAvailableRoomsSortedByPrice(hotelId, RoomStatus.AVAILABLE);
+        return occupancyView.findAvailableSortedByPrice(hotelId);
     }
 
     @Override
+    @Transactional
     public void deleteRoom(Long id) {
-        if (!roomRepository.existsById(id)) {
-            throw new EntityNotFoundException("Room not found with id: " + id);
-        }
-        roomRepository.deleteById(id);
+        Room room = getRoomById(id);
+        Long hotelId = room.getHotel().getId();
+        roomRepository.delete(room);
+        roomRepository.flush();
+        // the room and its reservations are gone, so totals and sold counts of its type both change
+        inventoryService.recount(hotelId, room.getName());
+        eventPublisher.publishEvent(new RoomChangedEvent(id, hotelId));
     }
 
     @Override
+    @Transactional
     public Room updateRoomStatus(Long id, RoomStatus status) {
+        if (occupancyView.isDerived() && status == RoomStatus.OCCUPIED) {
+            throw new IllegalArgumentException("Occupancy is derived from reservations and cannot be set by hand");
+        }
         Room room = getRoomById(id);
         room.setStatus(status);
-        return roomRepository.save(room);
+        Room savedRoom = roomRepository.save(room);
+        publishChange(savedRoom);
+        return savedRoom;
     }
 
     @Override
+    @Transactional
     public Room updateRoomStatusByReservation(Long id, String reservationStatus) {
         Room room = getRoomById(id);
         RoomStatus newStatus;
@@ -147,30 +238,67 @@ public class RoomServiceImpl implements RoomService {
                 throw new IllegalArgumentException("Invalid reservation status: " + reservationStatus);
         }
 
+        if (occupancyView.isDerived()) {
+            // occupancy is read from the reservations, nothing to store
+            return room;
+        }
         room.setStatus(newStatus);
-        return roomRepository.save(room);
+        Room savedRoom = roomRepository.save(room);
+        publishChange(savedRoom);
+        return savedRoom;
     }
 
     @Override
     public long getAvailableRoomCount(Long hotelId) {
-        return roomRepository.countByHotelIdAndStatus(hotelId, RoomStatus.AVAILABLE);
+        return occupancyView.countByHotelIdAndStatus(hotelId, RoomStatus.AVAILABLE);
     }
 
     @Override
     public Room uploadPicture(Long id, MultipartFile picture) throws IOException {
-        Room room = getRoomById(id);
-        
-        // Convert MultipartFile to base64 string
-        String base64Picture = Base64.getEncoder().encodeToString(picture.getBytes());
-        
-        // Create new Picture entity
-        Picture pictureEntity = new Picture();
-        pictureEntity.setUrl("data:" + picture.getContentType() + ";base64," + base64Picture);
-        
-        // Use helper method to maintain bidirectional relationship
-        room.addPicture(pictureEntity);
-        
-        return roomRepository.save(room);
+        try (InputStream content = picture.getInputStream()) {
+            return uploadPicture(id, picture.getContentType(), picture.getSize(), content);
+        }
+    }
+
+    @Override
+    public Room uploadPicture(Long id, String contentType, long contentLength, InputStream content) throws IOException {
+        // Checked before the body is read, so an upload for an unknown room is not stored at all
+        if (!roomRepository.existsById(id)) {
+            throw new EntityNotFoundException("Room not found with id: " + id);
+        }
+        // Stream the upload into the blob store before touching the database, so a slow upload does not hold a
+        // connection; the row only keeps the hash. A blob left behind by a failed attach is removed by BlobSweeper
+        PictureUploads.Upload upload = pictureUploads.store(contentType, contentLength, content);
+        return attachPicture(id, upload);
+    }
+
+    private Room attachPicture(Long id, PictureUploads.Upload upload) {
+        StoredBlob blob = upload.blob();
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Room room = getRoomById(id);
+            if (room.getPictures().stream().anyMatch(existing -> blob.hash().equals(existing.getHash()))) {
+                return room;
+            }
+            
+            // Create new Picture entity
+            Picture pictureEntity = new Picture();
+            pictureEntity.setHash(blob.hash());
+            pictureEntity.setSizeBytes(blob.size());
+            pictureEntity.setContentType(upload.contentType());
+            
+            // Use helper method to maintain bidirectional relationship
+            room.addPicture(pictureEntity);
+            
+            Room savedRoom = roomRepository.save(room);
+            // queues the variants in this transaction; they are rendered in the background after the commit
+            eventPublisher.publishEvent(new PictureStoredEvent(blob.hash()));
+            return savedRoom;
+        });
+    }
+
+    private void publishChange(Room room) {
+        eventPublisher.publishEvent(new RoomChangedEvent(room.getId(),
+                room.getHotel() != null ? room.getHotel().getId() : null));
     }
 
     private void validateRoomData(Room room) {
@@ -191,6 +319,27 @@ public class RoomServiceImpl implements RoomService {
         }
     }
 
+    private void validateStayDates(LocalDateTime checkIn, LocalDateTime checkOut) {
+        if (checkIn == null || checkOut == null) {
+            throw new IllegalArgumentException("Check-in and check-out times are required");
+        }
+        if (!checkIn.isBefore(checkOut)) {
+            throw new IllegalArgumentException("Check-in time must be before check-out time");
+        }
+    }
+
+    private Sort validateSort(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return Sort.by("price");
+        }
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort rooms by: " + order.getProperty());
+            }
+        }
+        return sort;
+    }
+
     private void validatePriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
         if (minPrice == null || maxPrice == null) {
             throw new IllegalArgumentException("Price range values cannot be null");
@@ -4,6 +4,7 @@ import com.example.hotel_management.entity.Subscription;
 import com.example.hotel_management.repository.SubscriptionRepository;
 import com.example.hotel_management.service.SubscriptionService;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -42,8 +43,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     }
 
     @Override
-    public List<Subscription> getAllSubscriptions() {
-        return subscriptionRepository.findAll();
+    public List<Subscription> getSubscriptionsAfter(Long afterId, int limit) {
+        return subscriptionRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
     }
 
     @Override
@@ -4,6 +4,7 @@ import com.example.hotel_management.entity.User;
 import com.example.hotel_management.repository.UserRepository;
 import com.example.hotel_management.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -67,8 +68,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<User> getUsersAfter(Long afterId, int limit) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
     }
 
     @Override
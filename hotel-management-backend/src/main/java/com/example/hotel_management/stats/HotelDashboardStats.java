@@ -0,0 +1,348 @@
+package com.example.hotel_management.stats;
+
+import com.example.hotel_management.availability.RoomOccupancyView;
+import com.example.hotel_management.dto.HotelStatsDTO;
+import com.example.hotel_management.dto.ReservationDTO;
+import com.example.hotel_management.dto.ReservationIntervalDTO;
+import com.example.hotel_management.entity.Reservation;
+import com.example.hotel_management.enums.ReservationStatus;
+import com.example.hotel_management.enums.RoomStatus;
+import com.example.hotel_management.event.ReservationChangedEvent;
+import com.example.hotel_management.event.ReservationSnapshot;
+import com.example.hotel_management.event.RoomChangedEvent;
+import com.example.hotel_management.repository.ReservationRepository;
+import com.example.hotel_management.repository.RoomRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the hotel dashboard from memory.
+ * <p>
+ * A hotel's {@link HotelStatsAggregate} is loaded from the database the first time its dashboard is opened and
+ * then kept current from {@link ReservationChangedEvent}s after their transaction commits, so a dashboard load
+ * costs no queries once the shown reservations are cached. Room changes are rare and simply drop the hotel's
+ * aggregate. Every loaded aggregate is periodically replaced by a fresh load, which also repairs any counter an
+ * event racing a load or refill may have missed.
+ * <p>
+ * A load runs its sub-queries concurrently, each in its own read-only transaction, so it takes about as long as
+ * the slowest of them. Whatever is not back by {@code hotel-stats.load.deadline-ms} is cancelled and the stats
+ * are returned without it, flagged as partial.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotelDashboardStats {
+
+    private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+    private final RoomOccupancyView occupancyView;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${hotel-stats.load.deadline-ms:2000}")
+    private long loadDeadlineMillis;
+
+    @Value("${hotel-stats.load.concurrency:8}")
+    private int loadConcurrency;
+
+    private final Map<Long, HotelStatsAggregate> aggregates = new ConcurrentHashMap<>();
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate subQueryTransaction;
+    private ExecutorService loader;
+
+    private record Loaded(HotelStatsAggregate aggregate, List<String> missing) {
+        boolean partial() {
+            return !missing.isEmpty();
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // a sub-query abandoned at the deadline is also stopped by the database shortly after
+        subQueryTransaction = new TransactionTemplate(transactionManager);
+        subQueryTransaction.setReadOnly(true);
+        // never joins a caller's transaction, whose connection is not safe to share across the loader threads
+        subQueryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        subQueryTransaction.setTimeout((int) Math.max(1, (loadDeadlineMillis + 999) / 1000));
+        AtomicInteger threads = new AtomicInteger();
+        // when every thread is busy a sub-query is not queued or run by the caller; its section is reported missing
+        loader = new ThreadPoolExecutor(loadConcurrency, loadConcurrency, 30L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "hotel-stats-load-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        loader.shutdownNow();
+    }
+
+    public HotelStatsDTO getStats(Long hotelId) {
+        HotelStatsAggregate aggregate = aggregates.get(hotelId);
+        if (aggregate != null && aggregate.month.equals(YearMonth.now())) {
+            return toStats(aggregate);
+        }
+        Loaded loaded = load(hotelId);
+        if (!loaded.partial()) {
+            aggregates.put(hotelId, loaded.aggregate());
+            return toStats(loaded.aggregate());
+        }
+        // events cannot be applied to figures that are missing, so a partial load is served once and not kept
+        log.warn("Dashboard stats of hotel {} missed the {} ms deadline for {}", hotelId, loadDeadlineMillis,
+                loaded.missing());
+        HotelStatsDTO stats = toStats(loaded.aggregate());
+        stats.setPartial(true);
+        stats.setMissing(loaded.missing());
+        return stats;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationSnapshot previous = event.getPrevious();
+        ReservationSnapshot current = event.getCurrent();
+        if (previous != null && !Objects.equals(previous.getHotelId(), current.getHotelId())) {
+            aggregates.remove(previous.getHotelId());
+            aggregates.remove(current.getHotelId());
+            return;
+        }
+        HotelStatsAggregate aggregate = current.getHotelId() != null ? aggregates.get(current.getHotelId()) : null;
+        if (aggregate != null) {
+            aggregate.apply(previous, current, LocalDateTime.now());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        if (event.getHotelId() != null) {
+            aggregates.remove(event.getHotelId());
+        }
+    }
+
+    /**
+     * Reloads every cached hotel from the database and reports the ones whose counters had drifted.
+     */
+    @Scheduled(fixedDelayString = "${hotel-stats.reconcile-interval-ms:300000}",
+               initialDelayString = "${hotel-stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        int drifted = 0;
+        for (Long hotelId : aggregates.keySet()) {
+            Loaded loaded = load(hotelId);
+            if (loaded.partial()) {
+                continue; // keep what is cached; the next run tries again
+            }
+            HotelStatsAggregate fresh = loaded.aggregate();
+            HotelStatsAggregate previous = aggregates.put(hotelId, fresh);
+            if (previous != null && !previous.sameCounters(fresh)) {
+                drifted++;
+            }
+        }
+        if (drifted > 0) {
+            log.warn("Hotel dashboard counters drifted from the database for {} hotels, reloaded them", drifted);
+        }
+    }
+
+    private Loaded load(Long hotelId) {
+        LocalDateTime now = LocalDateTime.now();
+        YearMonth month = YearMonth.from(now);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(loadDeadlineMillis);
+        List<Future<?>> started = new ArrayList<>();
+        Future<Long> bookings = submit(started, () -> reservationRepository.countByHotelId(hotelId));
+        Future<Double> revenue = submit(started, () -> {
+            Double sum = reservationRepository.calculateRevenueForPeriod(hotelId,
+                    month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay().minusNanos(1));
+            return sum != null ? sum : 0.0;
+        });
+        Future<List<Object[]>> rooms = submit(started, () -> roomRepository.findRoomStatesByHotelId(hotelId));
+        Future<List<ReservationIntervalDTO>> checkedIn = submit(started, () ->
+                reservationRepository.findIntervalsByHotelIdAndStatus(hotelId, ReservationStatus.CHECKED_IN));
+        Future<Long> available = submit(started, () ->
+                occupancyView.countByHotelIdAndStatus(hotelId, RoomStatus.AVAILABLE));
+        Future<List<RankedReservations.Entry>> recent = submit(started, () -> toEntries(
+                reservationRepository.findRecentByHotelId(hotelId, PageRequest.of(0, HotelStatsAggregate.SHOWN)),
+                Reservation::getCreatedAt));
+        Future<List<RankedReservations.Entry>> upcoming = submit(started, () -> toEntries(
+                reservationRepository.findUpcomingCheckouts(hotelId, now,
+                        PageRequest.of(0, HotelStatsAggregate.UPCOMING_KEPT)),
+                Reservation::getCheckOutTime));
+
+        try {
+            HotelStatsAggregate aggregate = new HotelStatsAggregate(hotelId, month);
+            List<String> missing = new ArrayList<>();
+            Long bookingCount = await(bookings, deadline, "totalBookings", missing);
+            if (bookingCount != null) {
+                aggregate.totalBookings.add(bookingCount);
+            }
+            Double revenueSum = await(revenue, deadline, "monthlyRevenue", missing);
+            if (revenueSum != null) {
+                aggregate.monthlyRevenueCents.add(Math.round(revenueSum * 100));
+            }
+            List<Object[]> roomStates = await(rooms, deadline, "roomTypeStats", missing);
+            if (roomStates != null) {
+                aggregate.loadRooms(roomStates);
+            }
+            List<ReservationIntervalDTO> stays = await(checkedIn, deadline, "activeGuests", missing);
+            if (stays != null) {
+                aggregate.loadCheckedIn(stays);
+            }
+            Long availableRooms = await(available, deadline, "availableRooms", missing);
+            if (availableRooms != null) {
+                aggregate.setAvailableRooms(availableRooms.intValue());
+            }
+            List<RankedReservations.Entry> recentEntries = await(recent, deadline, "recentBookings", missing);
+            aggregate.recentBookings.reset(recentEntries != null ? recentEntries : List.of());
+            List<RankedReservations.Entry> upcomingEntries = await(upcoming, deadline, "upcomingCheckouts", missing);
+            aggregate.upcomingCheckouts.reset(upcomingEntries != null ? upcomingEntries : List.of());
+            return new Loaded(aggregate, missing);
+        } finally {
+            // nothing outlives the call: whatever is still running after the deadline or a failure is cancelled
+            started.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <T> Future<T> submit(List<Future<?>> started, Supplier<T> query) {
+        try {
+            Future<T> future = loader.submit(() -> subQueryTransaction.execute(status -> query.get()));
+            started.add(future);
+            return future;
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * The result of a sub-query, or null if it was not done by the deadline, hit its query timeout or found no free
+     * loader thread, in which case {@code section} is added to {@code missing}. Any other failure is rethrown.
+     */
+    private static <T> T await(Future<T> future, long deadline, String section, List<String> missing) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            missing.add(section);
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof QueryTimeoutException || e.getCause() instanceof TransactionTimedOutException
+                    || e.getCause() instanceof RejectedExecutionException) {
+                missing.add(section);
+                return null;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading hotel stats", e);
+        }
+    }
+
+    private HotelStatsDTO toStats(HotelStatsAggregate aggregate) {
+        Long hotelId = aggregate.hotelId;
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (aggregate) {
+            aggregate.upcomingCheckouts.dropUpTo(now);
+        }
+        return HotelStatsDTO.builder()
+                .totalBookings(aggregate.totalBookings.sum())
+                .activeGuests(aggregate.activeGuests())
+                .availableRooms(aggregate.availableRooms())
+                .monthlyRevenue(aggregate.monthlyRevenueCents.sum() / 100.0)
+                .recentBookings(shown(aggregate, aggregate.recentBookings,
+                        () -> reservationRepository.findRecentByHotelId(
+                                hotelId, PageRequest.of(0, HotelStatsAggregate.SHOWN)),
+                        Reservation::getCreatedAt))
+                .roomTypeStats(aggregate.roomTypeStats())
+                .upcomingCheckouts(shown(aggregate, aggregate.upcomingCheckouts,
+                        () -> reservationRepository.findUpcomingCheckouts(
+                                hotelId, now, PageRequest.of(0, HotelStatsAggregate.UPCOMING_KEPT)),
+                        Reservation::getCheckOutTime))
+                .build();
+    }
+
+    /**
+     * The first reservations of a ranking as DTOs. Refills the ranking if it ran short, and loads the DTOs of
+     * entries added or changed since the last dashboard load with one query.
+     */
+    private List<ReservationDTO> shown(HotelStatsAggregate aggregate, RankedReservations ranking,
+                                       Supplier<List<Reservation>> reload,
+                                       Function<Reservation, LocalDateTime> key) {
+        boolean refill;
+        synchronized (aggregate) {
+            refill = ranking.needsRefill(HotelStatsAggregate.SHOWN);
+        }
+        if (refill) {
+            List<RankedReservations.Entry> loaded = readOnlyTransaction.execute(status -> toEntries(reload.get(), key));
+            synchronized (aggregate) {
+                ranking.reset(loaded);
+            }
+        }
+
+        List<RankedReservations.Entry> entries;
+        synchronized (aggregate) {
+            entries = ranking.first(HotelStatsAggregate.SHOWN);
+        }
+        List<Long> missing = entries.stream().filter(entry -> entry.dto() == null).map(RankedReservations.Entry::id).toList();
+        if (missing.isEmpty()) {
+            return entries.stream().map(RankedReservations.Entry::dto).toList();
+        }
+
+        Map<Long, ReservationDTO> loaded = readOnlyTransaction.execute(status ->
+                reservationRepository.findAllById(missing).stream()
+                        .collect(Collectors.toMap(Reservation::getId, ReservationDTO::fromEntity)));
+        synchronized (aggregate) {
+            for (RankedReservations.Entry entry : entries) {
+                if (entry.dto() == null && loaded.containsKey(entry.id())) {
+                    ranking.attach(entry, loaded.get(entry.id()));
+                }
+            }
+        }
+        return entries.stream()
+                .map(entry -> entry.dto() != null ? entry.dto() : loaded.get(entry.id()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static List<RankedReservations.Entry> toEntries(List<Reservation> reservations,
+                                                             Function<Reservation, LocalDateTime> key) {
+        return reservations.stream()
+                .filter(reservation -> key.apply(reservation) != null)
+                .map(reservation -> new RankedReservations.Entry(
+                        reservation.getId(), key.apply(reservation), ReservationDTO.fromEntity(reservation)))
+                .toList();
+    }
+}
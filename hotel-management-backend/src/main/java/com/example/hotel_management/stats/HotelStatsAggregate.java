@@ -0,0 +1,166 @@
+package com.example.hotel_management.stats;
+
+import com.example.hotel_management.dto.HotelStatsDTO;
+import com.example.hotel_management.dto.ReservationIntervalDTO;
+import com.example.hotel_management.enums.ReservationStatus;
+import com.example.hotel_management.enums.RoomStatus;
+import com.example.hotel_management.event.ReservationSnapshot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dashboard figures of one hotel, loaded once from the database and then moved by reservation events.
+ * <p>
+ * Booking count and revenue are plain adders. Active guests and available rooms follow check-ins and
+ * check-outs through the set of checked-in stays per room. Revenue is tracked for a single calendar month;
+ * the aggregate is reloaded when the month changes. Everything except the adders is guarded by this object.
+ */
+final class HotelStatsAggregate {
+
+    // reservations shown in each dashboard list
+    static final int SHOWN = 5;
+    // upcoming check-outs fall off as time passes, so a few more are kept before a refill is needed
+    static final int UPCOMING_KEPT = SHOWN * 4;
+
+    final Long hotelId;
+    final YearMonth month;
+
+    final LongAdder totalBookings = new LongAdder();
+    final LongAdder monthlyRevenueCents = new LongAdder();
+    final RankedReservations recentBookings = new RankedReservations(SHOWN, true);
+    final RankedReservations upcomingCheckouts = new RankedReservations(UPCOMING_KEPT, false);
+
+    private int availableRooms;
+    private int totalRooms;
+    private final Map<String, Integer> roomsByType = new TreeMap<>();
+    private final Set<Long> maintenanceRooms = new HashSet<>();
+    private final Map<Long, Long> checkedInRoomByReservation = new HashMap<>();
+    private final Map<Long, Integer> checkedInStaysByRoom = new HashMap<>();
+
+    HotelStatsAggregate(Long hotelId, YearMonth month) {
+        this.hotelId = hotelId;
+        this.month = month;
+    }
+
+    /**
+     * Takes the rooms of the hotel as (id, name, stored status) rows.
+     */
+    synchronized void loadRooms(List<Object[]> rooms) {
+        for (Object[] room : rooms) {
+            roomsByType.merge((String) room[1], 1, Integer::sum);
+            if (room[2] == RoomStatus.MAINTENANCE) {
+                maintenanceRooms.add((Long) room[0]);
+            }
+        }
+        totalRooms = rooms.size();
+    }
+
+    synchronized void loadCheckedIn(List<ReservationIntervalDTO> stays) {
+        stays.forEach(stay -> checkIn(stay.getId(), stay.getRoomId()));
+    }
+
+    synchronized void setAvailableRooms(int availableRooms) {
+        this.availableRooms = availableRooms;
+    }
+
+    synchronized void apply(ReservationSnapshot previous, ReservationSnapshot current, LocalDateTime now) {
+        Long id = current.getId();
+        if (previous == null) {
+            totalBookings.increment();
+            if (inMonth(current.getCreatedAt())) {
+                monthlyRevenueCents.add(toCents(current.getTotalPrice()));
+            }
+            if (current.getCreatedAt() != null) {
+                recentBookings.offer(id, current.getCreatedAt());
+            }
+        } else {
+            if (inMonth(current.getCreatedAt())) {
+                monthlyRevenueCents.add(toCents(current.getTotalPrice()) - toCents(previous.getTotalPrice()));
+            }
+            recentBookings.invalidate(id);
+        }
+
+        if (previous != null && previous.getStatus() == ReservationStatus.CHECKED_IN) {
+            checkOut(id);
+        }
+        if (current.getStatus() == ReservationStatus.CHECKED_IN && current.getRoomId() != null) {
+            checkIn(id, current.getRoomId());
+        }
+
+        if (previous != null && Objects.equals(previous.getCheckOutTime(), current.getCheckOutTime())) {
+            upcomingCheckouts.invalidate(id);
+        } else if (current.getCheckOutTime() != null && current.getCheckOutTime().isAfter(now)) {
+            upcomingCheckouts.offer(id, current.getCheckOutTime());
+        } else {
+            upcomingCheckouts.remove(id);
+        }
+    }
+
+    private void checkIn(Long reservationId, Long roomId) {
+        if (checkedInRoomByReservation.putIfAbsent(reservationId, roomId) != null) {
+            return;
+        }
+        if (checkedInStaysByRoom.merge(roomId, 1, Integer::sum) == 1 && !maintenanceRooms.contains(roomId)) {
+            availableRooms--;
+        }
+    }
+
+    private void checkOut(Long reservationId) {
+        Long roomId = checkedInRoomByReservation.remove(reservationId);
+        if (roomId == null) {
+            return;
+        }
+        if (checkedInStaysByRoom.merge(roomId, -1, Integer::sum) <= 0) {
+            checkedInStaysByRoom.remove(roomId);
+            if (!maintenanceRooms.contains(roomId)) {
+                availableRooms++;
+            }
+        }
+    }
+
+    synchronized int activeGuests() {
+        return checkedInRoomByReservation.size();
+    }
+
+    synchronized int availableRooms() {
+        return Math.max(0, availableRooms);
+    }
+
+    synchronized List<HotelStatsDTO.RoomTypeStatsDTO> roomTypeStats() {
+        return roomsByType.entrySet().stream()
+                .map(type -> HotelStatsDTO.RoomTypeStatsDTO.builder()
+                        .type(type.getKey())
+                        .percentage(type.getValue() * 100.0 / totalRooms)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Whether the counters match another aggregate of the same hotel, e.g. one freshly loaded from the database.
+     */
+    boolean sameCounters(HotelStatsAggregate other) {
+        return totalBookings.sum() == other.totalBookings.sum()
+                && monthlyRevenueCents.sum() == other.monthlyRevenueCents.sum()
+                && activeGuests() == other.activeGuests()
+                && availableRooms() == other.availableRooms();
+    }
+
+    private boolean inMonth(LocalDateTime createdAt) {
+        return createdAt != null && YearMonth.from(createdAt).equals(month);
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.hotel_management.stats;
+
+import com.example.hotel_management.availability.RoomOccupancyView;
+import com.example.hotel_management.dto.HotelStatsDTO;
+import com.example.hotel_management.repository.ReservationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hotel dashboard from a single query, cached per hotel.
+ * <p>
+ * The whole {@link HotelStatsDTO} comes back from {@link ReservationRepository#findHotelDashboardJson} in one round
+ * trip. A result younger than the TTL is served as is. An older one is still served while it is within the stale
+ * window, and one background refresh per hotel replaces it. Only when nothing usable is cached does a request
+ * wait, and concurrent requests for the same hotel then wait on the same load. Each hotel therefore costs at
+ * most one query per TTL however many dashboards are refreshing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotelStatsQueryCache {
+
+    private final ReservationRepository reservationRepository;
+    private final RoomOccupancyView occupancyView;
+    private final ObjectMapper objectMapper;
+
+    @Value("${hotel-stats.cache.ttl-ms:5000}")
+    private long ttlMillis;
+
+    @Value("${hotel-stats.cache.stale-ms:60000}")
+    private long staleMillis;
+
+    private final Map<Long, CompletableFuture<CachedStats>> cache = new ConcurrentHashMap<>();
+    private ExecutorService refresher;
+
+    private record CachedStats(HotelStatsDTO stats, long loadedAtNanos, AtomicBoolean refreshing) {
+        long ageMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadedAtNanos);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        refresher = new ThreadPoolExecutor(1, 2, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(64), runnable -> {
+            Thread thread = new Thread(runnable, "hotel-stats-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdown();
+    }
+
+    public HotelStatsDTO getStats(Long hotelId) {
+        while (true) {
+            CompletableFuture<CachedStats> entry = cache.get(hotelId);
+            if (entry == null) {
+                CompletableFuture<CachedStats> loading = new CompletableFuture<>();
+                if (cache.putIfAbsent(hotelId, loading) == null) {
+                    return load(hotelId, loading);
+                }
+                continue;
+            }
+            if (!entry.isDone()) {
+                return await(entry);
+            }
+
+            // failed loads are removed before they complete, so a finished entry always holds stats
+            CachedStats cached = entry.join();
+            long age = cached.ageMillis();
+            if (age < ttlMillis) {
+                return cached.stats();
+            }
+            if (age < ttlMillis + staleMillis) {
+                refreshInBackground(hotelId, entry, cached);
+                return cached.stats();
+            }
+            // too old to serve: whoever swaps in the new future loads, everyone else waits on it
+            CompletableFuture<CachedStats> loading = new CompletableFuture<>();
+            if (cache.replace(hotelId, entry, loading)) {
+                return load(hotelId, loading);
+            }
+        }
+    }
+
+    private void refreshInBackground(Long hotelId, CompletableFuture<CachedStats> entry, CachedStats cached) {
+        if (!cached.refreshing().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    cache.replace(hotelId, entry, CompletableFuture.completedFuture(query(hotelId)));
+                } catch (RuntimeException e) {
+                    log.warn("Refreshing dashboard stats of hotel {} failed: {}", hotelId, e.getMessage());
+                } finally {
+                    cached.refreshing().set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            cached.refreshing().set(false);
+        }
+    }
+
+    private HotelStatsDTO load(Long hotelId, CompletableFuture<CachedStats> loading) {
+        try {
+            CachedStats loaded = query(hotelId);
+            loading.complete(loaded);
+            return loaded.stats();
+        } catch (RuntimeException e) {
+            // do not cache the failure; the next request tries again
+            cache.remove(hotelId, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static HotelStatsDTO await(CompletableFuture<CachedStats> entry) {
+        try {
+            return entry.join().stats();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CachedStats query(Long hotelId) {
+        LocalDateTime now = LocalDateTime.now();
+        YearMonth month = YearMonth.from(now);
+        String json = reservationRepository.findHotelDashboardJson(hotelId, now,
+                month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay(),
+                occupancyView.isDerived(), HotelStatsAggregate.SHOWN);
+        try {
+            return new CachedStats(objectMapper.readValue(json, HotelStatsDTO.class), System.nanoTime(),
+                    new AtomicBoolean());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read dashboard stats of hotel " + hotelId, e);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.hotel_management.stats;
+
+import com.example.hotel_management.availability.RoomOccupancyView;
+import com.example.hotel_management.dto.HotelStatsDTO;
+import com.example.hotel_management.dto.PortfolioStatsDTO;
+import com.example.hotel_management.dto.ReservationDTO;
+import com.example.hotel_management.repository.ReservationRepository;
+import com.example.hotel_management.repository.RoomRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dashboard stats of every hotel an admin manages, in one call.
+ * <p>
+ * Counters and room type shares of all hotels come from two grouped queries. Only the reservation lists are
+ * loaded per hotel; those loads run on a small shared pool, so a large portfolio neither runs them one after
+ * another nor takes more than {@code hotel-stats.portfolio.concurrency} database connections at once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PortfolioStats {
+
+    private static final Comparator<ReservationDTO> NEWEST_FIRST = Comparator
+            .comparing(ReservationDTO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ReservationDTO::getId, Comparator.reverseOrder());
+    private static final Comparator<ReservationDTO> NEXT_CHECKOUT_FIRST = Comparator
+            .comparing(ReservationDTO::getCheckOutTime, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ReservationDTO::getId);
+
+    private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+    private final RoomOccupancyView occupancyView;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${hotel-stats.portfolio.concurrency:4}")
+    private int concurrency;
+
+    private TransactionTemplate readOnlyTransaction;
+    private ExecutorService loader;
+
+    private record HotelLists(List<ReservationDTO> recent, List<ReservationDTO> upcoming) {
+    }
+
+    @PostConstruct
+    void start() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "portfolio-stats-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        loader = executor;
+    }
+
+    @PreDestroy
+    void stop() {
+        loader.shutdown();
+    }
+
+    public PortfolioStatsDTO getStats(Long adminId) {
+        LocalDateTime now = LocalDateTime.now();
+        YearMonth month = YearMonth.from(now);
+        List<Object[]> counters = readOnlyTransaction.execute(status -> reservationRepository.findPortfolioCounters(
+                adminId, now, month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay(),
+                occupancyView.isDerived()));
+        Map<Long, Map<String, Long>> roomTypes = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (Object[] row : roomRepository.countRoomTypesByAdminId(adminId)) {
+                roomTypes.computeIfAbsent((Long) row[0], id -> new TreeMap<>())
+                        .put((String) row[1], (Long) row[2]);
+            }
+        });
+
+        Map<Long, CompletableFuture<HotelLists>> lists = new HashMap<>();
+        for (Object[] row : counters) {
+            Long hotelId = ((Number) row[0]).longValue();
+            lists.put(hotelId, CompletableFuture.supplyAsync(() -> loadLists(hotelId, now), loader));
+        }
+
+        List<PortfolioStatsDTO.HotelEntryDTO> hotels = new ArrayList<>(counters.size());
+        Map<String, Long> allRoomTypes = new TreeMap<>();
+        List<ReservationDTO> allRecent = new ArrayList<>();
+        List<ReservationDTO> allUpcoming = new ArrayList<>();
+        HotelStatsDTO total = HotelStatsDTO.builder().build();
+        for (Object[] row : counters) {
+            Long hotelId = ((Number) row[0]).longValue();
+            Map<String, Long> types = roomTypes.getOrDefault(hotelId, Map.of());
+            HotelLists hotelLists = await(lists.get(hotelId));
+            HotelStatsDTO stats = HotelStatsDTO.builder()
+                    .totalBookings(((Number) row[2]).longValue())
+                    .activeGuests(((Number) row[3]).intValue())
+                    .monthlyRevenue(((Number) row[4]).doubleValue())
+                    .availableRooms(((Number) row[5]).intValue())
+                    .roomTypeStats(roomTypeStats(types))
+                    .recentBookings(hotelLists.recent())
+                    .upcomingCheckouts(hotelLists.upcoming())
+                    .build();
+            hotels.add(PortfolioStatsDTO.HotelEntryDTO.builder()
+                    .hotelId(hotelId)
+                    .hotelName((String) row[1])
+                    .stats(stats)
+                    .build());
+
+            total.setTotalBookings(total.getTotalBookings() + stats.getTotalBookings());
+            total.setActiveGuests(total.getActiveGuests() + stats.getActiveGuests());
+            total.setAvailableRooms(total.getAvailableRooms() + stats.getAvailableRooms());
+            total.setMonthlyRevenue(total.getMonthlyRevenue() + stats.getMonthlyRevenue());
+            types.forEach((type, rooms) -> allRoomTypes.merge(type, rooms, Long::sum));
+            allRecent.addAll(hotelLists.recent());
+            allUpcoming.addAll(hotelLists.upcoming());
+        }
+        total.setRoomTypeStats(roomTypeStats(allRoomTypes));
+        total.setRecentBookings(first(allRecent, NEWEST_FIRST));
+        total.setUpcomingCheckouts(first(allUpcoming, NEXT_CHECKOUT_FIRST));
+
+        return PortfolioStatsDTO.builder()
+                .adminId(adminId)
+                .hotelCount(hotels.size())
+                .total(total)
+                .hotels(hotels)
+                .build();
+    }
+
+    private HotelLists loadLists(Long hotelId, LocalDateTime now) {
+        return readOnlyTransaction.execute(status -> new HotelLists(
+                reservationRepository.findRecentByHotelId(hotelId, PageRequest.of(0, HotelStatsAggregate.SHOWN))
+                        .stream().map(ReservationDTO::fromEntity).toList(),
+                reservationRepository.findUpcomingCheckouts(hotelId, now, PageRequest.of(0, HotelStatsAggregate.SHOWN))
+                        .stream().map(ReservationDTO::fromEntity).toList()));
+    }
+
+    private static HotelLists await(CompletableFuture<HotelLists> lists) {
+        try {
+            return lists.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static List<HotelStatsDTO.RoomTypeStatsDTO> roomTypeStats(Map<String, Long> roomsByType) {
+        long rooms = roomsByType.values().stream().mapToLong(Long::longValue).sum();
+        return roomsByType.entrySet().stream()
+                .map(type -> HotelStatsDTO.RoomTypeStatsDTO.builder()
+                        .type(type.getKey())
+                        .percentage(type.getValue() * 100.0 / rooms)
+                        .build())
+                .toList();
+    }
+
+    private static List<ReservationDTO> first(List<ReservationDTO> reservations, Comparator<ReservationDTO> order) {
+        return reservations.stream().sorted(order).limit(HotelStatsAggregate.SHOWN).toList();
+    }
+}
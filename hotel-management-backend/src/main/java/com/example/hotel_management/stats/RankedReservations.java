@@ -0,0 +1,120 @@
+package com.example.hotel_management.stats;
+
+import com.example.hotel_management.dto.ReservationDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The first few reservations of a hotel in one order (newest bookings, next check-outs), kept bounded.
+ * <p>
+ * Only the ranking key is maintained from events; the DTO shown on the dashboard is loaded once and dropped
+ * whenever the reservation changes. When entries past the capacity have been dropped the list is no longer
+ * complete, and once it shrinks below what the dashboard shows it has to be refilled from the database.
+ * Not thread-safe; guarded by the owning {@link HotelStatsAggregate}.
+ */
+final class RankedReservations {
+
+    record Entry(Long id, LocalDateTime key, ReservationDTO dto) {
+    }
+
+    private final int capacity;
+    private final TreeSet<Entry> entries;
+    private final Map<Long, Entry> byId = new HashMap<>();
+    // false once entries past the capacity were dropped, i.e. the database may rank more than is kept here
+    private boolean complete;
+
+    RankedReservations(int capacity, boolean descending) {
+        Comparator<Entry> ascending = Comparator.comparing(Entry::key).thenComparing(Entry::id);
+        this.capacity = capacity;
+        this.entries = new TreeSet<>(descending ? ascending.reversed() : ascending);
+    }
+
+    /**
+     * Replaces the contents with rows loaded from the database in ranking order, at most {@code capacity} of them.
+     */
+    void reset(List<Entry> loaded) {
+        entries.clear();
+        byId.clear();
+        loaded.forEach(this::insert);
+        complete = loaded.size() < capacity;
+    }
+
+    /**
+     * Adds or moves the reservation, unless it ranks past what is kept and the list is already truncated.
+     */
+    void offer(Long id, LocalDateTime key) {
+        remove(id);
+        Entry entry = new Entry(id, key, null);
+        if (!complete && (entries.isEmpty() || entries.comparator().compare(entry, entries.last()) > 0)) {
+            return; // something in the database may rank before it; the next refill will decide
+        }
+        insert(entry);
+        while (entries.size() > capacity) {
+            byId.remove(entries.pollLast().id());
+            complete = false;
+        }
+    }
+
+    /**
+     * Forgets the DTO of a kept reservation whose ranking key did not change; a load already in flight for it
+     * will not be attached.
+     */
+    void invalidate(Long id) {
+        Entry existing = byId.get(id);
+        if (existing != null) {
+            entries.remove(existing);
+            insert(new Entry(id, existing.key(), null));
+        }
+    }
+
+    void remove(Long id) {
+        Entry existing = byId.remove(id);
+        if (existing != null) {
+            entries.remove(existing);
+        }
+    }
+
+    /**
+     * Drops entries from the head of an ascending list whose key is not after {@code cutoff}.
+     */
+    void dropUpTo(LocalDateTime cutoff) {
+        while (!entries.isEmpty() && !entries.first().key().isAfter(cutoff)) {
+            byId.remove(entries.pollFirst().id());
+        }
+    }
+
+    boolean needsRefill(int wanted) {
+        return !complete && entries.size() < wanted;
+    }
+
+    List<Entry> first(int count) {
+        List<Entry> result = new ArrayList<>(Math.min(count, entries.size()));
+        Iterator<Entry> iterator = entries.iterator();
+        while (iterator.hasNext() && result.size() < count) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    /**
+     * Stores the DTO loaded for {@code seen}, unless the reservation changed or left the list in the meantime.
+     */
+    void attach(Entry seen, ReservationDTO dto) {
+        if (byId.get(seen.id()) == seen) {
+            entries.remove(seen);
+            insert(new Entry(seen.id(), seen.key(), dto));
+        }
+    }
+
+    private void insert(Entry entry) {
+        entries.add(entry);
+        byId.put(entry.id(), entry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.hotel_management.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Immutable binary content addressed by its SHA-256. Writing the same bytes twice stores them once, and a key
+ * always refers to the same content, so readers may cache a blob forever.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the stream's content, read to the end but not closed, and returns its key. Content that is already
+     * stored counts as written again, so a sweep leaves it alone while the caller stores a reference to it.
+     */
+    StoredBlob put(InputStream content) throws IOException;
+
+    /**
+     * The blob stored under {@code hash}, or empty if there is none or the key is not a SHA-256 hex string.
+     */
+    Optional<Resource> get(String hash);
+
+    /**
+     * Keys of the blobs last written before {@code cutoff}. The stream must be closed.
+     */
+    Stream<String> writtenBefore(Instant cutoff) throws IOException;
+
+    /**
+     * Removes the blob stored under {@code hash} unless it was written again at or after {@code cutoff}, also by a
+     * put running at the same time. Returns true if it was removed.
+     */
+    boolean deleteIfWrittenBefore(String hash, Instant cutoff) throws IOException;
+}
@@ -0,0 +1,83 @@
+package com.example.hotel_management.storage;
+
+import com.example.hotel_management.entity.Picture;
+import com.example.hotel_management.repository.PictureRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Removes blobs nothing refers to any more, such as one stored for an upload whose picture could not be saved.
+ * <p>
+ * Blobs are shared by every picture with the same content, so a blob is only removed once no row refers to it and
+ * it has not been written for the grace period. Every writer puts its blob before it saves the row that refers to
+ * it, and a put of content that is already stored counts as a write, so a reference that is not committed yet
+ * always belongs to a blob written within the grace period.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BlobSweeper {
+
+    private final BlobStore blobStore;
+    private final PictureRepository pictureRepository;
+
+    @Value("${storage.blobs.sweep.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.blobs.sweep.grace-ms:86400000}")
+    private long graceMillis;
+
+    @Value("${storage.blobs.sweep.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${storage.blobs.sweep.interval-ms:3600000}",
+               fixedDelayString = "${storage.blobs.sweep.interval-ms:3600000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Instant cutoff = Instant.now().minusMillis(graceMillis);
+        int removed = 0;
+        try (Stream<String> candidates = blobStore.writtenBefore(cutoff)) {
+            Iterator<String> hashes = candidates.iterator();
+            List<String> batch = new ArrayList<>(batchSize);
+            while (hashes.hasNext()) {
+                batch.add(hashes.next());
+                if (batch.size() == batchSize || !hashes.hasNext()) {
+                    removed += sweepBatch(batch, cutoff);
+                    batch.clear();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Blob sweep stopped after removing {} blobs: {}", removed, e.getMessage());
+            return;
+        }
+        if (removed > 0) {
+            log.info("Removed {} unreferenced blobs in {} ms", removed, System.currentTimeMillis() - started);
+        }
+    }
+
+    private int sweepBatch(List<String> batch, Instant cutoff) throws IOException {
+        Set<String> referenced = new HashSet<>(pictureRepository.findReferencedHashes(batch, Picture.BLOB_PATH));
+        int removed = 0;
+        for (String hash : batch) {
+            if (!referenced.contains(hash) && blobStore.deleteIfWrittenBefore(hash, cutoff)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
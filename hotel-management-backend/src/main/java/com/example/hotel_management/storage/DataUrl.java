@@ -0,0 +1,38 @@
+package com.example.hotel_management.storage;
+
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * A base64 {@code data:<content type>;base64,<payload>} URL, the way pictures used to be stored.
+ */
+public record DataUrl(String contentType, byte[] content) {
+
+    private static final String SCHEME = "data:";
+    private static final String BASE64 = ";base64";
+
+    public static boolean isDataUrl(String url) {
+        return url != null && url.startsWith(SCHEME);
+    }
+
+    /**
+     * The decoded URL, or empty if it is not a base64 data: URL or its payload does not decode.
+     */
+    public static Optional<DataUrl> parse(String url) {
+        if (!isDataUrl(url)) {
+            return Optional.empty();
+        }
+        int comma = url.indexOf(',');
+        String header = comma > 0 ? url.substring(SCHEME.length(), comma) : "";
+        if (!header.endsWith(BASE64)) {
+            return Optional.empty();
+        }
+        try {
+            byte[] content = Base64.getMimeDecoder().decode(url.substring(comma + 1));
+            String contentType = header.substring(0, header.length() - BASE64.length());
+            return Optional.of(new DataUrl(contentType.isEmpty() ? "application/octet-stream" : contentType, content));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.hotel_management.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keeps blobs as files under {@code storage.blobs.root}, at {@code ab/cd/abcd...} for a hash starting with
+ * {@code abcd}. Uploads are streamed to a temporary file while they are hashed and then moved into place
+ * atomically, so a blob is either complete or absent and concurrent uploads of the same content are harmless.
+ * A file's modification time is the blob's last write time.
+ */
+@Slf4j
+@Component
+public class LocalBlobStore implements BlobStore {
+
+    private static final Pattern SHA_256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path incoming;
+
+    public LocalBlobStore(@Value("${storage.blobs.root:./data/blobs}") String root) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+        Files.createDirectories(incoming);
+        log.info("Storing blobs in {}", this.root);
+    }
+
+    @Override
+    public StoredBlob put(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path upload = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            long size;
+            try (OutputStream out = Files.newOutputStream(upload)) {
+                size = new DigestInputStream(content, digest).transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (!refresh(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // stored by a concurrent upload of the same content in the meantime
+                }
+            }
+            return new StoredBlob(hash, size);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    @Override
+    public Optional<Resource> get(String hash) {
+        if (hash == null || !SHA_256_HEX.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path file = pathOf(hash);
+        return Files.isRegularFile(file) ? Optional.of(new FileSystemResource(file)) : Optional.empty();
+    }
+
+    @Override
+    public Stream<String> writtenBefore(Instant cutoff) throws IOException {
+        return Files.walk(root)
+                .filter(file -> !file.startsWith(incoming))
+                .filter(file -> SHA_256_HEX.matcher(file.getFileName().toString()).matches())
+                .filter(file -> isWrittenBefore(file, cutoff))
+                .map(file -> file.getFileName().toString());
+    }
+
+    @Override
+    public boolean deleteIfWrittenBefore(String hash, Instant cutoff) throws IOException {
+        if (hash == null || !SHA_256_HEX.matcher(hash).matches()) {
+            return false;
+        }
+        Path file = pathOf(hash);
+        Path swept = incoming.resolve("sweep-" + hash);
+        try {
+            Files.move(file, swept, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        // a put that found the blob before the move has refreshed its time; a put after the move stores a new copy
+        if (isWrittenBefore(swept, cutoff)) {
+            Files.delete(swept);
+            return true;
+        }
+        // replaces any copy a concurrent put stored meanwhile, which has the same content
+        Files.move(swept, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return false;
+    }
+
+    // true if the blob was there and now counts as just written
+    private static boolean refresh(Path file) throws IOException {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static boolean isWrittenBefore(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
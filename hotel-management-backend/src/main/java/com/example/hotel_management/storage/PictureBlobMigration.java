@@ -0,0 +1,110 @@
+package com.example.hotel_management.storage;
+
+import com.example.hotel_management.entity.Picture;
+import com.example.hotel_management.event.PictureStoredEvent;
+import com.example.hotel_management.repository.PictureRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves pictures still stored as base64 {@code data:} URLs into the {@link BlobStore}, a batch per transaction,
+ * until none are left. Pictures whose URL cannot be decoded are logged and left as they are.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PictureBlobMigration {
+
+    private final PictureRepository pictureRepository;
+    private final BlobStore blobStore;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${storage.pictures.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.pictures.migration.batch-size:20}")
+    private int batchSize;
+
+    private TransactionTemplate transaction;
+    // nothing writes data: URLs any more, so once drained there is nothing left to look for
+    private volatile boolean drained;
+
+    private record Batch(int moved, long lastId) {
+    }
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${storage.pictures.migration.interval-ms:30000}",
+               fixedDelayString = "${storage.pictures.migration.interval-ms:30000}")
+    public void drain() {
+        if (!enabled || drained) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long afterId = 0;
+        int moved = 0;
+        while (true) {
+            long from = afterId;
+            Batch batch = transaction.execute(status -> moveBatch(from));
+            if (batch == null || batch.lastId() == from) {
+                break;
+            }
+            moved += batch.moved();
+            afterId = batch.lastId();
+        }
+        drained = true;
+        if (moved > 0) {
+            log.info("Moved {} base64 pictures to the blob store in {} ms", moved, System.currentTimeMillis() - started);
+        }
+    }
+
+    private Batch moveBatch(long afterId) {
+        List<Picture> pictures = pictureRepository.lockDataUrlPictures(afterId, batchSize);
+        long lastId = afterId;
+        int moved = 0;
+        for (Picture picture : pictures) {
+            lastId = picture.getId();
+            if (move(picture)) {
+                moved++;
+            }
+        }
+        return new Batch(moved, lastId);
+    }
+
+    private boolean move(Picture picture) {
+        Optional<DataUrl> dataUrl = DataUrl.parse(picture.getUrl());
+        if (dataUrl.isEmpty()) {
+            log.warn("Picture {} has a data URL that is not valid base64, leaving it in place", picture.getId());
+            return false;
+        }
+        StoredBlob blob;
+        try {
+            blob = blobStore.put(new ByteArrayInputStream(dataUrl.get().content()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store picture " + picture.getId(), e);
+        }
+        picture.setHash(blob.hash());
+        picture.setSizeBytes(blob.size());
+        picture.setContentType(dataUrl.get().contentType());
+        picture.setUrl(null);
+        eventPublisher.publishEvent(new PictureStoredEvent(blob.hash()));
+        return true;
+    }
+}
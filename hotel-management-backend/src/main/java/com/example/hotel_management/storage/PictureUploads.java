@@ -0,0 +1,227 @@
+package com.example.hotel_management.storage;
+
+import com.example.hotel_management.dto.PictureUploadStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Admits picture uploads into the {@link BlobStore}. The body is streamed from the request straight into the
+ * store, hashed on the way, so an upload costs a few kilobytes of buffer however large it is.
+ * <p>
+ * Everything that can be rejected is rejected before the body is read: the declared type must be an allowed
+ * image type, the declared length must fit, and one of {@code max-concurrent} upload slots must free up within
+ * {@code queue-wait-ms}. The first bytes must then match the declared type, and a body without a length, or
+ * lying about it, is cut off as soon as it passes {@code max-bytes}.
+ */
+@Component
+public class PictureUploads {
+
+    // longest signature checked, RIFF....WEBP
+    private static final int SNIFF_BYTES = 12;
+
+    private final BlobStore blobStore;
+    private final long maxBytes;
+    private final Set<String> allowedTypes;
+    private final int maxConcurrent;
+    private final long queueWaitMillis;
+    private final int retryAfterSeconds;
+    private final Semaphore slots;
+
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong rejectedBusy = new AtomicLong();
+    private final AtomicLong rejectedTooLarge = new AtomicLong();
+    private final AtomicLong rejectedType = new AtomicLong();
+
+    public PictureUploads(BlobStore blobStore,
+                          @Value("${storage.pictures.upload.max-bytes:10485760}") long maxBytes,
+                          @Value("${storage.pictures.upload.allowed-types:image/jpeg,image/png,image/webp,image/gif}")
+                          String[] allowedTypes,
+                          @Value("${storage.pictures.upload.max-concurrent:4}") int maxConcurrent,
+                          @Value("${storage.pictures.upload.queue-wait-ms:500}") long queueWaitMillis,
+                          @Value("${storage.pictures.upload.retry-after-seconds:2}") int retryAfterSeconds) {
+        this.blobStore = blobStore;
+        this.maxBytes = maxBytes;
+        this.allowedTypes = Arrays.stream(allowedTypes)
+                .map(type -> type.trim().toLowerCase())
+                .collect(Collectors.toUnmodifiableSet());
+        this.maxConcurrent = maxConcurrent;
+        this.queueWaitMillis = queueWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Streams a picture into the blob store. The stream is read to the end but not closed.
+     *
+     * @param contentType The declared content type, parameters ignored
+     * @param contentLength The declared length, or -1 if unknown
+     * @return The normalized content type and the stored blob
+     * @throws IllegalArgumentException if the type is not an allowed image type or the content is not of that type
+     * @throws MaxUploadSizeExceededException if the picture is larger than max-bytes
+     * @throws RejectedExecutionException if no upload slot frees up in time; the caller should answer 429
+     */
+    public Upload store(String contentType, long contentLength, InputStream content) throws IOException {
+        String type = normalize(contentType);
+        if (contentLength > maxBytes) {
+            rejectedTooLarge.incrementAndGet();
+            throw new MaxUploadSizeExceededException(maxBytes);
+        }
+        acquire();
+        try {
+            BufferedInputStream buffered = new BufferedInputStream(new LimitedInputStream(content, maxBytes));
+            sniff(buffered, type);
+            StoredBlob blob = blobStore.put(buffered);
+            stored.incrementAndGet();
+            storedBytes.addAndGet(blob.size());
+            return new Upload(type, blob);
+        } catch (MaxUploadSizeExceededException e) {
+            rejectedTooLarge.incrementAndGet();
+            throw e;
+        } finally {
+            slots.release();
+        }
+    }
+
+    public record Upload(String contentType, StoredBlob blob) {
+    }
+
+    private String normalize(String contentType) {
+        // only the type/subtype matters; parameters such as charset are not validated
+        String type = contentType == null ? "" : contentType.split(";", 2)[0].trim().toLowerCase();
+        if (!allowedTypes.contains(type)) {
+            rejectedType.incrementAndGet();
+            throw new IllegalArgumentException("Unsupported picture type " + contentType + ", expected one of "
+                    + allowedTypes.stream().sorted().collect(Collectors.joining(", ")));
+        }
+        return type;
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            acquired = slots.tryAcquire(queueWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedBusy.incrementAndGet();
+            throw new RejectedExecutionException("Too many picture uploads in progress, please retry");
+        }
+    }
+
+    /**
+     * Checks the first bytes against the signature of the declared type; types without a known signature pass.
+     */
+    private void sniff(BufferedInputStream content, String type) throws IOException {
+        content.mark(SNIFF_BYTES);
+        byte[] head = content.readNBytes(SNIFF_BYTES);
+        content.reset();
+        boolean matches = switch (type) {
+            case "image/jpeg" -> startsWith(head, 0, 0xFF, 0xD8, 0xFF);
+            case "image/png" -> startsWith(head, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A);
+            case "image/gif" -> startsWith(head, 0, 'G', 'I', 'F', '8');
+            case "image/webp" -> startsWith(head, 0, 'R', 'I', 'F', 'F') && startsWith(head, 8, 'W', 'E', 'B', 'P');
+            default -> true;
+        };
+        if (!matches) {
+            rejectedType.incrementAndGet();
+            throw new IllegalArgumentException("Picture content is not " + type);
+        }
+    }
+
+    private static boolean startsWith(byte[] head, int offset, int... signature) {
+        if (head.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public PictureUploadStatsDTO getStats() {
+        return PictureUploadStatsDTO.builder()
+                .maxConcurrent(maxConcurrent)
+                .inProgress(maxConcurrent - slots.availablePermits())
+                .waiting(slots.getQueueLength())
+                .maxBytes(maxBytes)
+                .stored(stored.get())
+                .storedBytes(storedBytes.get())
+                .rejectedBusy(rejectedBusy.get())
+                .rejectedTooLarge(rejectedTooLarge.get())
+                .rejectedType(rejectedType.get())
+                .build();
+    }
+
+    /**
+     * Fails the read that takes the stream past {@code limit} bytes.
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void count(long n) {
+            count += n;
+            if (count > limit) {
+                throw new MaxUploadSizeExceededException(limit);
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.hotel_management.storage;
+
+import com.example.hotel_management.dto.PictureVariantStatsDTO;
+import com.example.hotel_management.entity.Picture;
+import com.example.hotel_management.entity.PictureRendition;
+import com.example.hotel_management.entity.PictureVariant;
+import com.example.hotel_management.enums.PictureRenditionStatus;
+import com.example.hotel_management.event.PictureStoredEvent;
+import com.example.hotel_management.repository.PictureRenditionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders width variants and a blur placeholder for every picture stored in the {@link BlobStore}.
+ * <p>
+ * Storing a picture only queues a {@link PictureRendition} row in the same transaction, so uploads return at once
+ * and queued work survives restarts. After the commit, and on a timer as a fallback, a dispatcher claims as many
+ * queued rows as there are idle workers and hands them to a bounded pool. A render that fails is queued again
+ * until {@code max-attempts}; a picture ImageIO cannot read fails at once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PictureVariantPipeline {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final PictureRenditionRepository renditionRepository;
+    private final BlobStore blobStore;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${storage.pictures.variants.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.pictures.variants.widths:320,640,1280}")
+    private int[] widths;
+
+    @Value("${storage.pictures.variants.placeholder-width:16}")
+    private int placeholderWidth;
+
+    @Value("${storage.pictures.variants.max-pixels:50000000}")
+    private long maxPixels;
+
+    @Value("${storage.pictures.variants.workers:2}")
+    private int workers;
+
+    @Value("${storage.pictures.variants.max-attempts:3}")
+    private int maxAttempts;
+
+    // a rendition left running this long belonged to an instance that stopped, and is claimed again
+    @Value("${storage.pictures.variants.stale-ms:600000}")
+    private long staleMillis;
+
+    private PictureVariantRenderer renderer;
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor dispatcher;
+    private TransactionTemplate transaction;
+
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong renderFailures = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong variantsWritten = new AtomicLong();
+    private final AtomicLong totalRenderMillis = new AtomicLong();
+    private final AtomicLong maxRenderMillis = new AtomicLong();
+    private volatile long lastRenderMillis;
+    // finish times of renders in the last minute, for throughput
+    private final Deque<Long> recentRenders = new ConcurrentLinkedDeque<>();
+
+    @PostConstruct
+    void start() {
+        renderer = new PictureVariantRenderer(widths, placeholderWidth, maxPixels);
+        transaction = new TransactionTemplate(transactionManager);
+        AtomicInteger threadCount = new AtomicInteger();
+        // the dispatcher only claims what the workers can take, so the work queue never holds more than a round
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "picture-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        // one dispatch running and at most one pending; further wake-ups are covered by the pending one
+        dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "picture-variants-dispatch");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @EventListener
+    public void onPictureStored(PictureStoredEvent event) {
+        renditionRepository.enqueue(event.getHash(), LocalDateTime.now());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPictureCommitted(PictureStoredEvent event) {
+        wake();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void queueMissing() {
+        if (!enabled) {
+            return;
+        }
+        Integer queued = transaction.execute(status ->
+                renditionRepository.enqueueMissing(Picture.BLOB_PATH, LocalDateTime.now()));
+        if (queued != null && queued > 0) {
+            log.info("Queued variants for {} stored pictures", queued);
+        }
+        wake();
+    }
+
+    @Scheduled(initialDelayString = "${storage.pictures.variants.poll-interval-ms:10000}",
+               fixedDelayString = "${storage.pictures.variants.poll-interval-ms:10000}")
+    public void poll() {
+        wake();
+    }
+
+    private void wake() {
+        if (enabled && !dispatcher.isShutdown()) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        try {
+            while (true) {
+                int idle = workers - executor.getActiveCount() - executor.getQueue().size();
+                if (idle <= 0) {
+                    return;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                List<String> claimed = transaction.execute(status ->
+                        renditionRepository.claim(idle, now, now.minusNanos(staleMillis * 1_000_000)));
+                if (claimed == null || claimed.isEmpty()) {
+                    return;
+                }
+                for (String hash : claimed) {
+                    try {
+                        executor.execute(() -> render(hash));
+                    } catch (RejectedExecutionException e) {
+                        finish(hash, "Worker pool busy", true);
+                    }
+                }
+                if (claimed.size() < idle) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not claim queued picture variants", e);
+        }
+    }
+
+    private void render(String hash) {
+        long started = System.nanoTime();
+        try {
+            Optional<Resource> source = blobStore.get(hash);
+            if (source.isEmpty()) {
+                finish(hash, "Picture is not in the blob store", false);
+                return;
+            }
+            PictureVariantRenderer.Rendered output;
+            try (InputStream content = source.get().getInputStream()) {
+                output = renderer.render(content);
+            }
+            List<PictureVariant> variants = new ArrayList<>();
+            for (PictureVariantRenderer.Variant variant : output.variants()) {
+                StoredBlob blob = blobStore.put(new ByteArrayInputStream(variant.content()));
+                variants.add(new PictureVariant(variant.width(), variant.height(), blob.hash(), variant.contentType()));
+            }
+            transaction.executeWithoutResult(status -> renditionRepository.findBySourceHash(hash).ifPresent(rendition -> {
+                rendition.setVariants(variants);
+                rendition.setPlaceholder(output.placeholder());
+                rendition.setStatus(PictureRenditionStatus.DONE);
+                rendition.setLastError(null);
+                rendition.setFinishedAt(LocalDateTime.now());
+            }));
+            variantsWritten.addAndGet(variants.size());
+            record(started);
+        } catch (IllegalArgumentException e) {
+            // the picture itself is the problem; trying again will not help
+            renderFailures.incrementAndGet();
+            finish(hash, e.getMessage(), false);
+        } catch (Exception e) {
+            renderFailures.incrementAndGet();
+            log.warn("Rendering variants of picture {} failed", hash, e);
+            finish(hash, e.toString(), true);
+        } finally {
+            wake();
+        }
+    }
+
+    /**
+     * Puts a rendition that did not complete back in the queue, or marks it failed once it is out of attempts
+     * or not worth retrying.
+     */
+    private void finish(String hash, String error, boolean retry) {
+        try {
+            transaction.executeWithoutResult(tx -> renditionRepository.findBySourceHash(hash).ifPresent(rendition -> {
+                boolean again = retry && rendition.getAttempts() < maxAttempts;
+                rendition.setStatus(again ? PictureRenditionStatus.QUEUED : PictureRenditionStatus.FAILED);
+                rendition.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                        ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                rendition.setFinishedAt(again ? null : LocalDateTime.now());
+                if (again) {
+                    retries.incrementAndGet();
+                }
+            }));
+        } catch (RuntimeException e) {
+            // left running; it is claimed again once stale
+            log.warn("Could not record the outcome of picture {}", hash, e);
+        }
+    }
+
+    private void record(long startedNanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        rendered.incrementAndGet();
+        totalRenderMillis.addAndGet(millis);
+        maxRenderMillis.accumulateAndGet(millis, Math::max);
+        lastRenderMillis = millis;
+        long now = System.currentTimeMillis();
+        recentRenders.addLast(now);
+        trimRecent(now);
+    }
+
+    private void trimRecent(long now) {
+        Long oldest;
+        while ((oldest = recentRenders.peekFirst()) != null && oldest < now - 60_000) {
+            recentRenders.pollFirst();
+        }
+    }
+
+    public PictureVariantStatsDTO getStats() {
+        long queued = 0, running = 0, done = 0, failed = 0;
+        for (Object[] row : renditionRepository.countByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            switch ((PictureRenditionStatus) row[0]) {
+                case QUEUED -> queued = count;
+                case RUNNING -> running = count;
+                case DONE -> done = count;
+                case FAILED -> failed = count;
+            }
+        }
+        trimRecent(System.currentTimeMillis());
+        long renderCount = rendered.get();
+        return PictureVariantStatsDTO.builder()
+                .enabled(enabled)
+                .workers(workers)
+                .activeWorkers(executor.getActiveCount())
+                .waiting(executor.getQueue().size())
+                .queued(queued)
+                .running(running)
+                .done(done)
+                .failed(failed)
+                .rendered(renderCount)
+                .renderFailures(renderFailures.get())
+                .retries(retries.get())
+                .renderedLastMinute(recentRenders.size())
+                .variantsWritten(variantsWritten.get())
+                .averageRenderMillis(renderCount == 0 ? 0 : (double) totalRenderMillis.get() / renderCount)
+                .maxRenderMillis(maxRenderMillis.get())
+                .lastRenderMillis(lastRenderMillis)
+                .build();
+    }
+}
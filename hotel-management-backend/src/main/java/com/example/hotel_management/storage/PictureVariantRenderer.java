@@ -0,0 +1,155 @@
+package com.example.hotel_management.storage;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.ConvolveOp;
+import java.awt.image.Kernel;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Decodes a picture with ImageIO and encodes narrower copies of it: JPEG, or PNG when the picture has
+ * transparency. Widths at or above the picture's own width are skipped, since the original serves them.
+ */
+class PictureVariantRenderer {
+
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final float PLACEHOLDER_QUALITY = 0.5f;
+
+    record Variant(int width, int height, String contentType, byte[] content) {
+    }
+
+    record Rendered(List<Variant> variants, String placeholder) {
+    }
+
+    private final int[] widths;
+    private final int placeholderWidth;
+    private final long maxPixels;
+
+    PictureVariantRenderer(int[] widths, int placeholderWidth, long maxPixels) {
+        this.widths = Arrays.stream(widths).filter(width -> width > 0).sorted().distinct().toArray();
+        this.placeholderWidth = placeholderWidth;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the picture is not in a format ImageIO reads or is too large to decode
+     * @throws IOException if reading the picture or encoding a variant fails
+     */
+    Rendered render(InputStream source) throws IOException {
+        BufferedImage image = decode(source);
+        List<Variant> variants = new ArrayList<>();
+        for (int width : widths) {
+            if (width >= image.getWidth()) {
+                break;
+            }
+            BufferedImage scaled = scale(image, width);
+            boolean alpha = scaled.getColorModel().hasAlpha();
+            variants.add(new Variant(scaled.getWidth(), scaled.getHeight(),
+                    alpha ? "image/png" : "image/jpeg",
+                    alpha ? encodePng(scaled) : encodeJpeg(scaled, JPEG_QUALITY)));
+        }
+        return new Rendered(variants, placeholder(image));
+    }
+
+    private BufferedImage decode(InputStream source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported picture format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // checked before decoding so a small file declaring a huge canvas cannot exhaust the heap
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IllegalArgumentException("Picture has " + pixels + " pixels, more than " + maxPixels);
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Halves the picture until it is less than twice the target width and scales the rest in one bilinear step,
+     * which keeps detail that a single bilinear step from a large picture would alias away.
+     */
+    private static BufferedImage scale(BufferedImage image, int width) {
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= width) {
+            current = draw(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2), type);
+        }
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        return current.getWidth() == width && current.getType() == type ? current : draw(current, width, height, type);
+    }
+
+    private static BufferedImage draw(BufferedImage image, int width, int height, int type) {
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                // JPEG has no transparency; flatten onto white rather than black
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private String placeholder(BufferedImage image) throws IOException {
+        int width = Math.min(placeholderWidth, image.getWidth());
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        BufferedImage tiny = draw(image, width, height, BufferedImage.TYPE_INT_RGB);
+        float[] box = new float[9];
+        Arrays.fill(box, 1f / 9);
+        BufferedImage blurred = new ConvolveOp(new Kernel(3, 3, box), ConvolveOp.EDGE_NO_OP, null).filter(tiny, null);
+        return "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(encodeJpeg(blurred, PLACEHOLDER_QUALITY));
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(content)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return content.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, "png", content)) {
+            throw new IOException("No PNG writer available");
+        }
+        return content.toByteArray();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.hotel_management.storage;
+
+import com.example.hotel_management.dto.RoomDTO;
+import com.example.hotel_management.entity.Picture;
+import com.example.hotel_management.entity.PictureRendition;
+import com.example.hotel_management.entity.PictureVariant;
+import com.example.hotel_management.repository.PictureRenditionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Adds the rendered variants and placeholder to room pictures served from the blob store, with one query
+ * for a whole list. Pictures whose variants are not rendered yet keep only their original URL.
+ */
+@Component
+@RequiredArgsConstructor
+public class PictureVariantView {
+
+    private final PictureRenditionRepository renditionRepository;
+
+    public List<RoomDTO> applyTo(List<RoomDTO> rooms) {
+        applyToPictures(rooms.stream()
+                .flatMap(room -> room.getPictures().stream())
+                .collect(Collectors.toList()));
+        return rooms;
+    }
+
+    public RoomDTO applyTo(RoomDTO room) {
+        applyTo(List.of(room));
+        return room;
+    }
+
+    public void applyToPictures(Collection<RoomDTO.PictureDTO> pictures) {
+        Set<String> hashes = pictures.stream()
+                .map(picture -> hashOf(picture.getUrl()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (hashes.isEmpty()) {
+            return;
+        }
+        Map<String, PictureRendition> renditions = renditionRepository.findDoneBySourceHashIn(hashes).stream()
+                .collect(Collectors.toMap(PictureRendition::getSourceHash, Function.identity()));
+        for (RoomDTO.PictureDTO picture : pictures) {
+            PictureRendition rendition = renditions.get(hashOf(picture.getUrl()));
+            if (rendition == null) {
+                continue;
+            }
+            picture.setPlaceholder(rendition.getPlaceholder());
+            picture.setVariants(rendition.getVariants().stream()
+                    .map(variant -> toDTO(rendition.getSourceHash(), variant))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * URL of the variant of a picture closest to {@code width} without being narrower; the picture's own URL
+     * answers with the same variant when asked for that width.
+     */
+    public static String variantUrl(String sourceHash, int width) {
+        return Picture.BLOB_PATH + sourceHash + "?w=" + width;
+    }
+
+    private static RoomDTO.VariantDTO toDTO(String sourceHash, PictureVariant variant) {
+        return new RoomDTO.VariantDTO(variant.getWidth(), variant.getHeight(),
+                variantUrl(sourceHash, variant.getWidth()));
+    }
+
+    private static String hashOf(String url) {
+        return url != null && url.startsWith(Picture.BLOB_PATH) ? url.substring(Picture.BLOB_PATH.length()) : null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.hotel_management.storage;
+
+/**
+ * A blob as written to a {@link BlobStore}: the lowercase hex SHA-256 of its content, which is also its key,
+ * and its size in bytes.
+ */
+public record StoredBlob(String hash, long size) {
+}
@@ -0,0 +1,16 @@
+-- Partitioned status scheduler: nodes announce themselves in scheduler_nodes and lease partitions of
+-- hotels (hotel_id % partitions) in scheduler_partition_leases. Partition rows are created by the
+-- application for the configured partition count.
+CREATE TABLE IF NOT EXISTS scheduler_nodes (
+    node_id      VARCHAR(255) PRIMARY KEY,
+    heartbeat_at TIMESTAMP NOT NULL,
+    started_at   TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS scheduler_partition_leases (
+    partition_id INTEGER PRIMARY KEY,
+    owner        VARCHAR(255),
+    lease_until  TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_scheduler_partition_leases_owner ON scheduler_partition_leases (owner);
@@ -0,0 +1,5 @@
+-- Supports the derived room occupancy view (rooms.occupancy.derived=true), which looks up the
+-- confirmed or checked-in stay of each room that has not reached its check-out time yet.
+CREATE INDEX IF NOT EXISTS idx_reservations_room_occupying
+    ON reservations (room_id, check_out_time)
+    WHERE status IN ('CONFIRMED', 'CHECKED_IN');
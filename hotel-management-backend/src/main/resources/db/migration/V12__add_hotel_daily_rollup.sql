@@ -0,0 +1,24 @@
+-- Daily revenue and occupancy rollups per hotel and room type (room name), rebuilt incrementally by the
+-- rollup job from the ranges queued in hotel_rollup_dirty_ranges. Every hotel is queued once so the
+-- first job run backfills the history.
+CREATE TABLE IF NOT EXISTS hotel_daily_rollup (
+    id            BIGSERIAL PRIMARY KEY,
+    hotel_id      BIGINT         NOT NULL,
+    room_type     VARCHAR(255)   NOT NULL,
+    day           DATE           NOT NULL,
+    nights_sold   INTEGER        NOT NULL,
+    revenue       NUMERIC(14, 2) NOT NULL,
+    cancellations INTEGER        NOT NULL,
+    CONSTRAINT uk_hotel_daily_rollup UNIQUE (hotel_id, room_type, day)
+);
+
+CREATE INDEX IF NOT EXISTS idx_hotel_daily_rollup_hotel_day ON hotel_daily_rollup (hotel_id, day);
+
+CREATE TABLE IF NOT EXISTS hotel_rollup_dirty_ranges (
+    id       BIGSERIAL PRIMARY KEY,
+    hotel_id BIGINT NOT NULL,
+    from_day DATE,
+    to_day   DATE
+);
+
+INSERT INTO hotel_rollup_dirty_ranges (hotel_id) SELECT id FROM hotels;
@@ -0,0 +1,8 @@
+-- Room pictures move out of base64 data: URLs into the content-addressed blob store (storage.blobs.root).
+-- PictureBlobMigration rewrites the existing rows in the background; url stays for external links.
+ALTER TABLE picture ADD COLUMN IF NOT EXISTS hash VARCHAR(64);
+ALTER TABLE picture ADD COLUMN IF NOT EXISTS size_bytes BIGINT;
+ALTER TABLE picture ADD COLUMN IF NOT EXISTS content_type VARCHAR(255);
+ALTER TABLE picture ALTER COLUMN url DROP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_picture_hash ON picture (hash);
@@ -0,0 +1,26 @@
+-- Width variants and blur placeholders of pictures in the blob store. A row is queued in the transaction that
+-- stores the picture and is claimed by PictureVariantPipeline; variants are blobs themselves.
+CREATE TABLE IF NOT EXISTS picture_renditions (
+    id           BIGSERIAL PRIMARY KEY,
+    source_hash  VARCHAR(64) NOT NULL,
+    status       VARCHAR(16) NOT NULL,
+    attempts     INTEGER     NOT NULL DEFAULT 0,
+    last_error   VARCHAR(500),
+    placeholder  TEXT,
+    queued_at    TIMESTAMP   NOT NULL,
+    started_at   TIMESTAMP,
+    finished_at  TIMESTAMP,
+    CONSTRAINT uk_picture_renditions_source_hash UNIQUE (source_hash)
+);
+
+CREATE INDEX IF NOT EXISTS idx_picture_renditions_status ON picture_renditions (status, id);
+
+CREATE TABLE IF NOT EXISTS picture_rendition_variants (
+    rendition_id  BIGINT      NOT NULL REFERENCES picture_renditions (id) ON DELETE CASCADE,
+    width         INTEGER     NOT NULL,
+    height        INTEGER     NOT NULL,
+    hash          VARCHAR(64) NOT NULL,
+    content_type  VARCHAR(32) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_picture_rendition_variants_rendition ON picture_rendition_variants (rendition_id);
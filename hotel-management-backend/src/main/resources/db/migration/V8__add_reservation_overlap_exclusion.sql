@@ -0,0 +1,16 @@
+-- Reject overlapping stays for the same room in the database itself, so concurrent bookings
+-- cannot both pass the availability check and insert. Only statuses that hold the room take part.
+-- Stays are half-open [check_in_time, check_out_time): back-to-back bookings are allowed.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'reservations_no_overlapping_stays') THEN
+        ALTER TABLE reservations
+        ADD CONSTRAINT reservations_no_overlapping_stays
+        EXCLUDE USING gist (
+            room_id WITH =,
+            tsrange(check_in_time, check_out_time, '[)') WITH &&
+        ) WHERE (status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN'));
+    END IF;
+END $$;
@@ -0,0 +1,12 @@
+-- Per night counters of rooms sold for each room type (room name) of a hotel, kept current by the
+-- reservation service in the same transaction as the reservation write. The unique key is what the
+-- incremental upserts conflict on.
+CREATE TABLE IF NOT EXISTS room_type_night_inventory (
+    id        BIGSERIAL PRIMARY KEY,
+    hotel_id  BIGINT       NOT NULL,
+    room_type VARCHAR(255) NOT NULL,
+    night     DATE         NOT NULL,
+    total     INTEGER      NOT NULL,
+    sold      INTEGER      NOT NULL,
+    CONSTRAINT uk_room_type_night_inventory UNIQUE (hotel_id, room_type, night)
+);
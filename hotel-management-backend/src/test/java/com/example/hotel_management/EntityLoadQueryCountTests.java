@@ -0,0 +1,166 @@
+package com.example.hotel_management;
+
+import com.example.hotel_management.dto.HotelResponseDTO;
+import com.example.hotel_management.dto.ReservationDTO;
+import com.example.hotel_management.dto.RoomDTO;
+import com.example.hotel_management.entity.Hotel;
+import com.example.hotel_management.entity.Room;
+import com.example.hotel_management.entity.User;
+import com.example.hotel_management.enums.UserRole;
+import com.example.hotel_management.repository.HotelRepository;
+import com.example.hotel_management.repository.ReservationRepository;
+import com.example.hotel_management.repository.RoomRepository;
+import com.example.hotel_management.repository.UserRepository;
+import com.example.hotel_management.service.HotelService;
+import com.example.hotel_management.service.ReservationService;
+import com.example.hotel_management.service.RoomService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads rooms, reservations and hotels the way their list endpoints do and checks the number of statements does
+ * not grow with the result. With eager room pictures and lazy to-one associations a list used to cost one
+ * statement per room for its pictures plus one per distinct room, guest and creator of each reservation.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EntityLoadQueryCountTests {
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Room> rooms = new ArrayList<>();
+    private TestFixtures fixtures;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(userRepository, hotelRepository, roomRepository, reservationRepository);
+        admin = fixtures.user(UserRole.ADMIN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void roomListsLoadPicturesWithoutAQueryPerRoom() {
+        Hotel hotel = fixtures.hotel(admin);
+        addRooms(hotel, 2);
+        long few = statementsFor(() -> roomCards(hotel.getId()), 2);
+        addRooms(hotel, 13);
+        long many = statementsFor(() -> roomCards(hotel.getId()), 15);
+
+        // eager pictures used to cost the room query plus one per room, 1 + 15 = 16 statements
+        assertThat(many).isEqualTo(few).isLessThanOrEqualTo(2).isLessThan(1 + 15);
+    }
+
+    @Test
+    void reservationPagesLoadAssociationsWithoutAQueryPerRow() {
+        Hotel hotel = fixtures.hotel(admin);
+        addRooms(hotel, 4);
+        Long before = addReservations(2);
+        long few = statementsFor(() -> reservationService.getReservationsAfter(before, 100), 2);
+        addReservations(18);
+        long many = statementsFor(() -> reservationService.getReservationsAfter(before, 100), 20);
+
+        // the reservations with room, guest and creator, then the pictures of all their rooms; this used to
+        // take the page query plus at least one per distinct guest, so over 1 + 20 statements
+        assertThat(many).isEqualTo(few).isLessThanOrEqualTo(2).isLessThan(1 + 20);
+    }
+
+    @Test
+    void hotelPagesLoadAdminAndCollectionsWithoutAQueryPerHotel() {
+        Long before = fixtures.hotel(admin).getId() - 1;
+        fixtures.hotel(admin);
+        long few = statementsFor(() -> hotelService.getHotelsAfter(before, 2), 2);
+        for (int i = 2; i < 12; i++) {
+            fixtures.hotel(admin);
+        }
+        long many = statementsFor(() -> hotelService.getHotelsAfter(before, 12), 12);
+
+        // the hotels with their admin, then amenities and pictures of all of them; loading amenities and
+        // pictures hotel by hotel used to take 1 + 2 * 12 = 25 statements
+        assertThat(many).isEqualTo(few).isLessThanOrEqualTo(3).isLessThan(1 + 2 * 12);
+    }
+
+    private List<RoomDTO> roomCards(Long hotelId) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                roomService.getRoomsByHotelId(hotelId).stream().map(RoomDTO::fromEntity).toList());
+    }
+
+    private long statementsFor(Supplier<List<?>> read, int expectedRows) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<?> rows = read.get();
+        assertThat(rows).hasSize(expectedRows);
+        rows.forEach(row -> {
+            if (row instanceof ReservationDTO reservation) {
+                assertThat(reservation.getRoom().getPictures()).hasSize(2);
+                assertThat(reservation.getGuest()).isNotNull();
+            } else if (row instanceof RoomDTO room) {
+                assertThat(room.getPictures()).hasSize(2);
+            } else if (row instanceof HotelResponseDTO hotel) {
+                assertThat(hotel.getAdminId()).isEqualTo(admin.getId());
+                assertThat(hotel.getAmenities()).hasSize(2);
+            }
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void addRooms(Hotel hotel, int count) {
+        for (int i = 0; i < count; i++) {
+            rooms.add(fixtures.room(hotel, "Double", 2));
+        }
+    }
+
+    /**
+     * Books the rooms in turn with a new guest per reservation and returns the id just below the first one.
+     */
+    private Long addReservations(int count) {
+        Long first = null;
+        for (int i = 0; i < count; i++) {
+            Long id = fixtures.booking(rooms.get(i % rooms.size()), fixtures.user(UserRole.GUEST), admin).getId();
+            first = first == null ? id : first;
+        }
+        return first - 1;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.hotel_management;
+
+import com.example.hotel_management.storage.LocalBlobStore;
+import com.example.hotel_management.storage.PictureUploads;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that picture uploads are streamed into the blob store with a small, fixed amount of heap per upload,
+ * and that oversized, mistyped and surplus concurrent uploads are turned away. Also checks that the blob store
+ * only sweeps content that has not been written again.
+ */
+class PictureUploadsTests {
+
+    private static final long MAX_BYTES = 32L * 1024 * 1024;
+    private static final int UPLOAD_BYTES = 16 * 1024 * 1024;
+    // buffering 16 MB the old way took over 40 MB (bytes, base64 string, data URL); streaming needs only buffers
+    private static final long HEAP_BUDGET_PER_UPLOAD = 2 * 1024 * 1024;
+
+    @TempDir
+    Path root;
+
+    private LocalBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        blobStore = new LocalBlobStore(root.toString());
+    }
+
+    @Test
+    void concurrentUploadsAllocateOnlyBuffers() throws Exception {
+        int uploads = 4;
+        PictureUploads pictureUploads = newUploads(uploads, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(uploads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int i = 0; i < uploads; i++) {
+                int seed = i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long before = allocatedBytes();
+                    PictureUploads.Upload upload = pictureUploads.store("image/jpeg", UPLOAD_BYTES,
+                            new JpegLikeStream(UPLOAD_BYTES, seed, null));
+                    return new long[]{allocatedBytes() - before, upload.blob().size()};
+                }));
+            }
+            start.countDown();
+            for (Future<long[]> result : results) {
+                long[] measured = result.get(60, TimeUnit.SECONDS);
+                assertThat(measured[1]).isEqualTo(UPLOAD_BYTES);
+                assertThat(measured[0]).isLessThan(HEAP_BUDGET_PER_UPLOAD);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(pictureUploads.getStats().getStored()).isEqualTo(uploads);
+        assertThat(pictureUploads.getStats().getInProgress()).isZero();
+    }
+
+    @Test
+    void uploadsBeyondTheSlotsAreRejected() throws Exception {
+        PictureUploads pictureUploads = newUploads(1, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        JpegLikeStream blocked = new JpegLikeStream(1024, 0, release);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<PictureUploads.Upload> first = executor.submit(() -> pictureUploads.store("image/jpeg", -1, blocked));
+            blocked.reading.await(10, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> pictureUploads.store("image/jpeg", 1024, new JpegLikeStream(1024, 1, null)))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            release.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS).blob().size()).isEqualTo(1024);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertThat(pictureUploads.getStats().getRejectedBusy()).isEqualTo(1);
+    }
+
+    @Test
+    void oversizedUploadsAreRejectedEarlyAndLeaveNothingBehind() throws IOException {
+        PictureUploads pictureUploads = newUploads(1, 50);
+        JpegLikeStream declared = new JpegLikeStream(1024, 0, null);
+        assertThatThrownBy(() -> pictureUploads.store("image/jpeg", MAX_BYTES + 1, declared))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+        assertThat(declared.position).isZero();
+
+        JpegLikeStream undeclared = new JpegLikeStream(MAX_BYTES + 1, 0, null);
+        assertThatThrownBy(() -> pictureUploads.store("image/jpeg", -1, undeclared))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+        assertThat(storedFiles()).isEmpty();
+    }
+
+    @Test
+    void uploadsMustBeTheImageTheyClaimToBe() throws IOException {
+        PictureUploads pictureUploads = newUploads(1, 50);
+        assertThatThrownBy(() -> pictureUploads.store("text/html", 1024, new JpegLikeStream(1024, 0, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pictureUploads.store("image/png", 1024, new JpegLikeStream(1024, 0, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(pictureUploads.store("image/jpeg; charset=binary", 1024, new JpegLikeStream(1024, 0, null))
+                .contentType()).isEqualTo("image/jpeg");
+        assertThat(storedFiles()).hasSize(1);
+    }
+
+    @Test
+    void blobsWrittenAgainAreNotSwept() throws IOException {
+        String hash = blobStore.put(new JpegLikeStream(1024, 0, null)).hash();
+        Path file = storedFiles().get(0);
+        Instant cutoff = Instant.now().minusSeconds(60);
+        Files.setLastModifiedTime(file, FileTime.from(cutoff.minusSeconds(60)));
+        try (Stream<String> old = blobStore.writtenBefore(cutoff)) {
+            assertThat(old).containsExactly(hash);
+        }
+
+        // another upload of the same content, e.g. one about to save a picture that refers to it
+        blobStore.put(new JpegLikeStream(1024, 0, null));
+        assertThat(blobStore.deleteIfWrittenBefore(hash, cutoff)).isFalse();
+        assertThat(blobStore.get(hash)).isPresent();
+
+        Files.setLastModifiedTime(file, FileTime.from(cutoff.minusSeconds(60)));
+        assertThat(blobStore.deleteIfWrittenBefore(hash, cutoff)).isTrue();
+        assertThat(storedFiles()).isEmpty();
+    }
+
+    private PictureUploads newUploads(int maxConcurrent, long queueWaitMillis) {
+        return new PictureUploads(blobStore, MAX_BYTES, new String[]{"image/jpeg", "image/png"},
+                maxConcurrent, queueWaitMillis, 1);
+    }
+
+    private List<Path> storedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Generates a JPEG signature followed by seeded filler without allocating, optionally pausing after the
+     * signature until released.
+     */
+    private static class JpegLikeStream extends InputStream {
+
+        private static final int[] SIGNATURE = {0xFF, 0xD8, 0xFF, 0xE0};
+
+        private final long length;
+        private final int seed;
+        private final CountDownLatch release;
+        final CountDownLatch reading = new CountDownLatch(1);
+        long position;
+
+        JpegLikeStream(long length, int seed, CountDownLatch release) {
+            this.length = length;
+            this.seed = seed;
+            this.release = release;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position >= length) {
+                return -1;
+            }
+            pauseAfterSignature();
+            int b = position < SIGNATURE.length ? SIGNATURE[(int) position] : (int) ((position * 31 + seed) & 0xFF);
+            position++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= length) {
+                return -1;
+            }
+            int n = (int) Math.min(len, length - position);
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) read();
+            }
+            return n;
+        }
+
+        private void pauseAfterSignature() throws IOException {
+            if (release != null && position == SIGNATURE.length) {
+                reading.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+        }
+    }
+}
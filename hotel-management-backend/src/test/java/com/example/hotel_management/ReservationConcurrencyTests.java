@@ -0,0 +1,144 @@
+package com.example.hotel_management;
+
+import com.example.hotel_management.entity.Reservation;
+import com.example.hotel_management.entity.Room;
+import com.example.hotel_management.entity.User;
+import com.example.hotel_management.enums.ReservationStatus;
+import com.example.hotel_management.enums.UserRole;
+import com.example.hotel_management.repository.HotelRepository;
+import com.example.hotel_management.repository.ReservationRepository;
+import com.example.hotel_management.repository.RoomRepository;
+import com.example.hotel_management.repository.UserRepository;
+import com.example.hotel_management.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires many simultaneous bookings at one room and checks the database lets exactly one of them through.
+ */
+@SpringBootTest
+class ReservationConcurrencyTests {
+
+    private static final int PARALLEL_BOOKINGS = 32;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private TestFixtures fixtures;
+    private User admin;
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        // the schema is managed by Hibernate, so make sure the exclusion constraint is in place
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V8__add_reservation_overlap_exclusion.sql"));
+        populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);
+        populator.execute(dataSource);
+
+        fixtures = new TestFixtures(userRepository, hotelRepository, roomRepository, reservationRepository);
+        admin = fixtures.user(UserRole.ADMIN);
+        room = fixtures.room(fixtures.hotel(admin), "Deluxe", 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void onlyOneOfManyParallelBookingsForTheSameRoomSucceeds() throws Exception {
+        LocalDateTime checkIn = LocalDateTime.now().plusDays(30).withNano(0);
+        LocalDateTime checkOut = checkIn.plusDays(2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_BOOKINGS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < PARALLEL_BOOKINGS; i++) {
+            // stagger the stays a little so they overlap without being identical
+            int offsetHours = i % 4;
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    reservationService.createReservation(
+                            newReservation(checkIn.plusHours(offsetHours), checkOut.plusHours(offsetHours)));
+                    return true;
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+            }));
+        }
+
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(reservationRepository.findByRoomId(room.getId()))
+                .filteredOn(r -> r.getStatus().blocksRoom())
+                .hasSize(1);
+    }
+
+    @Test
+    void backToBackStaysForTheSameRoomAreAllowed() {
+        LocalDateTime checkIn = LocalDateTime.now().plusDays(60).withNano(0);
+
+        reservationService.createReservation(newReservation(checkIn, checkIn.plusDays(1)));
+        reservationService.createReservation(newReservation(checkIn.plusDays(1), checkIn.plusDays(2)));
+
+        assertThat(reservationRepository.findByRoomId(room.getId()))
+                .extracting(Reservation::getStatus)
+                .containsOnly(ReservationStatus.CONFIRMED);
+    }
+
+    private Reservation newReservation(LocalDateTime checkIn, LocalDateTime checkOut) {
+        Room roomRef = new Room();
+        roomRef.setId(room.getId());
+
+        Reservation reservation = new Reservation();
+        reservation.setRoom(roomRef);
+        reservation.setGuest(admin);
+        reservation.setCreatedBy(admin);
+        reservation.setCheckInTime(checkIn);
+        reservation.setCheckOutTime(checkOut);
+        return reservation;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.hotel_management;
+
+import com.example.hotel_management.dto.ReservationDTO;
+import com.example.hotel_management.entity.Hotel;
+import com.example.hotel_management.entity.Room;
+import com.example.hotel_management.entity.User;
+import com.example.hotel_management.enums.UserRole;
+import com.example.hotel_management.repository.HotelRepository;
+import com.example.hotel_management.repository.ReservationRepository;
+import com.example.hotel_management.repository.RoomRepository;
+import com.example.hotel_management.repository.UserRepository;
+import com.example.hotel_management.service.ReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the reservation list reads cost the same number of statements for a few reservations as for many.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReservationQueryCountTests {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Room> rooms = new ArrayList<>();
+    private TestFixtures fixtures;
+    private Hotel hotel;
+    private User guest;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(userRepository, hotelRepository, roomRepository, reservationRepository);
+        guest = fixtures.user(UserRole.GUEST);
+        hotel = fixtures.hotel(fixtures.user(UserRole.ADMIN));
+        for (int i = 0; i < 3; i++) {
+            rooms.add(fixtures.room(hotel, i == 0 ? "Suite" : "Double", 2));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void listReadsUseAConstantNumberOfStatements() {
+        addReservations(2);
+        long byHotelFew = statementsFor(() -> reservationService.getReservationsByHotelId(hotel.getId()), 2);
+        long byGuestFew = statementsFor(() -> reservationService.getReservationsByUserId(guest.getId()), 2);
+        long upcomingFew = statementsFor(() -> reservationService.getUpcomingReservations(guest.getId()), 2);
+
+        addReservations(18);
+        long byHotelMany = statementsFor(() -> reservationService.getReservationsByHotelId(hotel.getId()), 20);
+        long byGuestMany = statementsFor(() -> reservationService.getReservationsByUserId(guest.getId()), 20);
+        long upcomingMany = statementsFor(() -> reservationService.getUpcomingReservations(guest.getId()), 20);
+
+        assertThat(byHotelMany).isEqualTo(byHotelFew).isLessThanOrEqualTo(2);
+        assertThat(byGuestMany).isEqualTo(byGuestFew).isLessThanOrEqualTo(2);
+        assertThat(upcomingMany).isEqualTo(upcomingFew).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void currentReservationsUseAConstantNumberOfStatements() {
+        addCurrentReservations(2);
+        long few = statementsFor(() -> reservationService.getCurrentReservations(guest.getId()), 2);
+
+        addCurrentReservations(18);
+        long many = statementsFor(() -> reservationService.getCurrentReservations(guest.getId()), 20);
+
+        assertThat(many).isEqualTo(few).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void listReadsKeepRoomPicturesAndUsers() {
+        addReservations(3);
+
+        List<ReservationDTO> reservations = reservationService.getReservationsByHotelId(hotel.getId());
+
+        assertThat(reservations).hasSize(3).allSatisfy(reservation -> {
+            assertThat(reservation.getRoom().getPictures()).hasSize(2);
+            assertThat(reservation.getGuest().getId()).isEqualTo(guest.getId());
+            assertThat(reservation.getCreatedBy().getId()).isEqualTo(guest.getId());
+            assertThat(reservation.getHotelId()).isEqualTo(hotel.getId());
+        });
+    }
+
+    private long statementsFor(Supplier<List<ReservationDTO>> read, int expectedRows) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(read.get()).hasSize(expectedRows);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void addReservations(int count) {
+        for (int i = 0; i < count; i++) {
+            fixtures.booking(rooms.get(i % rooms.size()), guest, guest);
+        }
+    }
+
+    // stays in progress right now, each in a room of its own so none of them overlap
+    private void addCurrentReservations(int count) {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < count; i++) {
+            fixtures.reservation(fixtures.room(hotel, "Double", 2), guest, guest, now.minusDays(1), now.plusDays(1));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.hotel_management;
+
+import com.example.hotel_management.scheduling.PartitionLeaseManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two application instances against the same database and checks they split the scheduler partitions
+ * between them, and that the survivor takes over when one of them stops.
+ */
+class SchedulerPartitioningTests {
+
+    @Test
+    void twoNodesSplitThePartitionsAndTheSurvivorTakesOver() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        try (ConfigurableApplicationContext first = start("test-a-" + suffix);
+             ConfigurableApplicationContext second = start("test-b-" + suffix)) {
+            PartitionLeaseManager a = first.getBean(PartitionLeaseManager.class);
+            PartitionLeaseManager b = second.getBean(PartitionLeaseManager.class);
+
+            // the first node releases its surplus, then the second one claims it
+            for (int round = 0; round < 3; round++) {
+                a.heartbeat();
+                b.heartbeat();
+            }
+
+            List<Integer> ownedByA = a.ownedPartitions();
+            List<Integer> ownedByB = b.ownedPartitions();
+            assertThat(ownedByA).isNotEmpty();
+            assertThat(ownedByB).isNotEmpty();
+            assertThat(ownedByA).doesNotContainAnyElementsOf(ownedByB);
+
+            second.close();
+            a.heartbeat();
+
+            Set<Integer> expected = new HashSet<>(ownedByA);
+            expected.addAll(ownedByB);
+            assertThat(a.ownedPartitions()).containsAll(expected);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String nodeId) {
+        return new SpringApplicationBuilder(HotelManagementApplication.class)
+                .properties(
+                        "server.port=0",
+                        "scheduler.node-id=" + nodeId,
+                        "scheduler.partitioning.enabled=true",
+                        // heartbeats are driven by the test
+                        "scheduler.partitioning.heartbeat-ms=3600000",
+                        "transitions.timers.enabled=false")
+                .run();
+    }
+}
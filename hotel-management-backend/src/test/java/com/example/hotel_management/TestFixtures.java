@@ -0,0 +1,130 @@
+package com.example.hotel_management;
+
+import com.example.hotel_management.entity.Hotel;
+import com.example.hotel_management.entity.Picture;
+import com.example.hotel_management.entity.Reservation;
+import com.example.hotel_management.entity.Room;
+import com.example.hotel_management.entity.User;
+import com.example.hotel_management.enums.ReservationStatus;
+import com.example.hotel_management.enums.RoomStatus;
+import com.example.hotel_management.enums.UserRole;
+import com.example.hotel_management.repository.HotelRepository;
+import com.example.hotel_management.repository.ReservationRepository;
+import com.example.hotel_management.repository.RoomRepository;
+import com.example.hotel_management.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Saves the users, hotels, rooms and reservations a database test works on and deletes them again with
+ * {@link #cleanUp()}. Names carry a random suffix, so tests never collide with each other or with existing data.
+ */
+class TestFixtures {
+
+    private final UserRepository userRepository;
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final ReservationRepository reservationRepository;
+
+    private final String suffix = UUID.randomUUID().toString().substring(0, 8);
+    private final List<User> users = new ArrayList<>();
+    private final List<Hotel> hotels = new ArrayList<>();
+    private final List<Room> rooms = new ArrayList<>();
+    private LocalDateTime nextCheckIn = LocalDateTime.now().plusDays(10).withNano(0);
+
+    TestFixtures(UserRepository userRepository, HotelRepository hotelRepository,
+                 RoomRepository roomRepository, ReservationRepository reservationRepository) {
+        this.userRepository = userRepository;
+        this.hotelRepository = hotelRepository;
+        this.roomRepository = roomRepository;
+        this.reservationRepository = reservationRepository;
+    }
+
+    User user(UserRole role) {
+        String name = role.name().toLowerCase() + "-" + users.size() + "-" + suffix;
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName("Fixture");
+        user.setUsername(name);
+        user.setPassword("not-used");
+        user.setRole(role);
+        user.setEmail(name + "@example.com");
+        user.setPhoneNumber("000");
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+
+    // with two amenities and one picture, so hotel lists have collections to load
+    Hotel hotel(User admin) {
+        int index = hotels.size();
+        Hotel hotel = new Hotel();
+        hotel.setName("Test Hotel " + suffix + " " + index);
+        hotel.setAddress("Test street " + index);
+        hotel.setPhoneNumber("000");
+        hotel.setEmail("hotel-" + index + "-" + suffix + "@example.com");
+        hotel.setStarRating(3);
+        hotel.setAmenities(Set.of("wifi", "pool"));
+        hotel.setPictures(List.of("https://example.com/" + suffix + "/hotel-" + index + ".jpg"));
+        hotel.setAdmin(admin);
+        Hotel saved = hotelRepository.save(hotel);
+        hotels.add(saved);
+        return saved;
+    }
+
+    Room room(Hotel hotel, String type, int pictures) {
+        int index = rooms.size();
+        Room room = new Room();
+        room.setNumber(String.valueOf(100 + index));
+        room.setName(type);
+        room.setStatus(RoomStatus.AVAILABLE);
+        room.setPrice(new BigDecimal("100.00"));
+        room.setHotel(hotel);
+        for (int p = 0; p < pictures; p++) {
+            Picture picture = new Picture();
+            picture.setUrl("https://example.com/" + suffix + "/" + index + "/" + p + ".jpg");
+            room.addPicture(picture);
+        }
+        Room saved = roomRepository.save(room);
+        rooms.add(saved);
+        return saved;
+    }
+
+    /**
+     * Saves a confirmed one-night stay. Each call takes the night after the previous one, so no two stays
+     * of a room overlap.
+     */
+    Reservation booking(Room room, User guest, User createdBy) {
+        LocalDateTime checkIn = nextCheckIn;
+        nextCheckIn = nextCheckIn.plusDays(1);
+        return reservation(room, guest, createdBy, checkIn, checkIn.plusDays(1));
+    }
+
+    Reservation reservation(Room room, User guest, User createdBy, LocalDateTime checkIn, LocalDateTime checkOut) {
+        Reservation reservation = new Reservation();
+        reservation.setRoom(room);
+        reservation.setHotel(room.getHotel());
+        reservation.setGuest(guest);
+        reservation.setCreatedBy(createdBy);
+        reservation.setCheckInTime(checkIn);
+        reservation.setCheckOutTime(checkOut);
+        reservation.setTotalPrice(new BigDecimal("100.00"));
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        return reservationRepository.save(reservation);
+    }
+
+    // also removes reservations the code under test made for the fixtures' rooms
+    void cleanUp() {
+        for (Room room : rooms) {
+            reservationRepository.deleteAll(reservationRepository.findByRoomId(room.getId()));
+        }
+        roomRepository.deleteAll(rooms);
+        hotelRepository.deleteAll(hotels);
+        userRepository.deleteAll(users);
+    }
+}
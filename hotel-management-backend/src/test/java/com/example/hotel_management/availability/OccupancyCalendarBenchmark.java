@@ -0,0 +1,172 @@
+package com.example.hotel_management.availability;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the room availability check of the index (occupancy calendar, then the exact interval check) with
+ * {@code ReservationRepository.findOverlappingReservations} for the same rooms and stays.
+ * <p>
+ * The query runs over JDBC against an in-memory H2 database with an index on {@code room_id}, so its figure
+ * leaves out Hibernate and the network round trip to PostgreSQL and is a lower bound for the real path.
+ * Run with {@code mvn test-compile} and then this class's {@code main} on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OccupancyCalendarBenchmark {
+
+    private static final int ROOMS = 50;
+    private static final int HORIZON_NIGHTS = 730;
+    private static final int PROBES = 1024;
+    private static final String OVERLAPPING_SQL =
+            "SELECT id, room_id, status, check_in_time, check_out_time FROM reservations " +
+            "WHERE room_id = ? AND status IN ('PENDING', 'ACTIVE') " +
+            "AND ((check_in_time BETWEEN ? AND ?) " +
+            "OR (check_out_time BETWEEN ? AND ?) " +
+            "OR (? BETWEEN check_in_time AND check_out_time))";
+
+    private final Map<Long, RoomIntervals> intervalsByRoom = new HashMap<>();
+    private final long[] probeRooms = new long[PROBES];
+    private final LocalDateTime[] probeCheckIns = new LocalDateTime[PROBES];
+    private final LocalDateTime[] probeCheckOuts = new LocalDateTime[PROBES];
+    private OccupancyCalendar calendar;
+    private Connection connection;
+    private PreparedStatement overlapping;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        long firstNight = LocalDate.now().toEpochDay() - 1;
+        calendar = new OccupancyCalendar(HORIZON_NIGHTS, firstNight);
+        connection = DriverManager.getConnection("jdbc:h2:mem:occupancy;MODE=PostgreSQL");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE reservations (id BIGINT PRIMARY KEY, room_id BIGINT NOT NULL, " +
+                    "status VARCHAR(20) NOT NULL, check_in_time TIMESTAMP NOT NULL, check_out_time TIMESTAMP NOT NULL)");
+            ddl.execute("CREATE INDEX reservations_room_id ON reservations (room_id)");
+        }
+
+        // stays of 1-7 nights with gaps of 0-4 nights fill roughly two thirds of every room's nights
+        long reservationId = 0;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO reservations VALUES (?, ?, ?, ?, ?)")) {
+            for (long roomId = 1; roomId <= ROOMS; roomId++) {
+                RoomIntervals intervals = RoomIntervals.EMPTY;
+                long night = firstNight + random.nextInt(5);
+                while (night < firstNight + HORIZON_NIGHTS) {
+                    long checkOutNight = night + 1 + random.nextInt(7);
+                    LocalDateTime checkIn = LocalDate.ofEpochDay(night).atTime(14, 0);
+                    LocalDateTime checkOut = LocalDate.ofEpochDay(checkOutNight).atTime(11, 0);
+                    intervals = intervals.with(++reservationId, toEpoch(checkIn), toEpoch(checkOut));
+                    insert.setLong(1, reservationId);
+                    insert.setLong(2, roomId);
+                    insert.setString(3, random.nextInt(4) == 0 ? "PENDING" : "ACTIVE");
+                    insert.setTimestamp(4, Timestamp.valueOf(checkIn));
+                    insert.setTimestamp(5, Timestamp.valueOf(checkOut));
+                    insert.addBatch();
+                    night = checkOutNight + random.nextInt(5);
+                }
+                intervalsByRoom.put(roomId, intervals);
+                calendar.refresh(1L, roomId, intervals);
+            }
+            insert.executeBatch();
+        }
+
+        for (int i = 0; i < PROBES; i++) {
+            long night = firstNight + 2 + random.nextInt(HORIZON_NIGHTS - 14);
+            probeRooms[i] = 1 + random.nextInt(ROOMS);
+            probeCheckIns[i] = LocalDate.ofEpochDay(night).atTime(14, 0);
+            probeCheckOuts[i] = LocalDate.ofEpochDay(night + 1 + random.nextInt(7)).atTime(11, 0);
+        }
+        overlapping = connection.prepareStatement(OVERLAPPING_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        overlapping.close();
+        connection.close();
+    }
+
+    // same steps as RoomAvailabilityIndex.isFree
+    @Benchmark
+    public boolean calendar() {
+        int i = nextProbe();
+        long roomId = probeRooms[i];
+        long start = toEpoch(probeCheckIns[i]);
+        long end = toEpoch(probeCheckOuts[i]);
+        if (calendar.isClear(1L, roomId, start, end)) {
+            return true;
+        }
+        RoomIntervals intervals = intervalsByRoom.get(roomId);
+        return intervals == null || !intervals.overlaps(start, end, Long.MIN_VALUE);
+    }
+
+    @Benchmark
+    public boolean findOverlappingReservations() throws SQLException {
+        int i = nextProbe();
+        Timestamp checkIn = Timestamp.valueOf(probeCheckIns[i]);
+        Timestamp checkOut = Timestamp.valueOf(probeCheckOuts[i]);
+        overlapping.setLong(1, probeRooms[i]);
+        overlapping.setTimestamp(2, checkIn);
+        overlapping.setTimestamp(3, checkOut);
+        overlapping.setTimestamp(4, checkIn);
+        overlapping.setTimestamp(5, checkOut);
+        overlapping.setTimestamp(6, checkIn);
+        boolean free = true;
+        try (ResultSet rows = overlapping.executeQuery()) {
+            while (rows.next()) {
+                rows.getLong(1);
+                rows.getTimestamp(4);
+                rows.getTimestamp(5);
+                free = false;
+            }
+        }
+        return free;
+    }
+
+    private int nextProbe() {
+        next = (next + 1) & (PROBES - 1);
+        return next;
+    }
+
+    private static long toEpoch(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OccupancyCalendarBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.hotel_management.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that timers fire on exactly their due tick whichever level of the wheel they start in, and that
+ * cancelled, rescheduled and already due timers behave. Uses 4 slots per level and 3 levels, so level
+ * boundaries fall at 4, 16 and 64 ticks and the overflow list is reached quickly.
+ */
+class HierarchicalTimingWheelTests {
+
+    private static final int BITS_PER_LEVEL = 2;
+    private static final int LEVELS = 3;
+
+    @Test
+    void timersFireOnTheirDueTickAcrossLevelBoundaries() {
+        // an unaligned start, so slots are not filled from the beginning of every level
+        long start = 1_003;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(BITS_PER_LEVEL, LEVELS, start);
+        List<Long> dues = new ArrayList<>();
+        // just below, on and just above every boundary, including the whole span and beyond it
+        for (long boundary : new long[]{4, 16, 64, 256}) {
+            for (long delay = boundary - 1; delay <= boundary + 1; delay++) {
+                dues.add(start + delay);
+            }
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            dues.add(start + 1 + random.nextInt(300));
+        }
+        dues.forEach(due -> wheel.add(due, due));
+
+        Map<Long, Integer> firedAt = new HashMap<>();
+        long last = dues.stream().mapToLong(Long::longValue).max().orElseThrow();
+        for (long tick = start + 1; tick <= last; tick++) {
+            for (Long due : wheel.advance(tick)) {
+                assertThat(due).isEqualTo(tick);
+                firedAt.merge(due, 1, Integer::sum);
+            }
+        }
+
+        Map<Long, Integer> expected = new HashMap<>();
+        dues.forEach(due -> expected.merge(due, 1, Integer::sum));
+        assertThat(firedAt).isEqualTo(expected);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advancingOverManyTicksReturnsTimersInDueOrder() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(BITS_PER_LEVEL, LEVELS, 0);
+        for (long due : new long[]{70, 3, 16, 65, 5, 300, 15, 64}) {
+            wheel.add(due, due);
+        }
+
+        assertThat(wheel.advance(64)).containsExactly(3L, 5L, 15L, 16L, 64L);
+        assertThat(wheel.advance(400)).containsExactly(65L, 70L, 300L);
+        assertThat(wheel.currentTick()).isEqualTo(400);
+    }
+
+    @Test
+    void cancelledTimersNeverFireAndCanBeRescheduled() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(BITS_PER_LEVEL, LEVELS, 0);
+        HierarchicalTimingWheel.Timer<String> near = wheel.add("near", 2);
+        HierarchicalTimingWheel.Timer<String> far = wheel.add("far", 40);
+        HierarchicalTimingWheel.Timer<String> overflow = wheel.add("overflow", 100);
+        wheel.add("kept", 20);
+        assertThat(wheel.size()).isEqualTo(4);
+
+        wheel.cancel(near);
+        wheel.cancel(near);
+        wheel.cancel(overflow);
+        assertThat(wheel.size()).isEqualTo(2);
+
+        // rescheduling is a cancel plus a new timer, e.g. when a stay's check-in time moves
+        wheel.cancel(far);
+        wheel.add("far", 10);
+
+        assertThat(wheel.advance(9)).isEmpty();
+        assertThat(wheel.advance(10)).containsExactly("far");
+        assertThat(wheel.advance(200)).containsExactly("kept");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void timersAlreadyDueFireOnTheNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(BITS_PER_LEVEL, LEVELS, 500);
+        wheel.add("now", 500);
+        wheel.add("long ago", 3);
+
+        assertThat(wheel.advance(501)).containsExactlyInAnyOrder("now", "long ago");
+        assertThat(wheel.size()).isZero();
+
+        // also in the middle of a run, after cascades have happened
+        wheel.advance(531);
+        wheel.add("late", 520);
+        assertThat(wheel.advance(532)).containsExactly("late");
+    }
+}
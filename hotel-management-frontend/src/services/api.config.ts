@@ -31,3 +31,24 @@ api.interceptors.request.use(
         return Promise.reject(error);
     }
 );
+
+interface CursorPage<T> {
+    items: T[];
+    nextCursor: string | null;
+}
+
+// List endpoints answer one page at a time; follow the cursors to collect every item
+export async function getAllPages<T>(path: string): Promise<T[]> {
+    const items: T[] = [];
+    let after: string | null = null;
+    do {
+        const params: Record<string, string | number> = { limit: 500 };
+        if (after) {
+            params.after = after;
+        }
+        const response = await api.get<CursorPage<T>>(path, { params });
+        items.push(...response.data.items);
+        after = response.data.nextCursor;
+    } while (after);
+    return items;
+}
@@ -1,4 +1,4 @@
-import { api } from './api.config';
+import { api, getAllPages } from './api.config';
 import { Hotel } from '../types/hotel.type';
 
 export class HotelService {
@@ -35,9 +35,9 @@ export class HotelService {
     static async getAllHotels(): Promise<Hotel[]> {
         try {
             console.log('Fetching all hotels...');
-            const response = await api.get(this.BASE_PATH);
-            console.log('Get all hotels response:', response.data);
-            return response.data;
+            const hotels = await getAllPages<Hotel>(this.BASE_PATH);
+            console.log('Get all hotels response:', hotels);
+            return hotels;
         } catch (error: any) {
             console.error('Error in getAllHotels:', error.response?.data || error.message);
             throw error;
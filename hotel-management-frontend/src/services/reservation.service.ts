@@ -1,4 +1,4 @@
-import { api } from './api.config';
+import { api, getAllPages } from './api.config';
 import { Reservation, CreateReservationDTO, ReservationStatus } from '../types/reservation.type';
 
 export class ReservationService {
@@ -25,8 +25,7 @@ export class ReservationService {
     }
 
     static async getAllReservations(): Promise<Reservation[]> {
-        const response = await api.get(this.BASE_PATH);
-        return response.data;
+        return getAllPages<Reservation>(this.BASE_PATH);
     }
 
     static async getReservationsByGuest(guestId: number): Promise<Reservation[]> {
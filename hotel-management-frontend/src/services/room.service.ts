@@ -1,4 +1,4 @@
-import { api } from './api.config';
+import { api, getAllPages } from './api.config';
 import { Room, RoomStatus } from '../types/room.type';
 
 export class RoomService {
@@ -20,8 +20,7 @@ export class RoomService {
     }
 
     static async getAllRooms(): Promise<Room[]> {
-        const response = await api.get(this.BASE_PATH);
-        return response.data;
+        return getAllPages<Room>(this.BASE_PATH);
     }
 
     static async getRoomsByHotel(hotelId: number): Promise<Room[]> {
@@ -29,8 +28,15 @@ export class RoomService {
         return response.data;
     }
 
-    static async getAvailableRoomsByHotel(hotelId: number): Promise<Room[]> {
-        const response = await api.get(`${this.BASE_PATH}/hotel/${hotelId}/available`);
+    static async getAvailableRoomsByHotel(
+        hotelId: number,
+        checkIn: string,
+        checkOut: string,
+        options: { minPrice?: number; maxPrice?: number; sort?: string } = {}
+    ): Promise<Room[]> {
+        const response = await api.get(`${this.BASE_PATH}/hotel/${hotelId}/available`, {
+            params: { checkIn, checkOut, ...options }
+        });
         return response.data;
     }
 
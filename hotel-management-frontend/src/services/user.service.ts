@@ -1,4 +1,4 @@
-import { api } from './api.config';
+import { api, getAllPages } from './api.config';
 import { User, UserRole } from '../types/user.type';
 
 interface CreateUserDTO {
@@ -52,8 +52,7 @@ export class UserService {
     }
 
     static async getAllUsers(): Promise<User[]> {
-        const response = await api.get(this.BASE_PATH);
-        return response.data;
+        return getAllPages<User>(this.BASE_PATH);
     }
 
     static async deleteUser(id: number): Promise<void> {
@@ -2,11 +2,17 @@ package com.example.hotel.booking.controller;
 
 import com.example.hotel.booking.entity.Room;
 import com.example.hotel.booking.enums.RoomStatusEnum;
+import com.example.hotel.booking.repository.RoomImageHeader;
+import com.example.hotel.booking.service.RoomImageService;
 import com.example.hotel.booking.service.RoomService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -19,10 +25,12 @@ import java.util.List;
 public class RoomController {
     private static DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
     private RoomService roomService;
+    private RoomImageService roomImageService;
 
     @Autowired
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, RoomImageService roomImageService) {
         this.roomService = roomService;
+        this.roomImageService = roomImageService;
     }
     @PostMapping("/add")
     public ResponseEntity<Room> addNewRoom(@RequestBody Room room) {
@@ -94,6 +102,59 @@ public class RoomController {
         return new ResponseEntity<>(rooms, HttpStatus.OK);
     }
 
+    /**
+     * Streams a room image from the database in chunks, so memory per request does not grow with the image.
+     * Answers If-None-Match with 304 and a single byte range with 206; several ranges get the whole image.
+     */
+    @GetMapping("/image/{imageId}")
+    public ResponseEntity<StreamingResponseBody> getRoomImage(@PathVariable("imageId") Long imageId,
+                                                              @RequestHeader HttpHeaders requestHeaders) {
+        RoomImageHeader image = roomImageService.getImageHeader(imageId);
+        if (image == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String md5 = image.getMd5();
+        String etag = "\"" + md5 + "\"";
+        long length = image.getLength();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (ifNoneMatch.contains(etag) || ifNoneMatch.contains("*")) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        headers.setContentType(MediaType.parseMediaType(roomImageService.getContentType(image)));
+
+        List<HttpRange> ranges;
+        try {
+            ranges = requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            // a malformed Range header is ignored
+            ranges = List.of();
+        }
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ranges.size() != 1 || (ifRange != null && !ifRange.equals(etag))) {
+            headers.setContentLength(length);
+            return new ResponseEntity<>(out -> roomImageService.writeImage(imageId, md5, 0, length, out),
+                    headers, HttpStatus.OK);
+        }
+
+        long start;
+        long end;
+        try {
+            start = ranges.get(0).getRangeStart(length);
+            end = ranges.get(0).getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return new ResponseEntity<>(headers, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        headers.setContentLength(end - start + 1);
+        return new ResponseEntity<>(out -> roomImageService.writeImage(imageId, md5, start, end - start + 1, out),
+                headers, HttpStatus.PARTIAL_CONTENT);
+    }
+
     @DeleteMapping("/delete/{id}")
     public void deleteRoom(@PathVariable("id") Long id) {
         roomService.deleteRoom(id);
@@ -2,10 +2,13 @@ package com.example.hotel.booking.entity;
 
 import com.example.hotel.booking.enums.RoomStatusEnum;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.util.List;
@@ -27,9 +30,17 @@ public class Room {
     private String description;
     private Integer maxCapacity;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "room", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<RoomImage> images; // List of images for the room
 
+    // What a serialized room shows of its images: id, size and URL, never the bytes
+    @JsonProperty(value = "images", access = JsonProperty.Access.READ_ONLY)
+    @OneToMany(fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id", insertable = false, updatable = false)
+    @BatchSize(size = 50)
+    private List<RoomImageInfo> imageInfos;
+
     @JsonBackReference
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
@@ -1,5 +1,7 @@
 package com.example.hotel.booking.entity;
 
+import org.springframework.util.DigestUtils;
+
 import javax.persistence.*;
 
 @Entity
@@ -14,6 +16,10 @@ public class RoomImage {
     @Column(columnDefinition = "BYTEA")
     private byte[] imageData;
 
+    // hex MD5 of imageData, kept with the bytes so the image's ETag does not have to hash them on every request
+    @Column(length = 32)
+    private String imageMd5;
+
     @ManyToOne
     @JoinColumn(name = "room_id", nullable = false)
     private Room room; // Link back to the Room entity
@@ -22,7 +28,7 @@ public class RoomImage {
     public RoomImage() {}
 
     public RoomImage(byte[] imageData, Room room) {
-        this.imageData = imageData;
+        setImageData(imageData);
         this.room = room;
     }
 
@@ -37,6 +43,11 @@ public class RoomImage {
 
     public void setImageData(byte[] imageData) {
         this.imageData = imageData;
+        this.imageMd5 = imageData != null ? DigestUtils.md5DigestAsHex(imageData) : null;
+    }
+
+    public String getImageMd5() {
+        return imageMd5;
     }
 
     public Room getRoom() {
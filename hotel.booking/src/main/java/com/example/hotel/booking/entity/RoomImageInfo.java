@@ -0,0 +1,41 @@
+package com.example.hotel.booking.entity;
+
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+
+/**
+ * Read-only view of a row in room_images without the image bytes, so rooms can list their images
+ * without loading them. The bytes are served by /room/image/{id}.
+ */
+@Entity
+@Immutable
+@Table(name = "room_images")
+public class RoomImageInfo {
+
+    @Id
+    private Long id;
+
+    @Column(name = "room_id", insertable = false, updatable = false)
+    private Long roomId;
+
+    @Formula("octet_length(image_data)")
+    private Long size;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public String getUrl() {
+        return "/room/image/" + id;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.hotel.booking.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads room image bytes with plain JDBC, a chunk at a time. The PostgreSQL driver materializes a whole BYTEA
+ * value when it fetches a row, so even a binary stream over the full column would hold the image in heap;
+ * asking the server for one substring per chunk keeps memory per request at one chunk whatever the image size.
+ */
+@Repository
+public class RoomImageContentRepository {
+
+    // the longest signature checked is 12 bytes (RIFF....WEBP)
+    private static final int HEAD_BYTES = 12;
+
+    // the stored hash; only rows written before it was kept, and not yet backfilled, are hashed on the fly
+    private static final String MD5 = "COALESCE(image_md5, md5(image_data))";
+
+    private static final String HEADER_SQL =
+            "SELECT octet_length(image_data), " + MD5 + ", substring(image_data FROM 1 FOR " + HEAD_BYTES + ") " +
+            "FROM room_images WHERE id = ? AND image_data IS NOT NULL";
+
+    private static final String MD5_SQL =
+            "SELECT " + MD5 + " FROM room_images WHERE id = ? AND image_data IS NOT NULL";
+
+    private static final String BACKFILL_SQL =
+            "UPDATE room_images SET image_md5 = md5(image_data) WHERE id IN (" +
+            "    SELECT id FROM room_images WHERE image_md5 IS NULL AND image_data IS NOT NULL LIMIT ?)";
+
+    private static final String CHUNK_SQL =
+            "SELECT substring(image_data FROM ? FOR ?) FROM room_images WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkBytes;
+
+    @Autowired
+    public RoomImageContentRepository(JdbcTemplate jdbcTemplate,
+                                      @Value("${room.images.chunk-bytes:262144}") int chunkBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkBytes = chunkBytes;
+    }
+
+    public Optional<RoomImageHeader> findHeader(Long id) {
+        List<RoomImageHeader> headers = jdbcTemplate.query(HEADER_SQL,
+                (rs, rowNum) -> new RoomImageHeader(id, rs.getLong(1), rs.getString(2), rs.getBytes(3)), id);
+        return headers.stream().findFirst();
+    }
+
+    public Optional<String> findMd5(Long id) {
+        return jdbcTemplate.queryForList(MD5_SQL, String.class, id).stream().findFirst();
+    }
+
+    /**
+     * Stores the hash of up to {@code batchSize} images that do not have one yet and returns how many were updated.
+     */
+    public int backfillMd5(int batchSize) {
+        return jdbcTemplate.update(BACKFILL_SQL, batchSize);
+    }
+
+    /**
+     * Writes {@code length} bytes of the image starting at {@code offset} to {@code out}, one chunk per query.
+     */
+    public void copy(Long id, long offset, long length, OutputStream out) throws IOException {
+        long end = offset + length;
+        try {
+            for (long position = offset; position < end; position += chunkBytes) {
+                int size = (int) Math.min(chunkBytes, end - position);
+                jdbcTemplate.query(CHUNK_SQL, rs -> {
+                    if (!rs.next()) {
+                        throw new IllegalStateException("Room image " + id + " was removed while it was read");
+                    }
+                    try (InputStream chunk = rs.getBinaryStream(1)) {
+                        if (chunk == null) {
+                            throw new IllegalStateException("Room image " + id + " was cleared while it was read");
+                        }
+                        chunk.transferTo(out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return null;
+                }, position + 1, size, id);
+            }
+        } catch (UncheckedIOException e) {
+            // usually the client went away
+            throw e.getCause();
+        }
+    }
+}
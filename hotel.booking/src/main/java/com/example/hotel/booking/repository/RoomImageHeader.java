@@ -0,0 +1,35 @@
+package com.example.hotel.booking.repository;
+
+/**
+ * What is needed to answer a request for a room image before streaming it: its length, the stored MD5 of its bytes
+ * for the ETag, and the first bytes to tell its type.
+ */
+public class RoomImageHeader {
+    private final Long id;
+    private final long length;
+    private final String md5;
+    private final byte[] head;
+
+    public RoomImageHeader(Long id, long length, String md5, byte[] head) {
+        this.id = id;
+        this.length = length;
+        this.md5 = md5;
+        this.head = head;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public String getMd5() {
+        return md5;
+    }
+
+    public byte[] getHead() {
+        return head;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.hotel.booking.service;
+
+import com.example.hotel.booking.repository.RoomImageHeader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface RoomImageService {
+    public RoomImageHeader getImageHeader(Long id);
+    public String getContentType(RoomImageHeader header);
+    public void writeImage(Long id, String md5, long offset, long length, OutputStream out) throws IOException;
+    public void backfillImageHashes();
+}
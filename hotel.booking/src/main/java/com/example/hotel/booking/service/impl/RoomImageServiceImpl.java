@@ -0,0 +1,84 @@
+package com.example.hotel.booking.service.impl;
+
+import com.example.hotel.booking.repository.RoomImageContentRepository;
+import com.example.hotel.booking.repository.RoomImageHeader;
+import com.example.hotel.booking.service.RoomImageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@Service
+public class RoomImageServiceImpl implements RoomImageService {
+    private static final int BACKFILL_BATCH = 100;
+
+    private final RoomImageContentRepository roomImageContentRepository;
+
+    @Autowired
+    public RoomImageServiceImpl(RoomImageContentRepository roomImageContentRepository) {
+        this.roomImageContentRepository = roomImageContentRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RoomImageHeader getImageHeader(Long id) {
+        return roomImageContentRepository.findHeader(id).orElse(null);
+    }
+
+    @Override
+    public String getContentType(RoomImageHeader header) {
+        byte[] head = header.getHead();
+        if (startsWith(head, 0, 0xFF, 0xD8, 0xFF)) {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+        if (startsWith(head, 0, 0x89, 'P', 'N', 'G')) {
+            return MediaType.IMAGE_PNG_VALUE;
+        }
+        if (startsWith(head, 0, 'G', 'I', 'F', '8')) {
+            return MediaType.IMAGE_GIF_VALUE;
+        }
+        if (startsWith(head, 0, 'R', 'I', 'F', 'F') && startsWith(head, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    // the hash check and all chunks of one response come from the same snapshot, so a response never mixes
+    // images and never sends bytes of an image other than the one its ETag and length describe
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void writeImage(Long id, String md5, long offset, long length, OutputStream out) throws IOException {
+        if (!roomImageContentRepository.findMd5(id).map(md5::equals).orElse(false)) {
+            throw new IllegalStateException("Room image " + id + " changed after its headers were sent");
+        }
+        roomImageContentRepository.copy(id, offset, length, out);
+    }
+
+    // images stored before their hash was kept get one in small batches, each its own statement
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillImageHashes() {
+        int updated;
+        do {
+            updated = roomImageContentRepository.backfillMd5(BACKFILL_BATCH);
+        } while (updated == BACKFILL_BATCH);
+    }
+
+    private static boolean startsWith(byte[] head, int offset, int... signature) {
+        if (head == null || head.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}